@@ -2,7 +2,10 @@ package org.sakidoa;
 
 import org.sakidoa.busnetwork.BusNetwork;
 import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.ShutdownReport;
+import org.sakidoa.core.dashboard.ConsoleDashboard;
 import org.sakidoa.core.enums.ConsoleColor;
+import org.sakidoa.core.metrics.PrometheusEndpoint;
 import org.sakidoa.fullyconnectednetwork.FullyConnectedNetwork;
 import org.sakidoa.hypercubenetwork.HyperCubeNetwork;
 import org.sakidoa.meshnetwork.MeshNetwork;
@@ -11,11 +14,18 @@ import org.sakidoa.starnetwork.StarNetwork;
 import org.sakidoa.switchednetwork.SwitchedNetwork;
 import org.sakidoa.treenetwork.TreeNetwork;
 
+import java.time.Duration;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 public class Main {
     private static final int MESSAGE_DELAY_MS = 500;
+    private static final long TRAFFIC_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Duration SHUTDOWN_DEADLINE = Duration.ofSeconds(2);
+    private static final String METRICS_PORT_PROPERTY = "metrics.port";
     private final Scanner scanner = new Scanner(System.in);
+    private PrometheusEndpoint metricsEndpoint;
 
     public static void main(String[] args) {
         new Main().run();
@@ -26,9 +36,14 @@ public class Main {
             showWelcome();
             int topologyOption = getTopologySelection();
             int nodeCount = getNodeCount(topologyOption);
+            boolean dashboard = getOutputMode() == 2;
 
             NetworkTopology topology = createTopology(topologyOption);
-            executeSimulation(topology, nodeCount);
+            if (dashboard) {
+                executeDashboardSimulation(topology, nodeCount);
+            } else {
+                executeSimulation(topology, nodeCount);
+            }
         } catch (Exception e) {
             handleError("Simulation error", e);
         } finally {
@@ -90,6 +105,12 @@ public class Main {
         return getValidatedInput("Cantidad de nodos (mínimo 2): ", 2, Integer.MAX_VALUE);
     }
 
+    private int getOutputMode() {
+        System.out.println("  1. Mensaje por mensaje");
+        System.out.println("  2. Dashboard en vivo");
+        return getValidatedInput("Modo de salida (1-2): ", 1, 2);
+    }
+
     private boolean isPowerOfTwo(int n) {
         return n > 0 && (n & (n - 1)) == 0;
     }
@@ -131,10 +152,49 @@ public class Main {
         stopNetwork(topology);
     }
 
+    private void executeDashboardSimulation(NetworkTopology topology, int nodeCount) throws InterruptedException {
+        configureAndStartNetwork(topology, nodeCount);
+        String title = topology.getClass().getSimpleName() + " - presiona ENTER para detener la simulación";
+        ShutdownReport report;
+        try (ConsoleDashboard dashboard = new ConsoleDashboard(title, topology.getNodes())) {
+            dashboard.start();
+            Thread traffic = Thread.ofPlatform().name("traffic").daemon()
+                    .start(() -> generateTraffic(topology, nodeCount));
+            scanner.nextLine();
+            scanner.nextLine();
+            traffic.interrupt();
+            traffic.join();
+            report = topology.shutdownNetwork(SHUTDOWN_DEADLINE, true);
+        }
+        printShutdownReport(report);
+    }
+
+    private void generateTraffic(NetworkTopology topology, int nodeCount) {
+        for (int round = 0; !Thread.currentThread().isInterrupted(); round++) {
+            int offset = 1 + round % (nodeCount - 1);
+            for (int i = 0; i < nodeCount; i++) {
+                topology.sendMessage(i, (i + offset) % nodeCount, "Mensaje del nodo " + i);
+            }
+            LockSupport.parkNanos(TRAFFIC_PAUSE_NANOS);
+        }
+    }
+
     private void configureAndStartNetwork(NetworkTopology topology, int nodeCount) {
         topology.configureNetwork(nodeCount);
         topology.runNetwork();
         printColored("Red iniciada exitosamente", ConsoleColor.GREEN);
+        startMetricsEndpoint(topology);
+    }
+
+    private void startMetricsEndpoint(NetworkTopology topology) {
+        Integer port = Integer.getInteger(METRICS_PORT_PROPERTY);
+        if (port == null) {
+            return;
+        }
+        metricsEndpoint = PrometheusEndpoint.start(port);
+        metricsEndpoint.register(topology.getClass().getSimpleName(), topology.getNodes());
+        printColored("Métricas Prometheus en http://localhost:" + metricsEndpoint.getAddress().getPort()
+                + PrometheusEndpoint.PATH, ConsoleColor.GREEN);
     }
 
     private void simulateMessages(NetworkTopology topology, int nodeCount) throws InterruptedException {
@@ -166,8 +226,14 @@ public class Main {
     }
 
     private void stopNetwork(NetworkTopology topology) {
-        topology.shutdownNetwork();
+        printShutdownReport(topology.shutdownNetwork(SHUTDOWN_DEADLINE, true));
+    }
+
+    private void printShutdownReport(ShutdownReport report) {
         printColored("Red detenida gracefully", ConsoleColor.PURPLE);
+        printColored(String.format("  Mensajes drenados: %d | descartados: %d | nodos rezagados: %d | tiempo: %d ms",
+                report.messagesDrained(), report.messagesDiscarded(), report.stragglers().size(),
+                report.elapsed().toMillis()), ConsoleColor.PURPLE);
     }
 
     private void handleError(String context, Exception e) {
@@ -176,6 +242,9 @@ public class Main {
     }
 
     private void closeResources() {
+        if (metricsEndpoint != null) {
+            metricsEndpoint.close();
+        }
         scanner.close();
     }
 
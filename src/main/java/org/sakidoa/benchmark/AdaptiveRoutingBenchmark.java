@@ -0,0 +1,123 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.RoutingStrategy;
+import org.sakidoa.core.metrics.LatencyHistogram;
+import org.sakidoa.hypercubenetwork.AdaptiveHyperCubeRouting;
+import org.sakidoa.hypercubenetwork.HyperCubeNetwork;
+import org.sakidoa.hypercubenetwork.HyperCubeRouting;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Oblivious e-cube versus queue-depth adaptive routing on a hypercube under bit-complement and transpose
+ * traffic. Nodes are modelled the way the simulator runs them: each node is a single server that handles
+ * one message per cycle from its FIFO mailbox, either delivering it or forwarding it to the next hop chosen
+ * by the routing strategy under test, which sees the live mailbox depths as its load hints. Latency is in
+ * cycles from injection to delivery; throughput is delivered messages per node per cycle.
+ */
+public class AdaptiveRoutingBenchmark {
+    private static final int DIMENSIONS = 8;
+    private static final double[] INJECTION_RATES = {0.02, 0.05, 0.08, 0.10, 0.12, 0.15, 0.20};
+    private static final int WARMUP_CYCLES = 2_000;
+    private static final int MEASURED_CYCLES = 10_000;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) {
+        int nodeCount = 1 << DIMENSIONS;
+        HyperCubeNetwork network = new HyperCubeNetwork();
+        network.setRouting(HyperCubeRouting.E_CUBE);
+        network.configureNetwork(nodeCount);
+        RoutingStrategy eCube = network.getRoutingStrategy();
+        network.shutdownNetwork(Duration.ZERO, false);
+
+        System.out.printf("%-15s %-9s %6s %11s %9s %9s %9s %10s%n", "pattern", "routing", "rate", "throughput",
+                "avg", "p99", "max queue", "adaptive %");
+        run("bit-complement", nodeCount, eCube, (source, count) -> ~source & (count - 1));
+        run("transpose", nodeCount, eCube, AdaptiveRoutingBenchmark::transpose);
+    }
+
+    private static void run(String pattern, int nodeCount, RoutingStrategy eCube, IntBinaryOperator destinations) {
+        for (double rate : INJECTION_RATES) {
+            simulate(pattern, "e-cube", nodeCount, rate, destinations, queues -> eCube);
+            simulate(pattern, "adaptive", nodeCount, rate, destinations,
+                    queues -> new AdaptiveHyperCubeRouting(index -> queues.get(index).size()));
+        }
+    }
+
+    private static void simulate(String pattern, String routingName, int nodeCount, double rate,
+                                 IntBinaryOperator destinations, RoutingFactory routingFactory) {
+        @SuppressWarnings("unchecked")
+        List<ArrayDeque<long[]>> queues = new ArrayList<>(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            queues.add(new ArrayDeque<>());
+        }
+        RoutingStrategy routing = routingFactory.create(queues);
+        SplittableRandom random = new SplittableRandom(SEED);
+        LatencyHistogram latency = new LatencyHistogram();
+        long[][] forwarded = new long[nodeCount][];
+        int[] forwardedTo = new int[nodeCount];
+        long delivered = 0;
+        long totalLatency = 0;
+        int maxQueue = 0;
+
+        for (int cycle = 0; cycle < WARMUP_CYCLES + MEASURED_CYCLES; cycle++) {
+            boolean measuring = cycle >= WARMUP_CYCLES;
+            for (int node = 0; node < nodeCount; node++) {
+                int destination = destinations.applyAsInt(node, nodeCount);
+                if (destination != node && random.nextDouble() < rate) {
+                    queues.get(node).addLast(new long[]{destination, cycle});
+                }
+            }
+
+            for (int node = 0; node < nodeCount; node++) {
+                forwarded[node] = null;
+                long[] message = queues.get(node).pollFirst();
+                if (message == null) {
+                    continue;
+                }
+                int destination = (int) message[0];
+                if (destination == node) {
+                    if (measuring) {
+                        latency.record(cycle - message[1]);
+                        totalLatency += cycle - message[1];
+                        delivered++;
+                    }
+                    continue;
+                }
+                forwarded[node] = message;
+                forwardedTo[node] = routing.nextHop(node, destination);
+            }
+
+            for (int node = 0; node < nodeCount; node++) {
+                if (forwarded[node] != null) {
+                    queues.get(forwardedTo[node]).addLast(forwarded[node]);
+                }
+                maxQueue = Math.max(maxQueue, queues.get(node).size());
+            }
+        }
+
+        double throughput = (double) delivered / nodeCount / MEASURED_CYCLES;
+        String adaptiveShare = routing instanceof AdaptiveHyperCubeRouting adaptive ? String.format("%.1f",
+                100.0 * adaptive.getAdaptiveHopCount() / Math.max(1, adaptive.getAdaptiveHopCount()
+                        + adaptive.getECubeHopCount() + adaptive.getFallbackHopCount())) : "-";
+        double averageLatency = (double) totalLatency / Math.max(1, delivered);
+        System.out.printf("%-15s %-9s %6.2f %11.4f %9.1f %9d %9d %10s%n", pattern, routingName, rate, throughput,
+                averageLatency, latency.valueAtPercentile(99.0), maxQueue, adaptiveShare);
+    }
+
+    private static int transpose(int source, int nodeCount) {
+        int half = Integer.numberOfTrailingZeros(nodeCount) / 2;
+        int lowMask = (1 << half) - 1;
+        return ((source & lowMask) << half) | (source >>> half);
+    }
+
+    @FunctionalInterface
+    private interface RoutingFactory {
+        RoutingStrategy create(List<ArrayDeque<long[]>> queues);
+    }
+}
@@ -0,0 +1,140 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.busnetwork.BusNetwork;
+import org.sakidoa.busnetwork.RoundRobinArbiter;
+import org.sakidoa.busnetwork.SharedBus;
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.batch.CoalescingConfig;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.metrics.LatencyHistogram;
+import org.sakidoa.core.metrics.LatencySnapshot;
+import org.sakidoa.fullyconnectednetwork.FullyConnectedNetwork;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * All-to-all small DATA traffic with and without per-hop coalescing. Batch size 1 is the uncoalesced
+ * baseline through the same send path. Throughput is measured by pushing a fixed number of messages as fast
+ * as possible; one-way latency is measured separately at a fixed offered load, so it shows the flush
+ * delay cost rather than queueing.
+ */
+public class CoalescingBenchmark {
+    private static final int NODE_COUNT = 8;
+    private static final int[] BATCH_SIZES = {1, 8, 32, 128};
+    private static final Duration FLUSH_DELAY = Duration.ofMillis(1);
+    private static final int SATURATION_ROUNDS = 20_000;
+    private static final int PACED_ROUNDS = 2_000;
+    private static final long PACED_ROUND_INTERVAL_NANOS = 500_000;
+    private static final long BUS_BANDWIDTH_BYTES_PER_SECOND = 50_000_000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-16s %6s %14s %10s  %s%n", "topology", "batch", "msgs/s", "avg batch", "paced latency");
+        for (int batchSize : BATCH_SIZES) {
+            run("fully-connected", batchSize, () -> {
+                FullyConnectedNetwork network = new FullyConnectedNetwork();
+                network.setCoalescing(new CoalescingConfig(batchSize, FLUSH_DELAY));
+                return network;
+            });
+        }
+        for (int batchSize : BATCH_SIZES) {
+            run("shared-bus", batchSize, () -> {
+                BusNetwork network = new BusNetwork(
+                        new SharedBus(BUS_BANDWIDTH_BYTES_PER_SECOND, new RoundRobinArbiter(), 1_000_000));
+                network.setCoalescing(new CoalescingConfig(batchSize, FLUSH_DELAY));
+                return network;
+            });
+        }
+    }
+
+    private static void run(String name, int batchSize, Supplier<NetworkTopology> factory) throws Exception {
+        Throughput throughput = measureThroughput(factory);
+        LatencySnapshot latency = measurePacedLatency(factory);
+        System.out.printf("%-16s %6d %14.0f %10.1f  p50=%.1fus p99=%.1fus max=%.1fus%n", name, batchSize,
+                throughput.messagesPerSecond(), throughput.averageBatchSize(), latency.p50Nanos() / 1e3,
+                latency.p99Nanos() / 1e3, latency.maxNanos() / 1e3);
+    }
+
+    private static Throughput measureThroughput(Supplier<NetworkTopology> factory) throws Exception {
+        NetworkTopology network = factory.get();
+        Probe probe = start(network);
+        long start = System.nanoTime();
+        long expected = sendRounds(network, SATURATION_ROUNDS, 0);
+        probe.awaitDelivered(expected);
+        double messagesPerSecond = expected * 1e9 / (System.nanoTime() - start);
+        double averageBatchSize = averageBatchSizeOf(network);
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+        return new Throughput(messagesPerSecond, averageBatchSize);
+    }
+
+    private static LatencySnapshot measurePacedLatency(Supplier<NetworkTopology> factory) throws Exception {
+        NetworkTopology network = factory.get();
+        Probe probe = start(network);
+        long expected = sendRounds(network, PACED_ROUNDS, PACED_ROUND_INTERVAL_NANOS);
+        probe.awaitDelivered(expected);
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+        return probe.latency.snapshot();
+    }
+
+    private static Probe start(NetworkTopology network) {
+        network.configureNetwork(NODE_COUNT);
+        Probe probe = new Probe();
+        List<Node> nodes = network instanceof BusNetwork bus ? bus.getNodes()
+                : ((FullyConnectedNetwork) network).getNodes();
+        for (Node node : nodes) {
+            node.setMessageHandler(MessageType.DATA, (current, message) -> probe.record(message));
+        }
+        network.runNetwork();
+        return probe;
+    }
+
+    private static long sendRounds(NetworkTopology network, int rounds, long roundIntervalNanos) {
+        long sent = 0;
+        long next = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (int from = 0; from < NODE_COUNT; from++) {
+                for (int to = 0; to < NODE_COUNT; to++) {
+                    if (from != to) {
+                        network.sendMessage(from, to, Long.toString(System.nanoTime()));
+                        sent++;
+                    }
+                }
+            }
+            if (roundIntervalNanos > 0) {
+                next += roundIntervalNanos;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        }
+        return sent;
+    }
+
+    private static double averageBatchSizeOf(NetworkTopology network) {
+        return network instanceof BusNetwork bus ? bus.getCoalescingMetrics().averageBatchSize()
+                : ((FullyConnectedNetwork) network).getCoalescingMetrics().averageBatchSize();
+    }
+
+    private record Throughput(double messagesPerSecond, double averageBatchSize) {
+    }
+
+    private static final class Probe {
+        private final LongAdder delivered = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private void record(Message message) {
+            latency.record(System.nanoTime() - Long.parseLong((String) message.getPayload()));
+            delivered.increment();
+        }
+
+        private void awaitDelivered(long expected) throws InterruptedException {
+            long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+            while (delivered.sum() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.collective.Collectives;
+import org.sakidoa.fullyconnectednetwork.FullyConnectedNetwork;
+import org.sakidoa.hypercubenetwork.HyperCubeNetwork;
+import org.sakidoa.ringnetwork.RingNetwork;
+import org.sakidoa.treenetwork.TreeNetwork;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Median completion time of all-reduce (sum) and all-to-all for each topology's collective algorithm,
+ * across node counts and message sizes (elements of 8 bytes per node).
+ */
+public class CollectivesBenchmark {
+    private static final int[] NODE_COUNTS = {8, 16, 32};
+    private static final int[] MESSAGE_SIZES = {64, 4096, 65536};
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int ITERATIONS = 5;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-16s %-11s %6s %10s %12s%n", "topology", "collective", "nodes", "elements", "median (ms)");
+        for (int nodeCount : NODE_COUNTS) {
+            for (int size : MESSAGE_SIZES) {
+                run("hypercube", HyperCubeNetwork::new, network -> ((HyperCubeNetwork) network).getCollectives(),
+                        nodeCount, size, true);
+                run("ring", RingNetwork::new, network -> ((RingNetwork) network).getCollectives(),
+                        nodeCount, size, false);
+                run("tree (k=2)", TreeNetwork::new, network -> ((TreeNetwork) network).getCollectives(),
+                        nodeCount, size, false);
+                run("fully-connected", FullyConnectedNetwork::new,
+                        network -> ((FullyConnectedNetwork) network).getCollectives(), nodeCount, size, true);
+            }
+        }
+    }
+
+    private static void run(String name, Supplier<NetworkTopology> factory,
+                            Function<NetworkTopology, Collectives> collectivesOf, int nodeCount, int size,
+                            boolean includeAllToAll) throws Exception {
+        NetworkTopology network = factory.get();
+        network.configureNetwork(nodeCount);
+        Collectives collectives = collectivesOf.apply(network);
+        network.runNetwork();
+
+        long[][] vectors = new long[nodeCount][size];
+        for (long[] vector : vectors) {
+            Arrays.fill(vector, 1);
+        }
+        report(name, "all-reduce", nodeCount, size, () -> collectives.allReduce(vectors, Long::sum));
+
+        if (includeAllToAll) {
+            long[][][] blocks = new long[nodeCount][nodeCount][Math.max(1, size / nodeCount)];
+            report(name, "all-to-all", nodeCount, size, () -> collectives.allToAll(blocks));
+        }
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+    }
+
+    private static void report(String name, String collective, int nodeCount, int size,
+                               Supplier<CompletableFuture<?>> operation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.get().get(30, TimeUnit.SECONDS);
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            operation.get().get(30, TimeUnit.SECONDS);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        System.out.printf("%-16s %-11s %6d %10d %12.2f%n", name, collective, nodeCount, size,
+                samples[ITERATIONS / 2] / 1e6);
+    }
+}
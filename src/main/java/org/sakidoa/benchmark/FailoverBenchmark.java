@@ -0,0 +1,104 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.fault.FailoverReport;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.hypercubenetwork.HyperCubeNetwork;
+import org.sakidoa.hypercubenetwork.HyperCubeRouting;
+import org.sakidoa.ringnetwork.RingNetwork;
+import org.sakidoa.torusnetwork.TorusNetwork;
+import org.sakidoa.treenetwork.TreeNetwork;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Runs uniform random traffic through each routed topology while the same fault schedule plays out: a node
+ * is killed, then a link is dropped, then another node is suspended. Reports, per fault, the time until it
+ * was detected, the time until the first message was rerouted around it and the messages it cost. Messages
+ * addressed to a killed node count as lost to that fault.
+ */
+public class FailoverBenchmark {
+    private static final int NODE_COUNT = 16;
+    private static final long SEND_INTERVAL_NANOS = 200_000;
+    private static final Duration RUN_TIME = Duration.ofMillis(1_500);
+    private static final Duration KILL_AT = Duration.ofMillis(300);
+    private static final Duration DROP_AT = Duration.ofMillis(600);
+    private static final Duration SUSPEND_AT = Duration.ofMillis(900);
+    private static final int KILLED_NODE = 5;
+    private static final int SUSPENDED_NODE = 3;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        warmUp();
+        out.printf("%-12s %-48s %12s %13s %6s %10s%n", "topology", "fault", "detect (ms)", "reroute (ms)",
+                "lost", "delivered");
+        run(out, "ring", new RingNetwork(), RingNetwork::enableFaultInjection);
+        run(out, "torus 4x4", new TorusNetwork(4, 4), TorusNetwork::enableFaultInjection);
+        run(out, "hypercube", eCubeHyperCube(), HyperCubeNetwork::enableFaultInjection);
+        run(out, "tree 2x2", new TreeNetwork(2, 2), TreeNetwork::enableFaultInjection);
+        System.setOut(out);
+    }
+
+    private static <T extends NetworkTopology> void run(PrintStream out, String name, T network,
+                                                        Function<T, FaultInjector> enableFaults)
+            throws InterruptedException {
+        network.configureNetwork(NODE_COUNT);
+        FaultInjector faults = enableFaults.apply(network);
+        network.runNetwork();
+
+        faults.schedule(KILL_AT, injector -> injector.killNode(KILLED_NODE));
+        faults.schedule(DROP_AT, injector -> injector.dropLink(0, 1));
+        faults.schedule(SUSPEND_AT, injector -> injector.suspendNode(SUSPENDED_NODE));
+        sendTraffic(network);
+        Thread.sleep(200);
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+
+        for (FailoverReport report : faults.getReports()) {
+            out.printf("%-12s %-48s %12s %13s %6d %10d%n", name, report.fault(), millis(report.timeToDetect()),
+                    millis(report.timeToReroute()), report.messagesLost(), faults.getDeliveredCount());
+        }
+    }
+
+    // The first node to start pays for JFR and class initialisation, long enough to look like a stalled node.
+    private static void warmUp() throws InterruptedException {
+        RingNetwork network = new RingNetwork();
+        network.configureNetwork(NODE_COUNT);
+        network.runNetwork();
+        network.sendMessage(0, NODE_COUNT / 2, "warm-up");
+        Thread.sleep(200);
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+    }
+
+    private static void sendTraffic(NetworkTopology network) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        long end = System.nanoTime() + RUN_TIME.toNanos();
+        long next = System.nanoTime();
+        int sent = 0;
+        while (System.nanoTime() < end) {
+            int from = random.nextInt(NODE_COUNT);
+            int to = random.nextInt(NODE_COUNT);
+            if (from != to) {
+                network.sendMessage(from, to, "message-" + sent++);
+            }
+            next += SEND_INTERVAL_NANOS;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+    }
+
+    private static HyperCubeNetwork eCubeHyperCube() {
+        HyperCubeNetwork network = new HyperCubeNetwork();
+        network.setRouting(HyperCubeRouting.E_CUBE);
+        return network;
+    }
+
+    private static String millis(Duration duration) {
+        return duration == null ? "-" : String.format("%.1f", duration.toNanos() / 1e6);
+    }
+}
@@ -0,0 +1,68 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.deterministic.DeterministicScheduler;
+import org.sakidoa.core.flood.FloodConfig;
+import org.sakidoa.core.flood.FloodMetrics;
+import org.sakidoa.core.flood.Flooding;
+import org.sakidoa.graphnetwork.CompactGraph;
+import org.sakidoa.graphnetwork.GraphNetwork;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Flooding versus gossip on a 100k-node random graph in which every node links to four random others
+ * (average degree about eight). The network runs in deterministic mode so that all nodes fit on one
+ * thread; each configuration floods from a series of random origins and runs until the network is idle.
+ */
+public class FloodingBenchmark {
+    private static final int NODE_COUNT = 100_000;
+    private static final int LINKS_PER_NODE = 4;
+    private static final int FLOODS = 10;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) {
+        GraphNetwork network = new GraphNetwork(randomGraph());
+        network.configureNetwork(NODE_COUNT);
+        DeterministicScheduler scheduler = network.enableDeterministicMode(SEED);
+        network.runNetwork();
+
+        System.out.printf("%-20s %9s %11s %16s %14s %12s %13s%n", "mode", "coverage", "redundancy",
+                "copies / flood", "dupes / flood", "rounds", "filter bytes");
+        run(network, scheduler, "flood ttl 16", FloodConfig.of(16));
+        run(network, scheduler, "gossip fanout 4", FloodConfig.gossip(32, 4));
+        run(network, scheduler, "gossip fanout 3", FloodConfig.gossip(32, 3));
+        run(network, scheduler, "gossip fanout 2", FloodConfig.gossip(32, 2));
+        run(network, scheduler, "flood ttl 4", FloodConfig.of(4));
+        network.shutdownNetwork(Duration.ofSeconds(5), false);
+    }
+
+    private static void run(GraphNetwork network, DeterministicScheduler scheduler, String name,
+                            FloodConfig config) {
+        Flooding flooding = network.enableFlooding(config);
+        SplittableRandom random = new SplittableRandom(SEED);
+        long rounds = 0;
+        for (int i = 0; i < FLOODS; i++) {
+            int origin = random.nextInt(NODE_COUNT);
+            scheduler.submit(() -> flooding.flood(origin, "payload"));
+            rounds += scheduler.runUntilIdle();
+        }
+        FloodMetrics metrics = flooding.getMetrics();
+        System.out.printf("%-20s %8.2f%% %11.2f %16d %14d %12.1f %13d%n", name, 100 * metrics.averageCoverage(),
+                metrics.redundancyRatio(), metrics.transmissions() / FLOODS, metrics.duplicates() / FLOODS,
+                (double) rounds / FLOODS, metrics.filterBytesPerNode());
+    }
+
+    private static CompactGraph randomGraph() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] endpoints = new int[NODE_COUNT * LINKS_PER_NODE * 2];
+        int count = 0;
+        for (int node = 0; node < NODE_COUNT; node++) {
+            for (int link = 0; link < LINKS_PER_NODE; link++) {
+                endpoints[count++] = node;
+                endpoints[count++] = random.nextInt(NODE_COUNT);
+            }
+        }
+        return CompactGraph.fromEdges(NODE_COUNT, endpoints, count);
+    }
+}
@@ -0,0 +1,99 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.flow.MessageSubmission;
+import org.sakidoa.ringnetwork.RingNetwork;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A producer that pushes messages into a ring as fast as it can, once through {@code sendMessage} and once
+ * through a {@link SubmissionPublisher} on pooled and on virtual threads feeding the ring's ingress
+ * subscriber. Peak in flight is the largest number of messages sent but not yet handled, sampled every
+ * 100 microseconds; for {@code sendMessage} it includes the backlog of the topology's executor.
+ */
+public class IngestionBenchmark {
+    private static final int NODE_COUNT = 16;
+    private static final int MESSAGES = 300_000;
+    private static final int MAX_QUEUED_MESSAGES = 1_024;
+    private static final long SAMPLE_INTERVAL_NANOS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        out.printf("%-22s %12s %14s %16s %8s%n", "producer", "elapsed (ms)", "messages/s", "peak in flight",
+                "stalls");
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run(out, report, "sendMessage loop", null);
+            run(out, report, "flow, fork-join pool", ForkJoinPool.commonPool());
+            try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                run(out, report, "flow, virtual threads", virtualThreads);
+            }
+        }
+        System.setOut(out);
+    }
+
+    private static void run(PrintStream out, boolean report, String name, Executor executor) throws Exception {
+        RingNetwork network = new RingNetwork();
+        network.configureNetwork(NODE_COUNT);
+        LongAdder handled = new LongAdder();
+        for (Node node : network.getNodes()) {
+            node.setMessageHandler(MessageType.DATA, (current, message) -> handled.increment());
+        }
+        network.runNetwork();
+
+        AtomicLong sent = new AtomicLong();
+        AtomicLong peakInFlight = new AtomicLong();
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakInFlight.accumulateAndGet(sent.get() - handled.sum(), Math::max);
+                LockSupport.parkNanos(SAMPLE_INTERVAL_NANOS);
+            }
+        });
+
+        long start = System.nanoTime();
+        IngressSubscriber subscriber = null;
+        if (executor == null) {
+            for (int i = 0; i < MESSAGES; i++) {
+                sent.incrementAndGet();
+                network.sendMessage(i % NODE_COUNT, (i * 7 + 3) % NODE_COUNT, "message-" + i);
+            }
+        } else {
+            subscriber = network.ingressSubscriber(MAX_QUEUED_MESSAGES);
+            try (SubmissionPublisher<MessageSubmission> publisher = new SubmissionPublisher<>(executor, 256)) {
+                publisher.subscribe(subscriber);
+                for (int i = 0; i < MESSAGES; i++) {
+                    sent.incrementAndGet();
+                    publisher.submit(new MessageSubmission(i % NODE_COUNT, (i * 7 + 3) % NODE_COUNT,
+                            "message-" + i));
+                }
+            }
+            subscriber.getCompletion().get();
+        }
+        while (handled.sum() < MESSAGES) {
+            LockSupport.parkNanos(SAMPLE_INTERVAL_NANOS);
+        }
+        long elapsed = System.nanoTime() - start;
+        sampler.interrupt();
+        sampler.join();
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+
+        if (report) {
+            out.printf("%-22s %12.1f %14.0f %16d %8s%n", name, elapsed / 1e6, MESSAGES / (elapsed / 1e9),
+                    peakInFlight.get(), subscriber == null ? "-" : String.valueOf(subscriber.getStallCount()));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.mailbox.FifoMailbox;
+import org.sakidoa.core.mailbox.Mailbox;
+import org.sakidoa.core.mailbox.OffHeapBudget;
+import org.sakidoa.core.mailbox.OffHeapMailbox;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * A burst of small DATA messages lands in one mailbox while the rest of the process keeps allocating
+ * short-lived garbage; the backlog is then drained. Reports the heap retained by the backlog and the GC
+ * time and collections spent during burst, churn and drain, for the on-heap FIFO mailbox versus the
+ * off-heap ring.
+ */
+public class OffHeapMailboxBenchmark {
+    private static final int BURST_MESSAGES = 1_000_000;
+    private static final int OFF_HEAP_CAPACITY_BYTES = 128 << 20;
+    private static final long CHURN_BYTES = 2L << 30;
+    private static final int CHURN_OBJECT_BYTES = 1024;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %14s %12s %12s %12s%n", "mailbox", "retained (MB)", "gc count", "gc (ms)", "total (ms)");
+        run("warmup", FifoMailbox::new, false);
+        run("warmup", () -> new OffHeapMailbox(OFF_HEAP_CAPACITY_BYTES, OffHeapBudget.unlimited()), false);
+        run("fifo", FifoMailbox::new, true);
+        run("off-heap", () -> new OffHeapMailbox(OFF_HEAP_CAPACITY_BYTES, OffHeapBudget.unlimited()), true);
+    }
+
+    private static void run(String name, Supplier<Mailbox> factory, boolean report) {
+        collectGarbage();
+        long baselineHeap = usedHeap();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        long start = System.nanoTime();
+
+        Mailbox mailbox = factory.get();
+        for (int i = 0; i < BURST_MESSAGES; i++) {
+            Message message = new Message(MessageType.DATA, "burst-source", "payload-" + i);
+            message.setReceiverId("burst-target");
+            if (!mailbox.offer(message)) {
+                throw new IllegalStateException("Mailbox rejected message " + i);
+            }
+        }
+        churn();
+        int drained = 0;
+        while (mailbox.poll() != null) {
+            drained++;
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcTime = gcTimeMillis() - gcTimeBefore;
+        if (drained != BURST_MESSAGES) {
+            throw new IllegalStateException("Drained " + drained + " of " + BURST_MESSAGES);
+        }
+
+        long retained = retainedBy(factory) - baselineHeap;
+        mailbox.close();
+        if (report) {
+            System.out.printf("%-10s %14.1f %12d %12d %12d%n", name, retained / 1048576.0, gcCount, gcTime,
+                    elapsedMillis);
+        }
+    }
+
+    private static long retainedBy(Supplier<Mailbox> factory) {
+        Mailbox mailbox = factory.get();
+        for (int i = 0; i < BURST_MESSAGES; i++) {
+            mailbox.offer(new Message(MessageType.DATA, "burst-source", "payload-" + i));
+        }
+        collectGarbage();
+        long used = usedHeap();
+        mailbox.clear();
+        mailbox.close();
+        return used;
+    }
+
+    private static void churn() {
+        for (long allocated = 0; allocated < CHURN_BYTES; allocated += CHURN_OBJECT_BYTES) {
+            sink = new byte[CHURN_OBJECT_BYTES];
+        }
+    }
+
+    private static void collectGarbage() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
@@ -0,0 +1,125 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.placement.LabelPropagationPlacement;
+import org.sakidoa.core.placement.PlacementConfig;
+import org.sakidoa.core.placement.PlacementMetrics;
+import org.sakidoa.core.placement.PlacementStrategy;
+import org.sakidoa.core.placement.WorkerPool;
+import org.sakidoa.hypercubenetwork.HyperCubeNetwork;
+import org.sakidoa.ringnetwork.RingNetwork;
+import org.sakidoa.treenetwork.TreeNetwork;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Round-robin versus label-propagation placement of nodes onto a small worker pool. Tokens random-walk
+ * between neighbours for a fixed number of hops, so every message is a neighbour-to-neighbour handoff;
+ * a handoff is cross-thread when the two nodes sit on different workers. Injections from the benchmark
+ * thread are excluded from the handoff counts.
+ */
+public class PlacementBenchmark {
+    private static final int NODE_COUNT = 256;
+    private static final int WORKERS = 4;
+    private static final int TOKENS = 1_024;
+    private static final int HOPS_PER_TOKEN = 2_000;
+    private static final int ROUNDS = 3;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("%-10s %-18s %8s %14s %14s %8s %14s%n", "topology", "placement", "edge cut",
+                "local", "cross-thread", "cross %", "hops/s");
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean report = round == ROUNDS - 1;
+            run(report, "ring", RingNetwork::new, RingNetwork::setPlacement, RingNetwork::getWorkerPool,
+                    RingNetwork::getNodes);
+            run(report, "tree", () -> new TreeNetwork(4), TreeNetwork::setPlacement, TreeNetwork::getWorkerPool,
+                    TreeNetwork::getNodes);
+            run(report, "hypercube", HyperCubeNetwork::new, HyperCubeNetwork::setPlacement,
+                    HyperCubeNetwork::getWorkerPool, HyperCubeNetwork::getNodes);
+        }
+    }
+
+    private static <T extends NetworkTopology> void run(boolean report, String name, Supplier<T> factory,
+                                                        PlacementSetter<T> setPlacement,
+                                                        Function<T, WorkerPool> workerPool,
+                                                        Function<T, List<Node>> nodes)
+            throws InterruptedException {
+        measure(report, name, "round-robin", PlacementStrategy.ROUND_ROBIN, factory, setPlacement, workerPool,
+                nodes);
+        measure(report, name, "label-propagation", new LabelPropagationPlacement(), factory, setPlacement,
+                workerPool, nodes);
+    }
+
+    private static <T extends NetworkTopology> void measure(boolean report, String name, String placementName,
+                                                            PlacementStrategy strategy, Supplier<T> factory,
+                                                            PlacementSetter<T> setPlacement,
+                                                            Function<T, WorkerPool> workerPool,
+                                                            Function<T, List<Node>> nodes)
+            throws InterruptedException {
+        T network = factory.get();
+        setPlacement.set(network, new PlacementConfig(WORKERS, strategy));
+        network.configureNetwork(NODE_COUNT);
+        List<Node> members = nodes.apply(network);
+        CountDownLatch finished = new CountDownLatch(TOKENS);
+        installRandomWalk(members, finished);
+        network.runNetwork();
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        long start = System.nanoTime();
+        for (int token = 0; token < TOKENS; token++) {
+            Node origin = members.get(random.nextInt(members.size()));
+            origin.receiveMessage(new Message(MessageType.DATA, origin.getNodeId(), new int[]{HOPS_PER_TOKEN}));
+        }
+        if (!finished.await(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(name + " with " + placementName + " did not finish");
+        }
+        long elapsed = System.nanoTime() - start;
+        PlacementMetrics metrics = workerPool.apply(network).getMetrics();
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+
+        if (report) {
+            long crossThread = metrics.crossThreadHandoffs() - TOKENS;
+            long handoffs = metrics.localHandoffs() + crossThread;
+            System.out.printf("%-10s %-18s %8d %14d %14d %8.1f %14.0f%n", name, placementName, metrics.edgeCut(),
+                    metrics.localHandoffs(), crossThread, 100.0 * crossThread / handoffs,
+                    (double) TOKENS * HOPS_PER_TOKEN / elapsed * 1e9);
+        }
+    }
+
+    private static void installRandomWalk(List<Node> nodes, CountDownLatch finished) {
+        Map<String, Node[]> neighbors = new HashMap<>();
+        for (Node node : nodes) {
+            neighbors.put(node.getNodeId(), node.getNeighbors().toArray(Node[]::new));
+        }
+        for (Node node : nodes) {
+            Node[] next = neighbors.get(node.getNodeId());
+            node.setMessageHandler(MessageType.DATA, (current, message) -> {
+                int[] remaining = (int[]) message.getPayload();
+                if (--remaining[0] == 0) {
+                    finished.countDown();
+                    return;
+                }
+                Node target = next[ThreadLocalRandom.current().nextInt(next.length)];
+                target.receiveMessage(new Message(MessageType.DATA, current.getNodeId(), remaining));
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface PlacementSetter<T> {
+        void set(T network, PlacementConfig placement);
+    }
+}
@@ -0,0 +1,68 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.metrics.LatencySnapshot;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+import org.sakidoa.ringnetwork.RingNetwork;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop request/reply load: a fixed number of requests is kept in flight, each completion issuing
+ * the next request from the same node to the next one around the ring. Reports throughput and round-trip
+ * percentiles per concurrency level.
+ */
+public class RequestReplyBenchmark {
+    private static final int NODE_COUNT = 8;
+    private static final int[] CONCURRENCY_LEVELS = {1, 8, 64, 512};
+    private static final Duration WARMUP = Duration.ofSeconds(1);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(3);
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%11s %14s  %s%n", "concurrency", "requests/s", "round trip");
+        for (int concurrency : CONCURRENCY_LEVELS) {
+            benchmark(concurrency);
+        }
+    }
+
+    private static void benchmark(int concurrency) throws Exception {
+        RingNetwork network = new RingNetwork();
+        network.configureNetwork(NODE_COUNT);
+        RequestReply requestReply = network.enableRequestReply(RequestHandler.ECHO);
+        network.runNetwork();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger activeLoops = new AtomicInteger(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            issue(requestReply, i % NODE_COUNT, running, activeLoops);
+        }
+
+        Thread.sleep(WARMUP.toMillis());
+        requestReply.resetRoundTripLatency();
+        long completedBefore = requestReply.getCompletedCount();
+        long start = System.nanoTime();
+        Thread.sleep(MEASUREMENT.toMillis());
+        long completed = requestReply.getCompletedCount() - completedBefore;
+        long elapsedNanos = System.nanoTime() - start;
+        LatencySnapshot roundTrips = requestReply.getRoundTripLatency();
+
+        running.set(false);
+        while (activeLoops.get() > 0) {
+            Thread.sleep(10);
+        }
+        System.out.printf("%11d %14.0f  %s%n", concurrency, completed * 1e9 / elapsedNanos, roundTrips);
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+    }
+
+    private static void issue(RequestReply requestReply, int node, AtomicBoolean running, AtomicInteger activeLoops) {
+        requestReply.request(node, (node + 1) % NODE_COUNT, node).whenComplete((reply, error) -> {
+            if (error == null && running.get()) {
+                issue(requestReply, node, running, activeLoops);
+            } else {
+                activeLoops.decrementAndGet();
+            }
+        });
+    }
+}
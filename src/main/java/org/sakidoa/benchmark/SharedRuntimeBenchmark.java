@@ -0,0 +1,157 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.busnetwork.BusNetwork;
+import org.sakidoa.core.Message;
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.runtime.HostedMetrics;
+import org.sakidoa.core.runtime.SharedRuntime;
+import org.sakidoa.fullyconnectednetwork.FullyConnectedNetwork;
+import org.sakidoa.hypercubenetwork.HyperCubeNetwork;
+import org.sakidoa.meshnetwork.MeshNetwork;
+import org.sakidoa.ringnetwork.RingNetwork;
+import org.sakidoa.starnetwork.StarNetwork;
+import org.sakidoa.switchednetwork.SwitchedNetwork;
+import org.sakidoa.treenetwork.TreeNetwork;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * The eight topologies of the simulator running side by side, once each on threads of its own and once all
+ * on one shared runtime where the ring has four times the weight of the others. Every topology carries a
+ * fixed population of tokens that hop to a random neighbour forever, so all of them stay backlogged and the
+ * split of handled messages and of worker time in the window shows how the CPU was shared.
+ */
+public class SharedRuntimeBenchmark {
+    private static final int NODE_COUNT = 64;
+    private static final int TOKENS_PER_NODE = 64;
+    private static final int WORKERS = 2;
+    private static final int RING_WEIGHT = 4;
+    private static final Duration WARM_UP = Duration.ofMillis(500);
+    private static final Duration WINDOW = Duration.ofSeconds(2);
+
+    public static void main(String[] args) throws InterruptedException {
+        run("own threads", false);
+        run("shared runtime", true);
+    }
+
+    private static void run(String mode, boolean shared) throws InterruptedException {
+        Map<String, NetworkTopology> topologies = createTopologies();
+        SharedRuntime runtime = shared ? new SharedRuntime(WORKERS) : null;
+        for (Map.Entry<String, NetworkTopology> entry : topologies.entrySet()) {
+            NetworkTopology topology = entry.getValue();
+            topology.configureNetwork(NODE_COUNT);
+            installRandomWalk(topology.getNodes());
+            if (runtime == null) {
+                topology.runNetwork();
+            } else {
+                runtime.run(entry.getKey(), topology, weightOf(entry.getKey()));
+            }
+        }
+        topologies.values().forEach(topology -> seedTokens(topology.getNodes()));
+
+        Thread.sleep(WARM_UP.toMillis());
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        Map<String, Long> handledBefore = processedMessages(topologies);
+        Map<String, Long> busyBefore = busyNanos(runtime);
+        Thread.sleep(WINDOW.toMillis());
+        Map<String, Long> handled = processedMessages(topologies);
+        Map<String, Long> busy = busyNanos(runtime);
+        handled.replaceAll((name, count) -> count - handledBefore.get(name));
+        busy.replaceAll((name, nanos) -> nanos - busyBefore.get(name));
+
+        topologies.values().forEach(topology -> topology.shutdownNetwork(Duration.ofSeconds(1), false));
+        if (runtime != null) {
+            runtime.close();
+        }
+        report(mode, threads, handled, busy, shared);
+    }
+
+    private static void report(String mode, int threads, Map<String, Long> handled, Map<String, Long> busy,
+                               boolean shared) {
+        long total = handled.values().stream().mapToLong(Long::longValue).sum();
+        long totalBusy = busy.values().stream().mapToLong(Long::longValue).sum();
+        System.out.printf("%s: %d threads, %,.0f messages/s in total%n", mode, threads, total / seconds(WINDOW));
+        System.out.printf("  %-16s %8s %14s %10s %10s%n", "topology", "weight", "messages/s", "share",
+                "cpu share");
+        for (Map.Entry<String, Long> entry : handled.entrySet()) {
+            String name = entry.getKey();
+            System.out.printf("  %-16s %8s %14.0f %9.1f%% %10s%n", name,
+                    shared ? String.valueOf(weightOf(name)) : "-", entry.getValue() / seconds(WINDOW),
+                    100.0 * entry.getValue() / total,
+                    shared ? String.format("%.1f%%", 100.0 * busy.get(name) / totalBusy) : "-");
+        }
+    }
+
+    private static Map<String, NetworkTopology> createTopologies() {
+        Map<String, NetworkTopology> topologies = new LinkedHashMap<>();
+        add(topologies, "mesh", MeshNetwork::new);
+        add(topologies, "star", StarNetwork::new);
+        add(topologies, "fully-connected", FullyConnectedNetwork::new);
+        add(topologies, "switched", SwitchedNetwork::new);
+        add(topologies, "bus", BusNetwork::new);
+        add(topologies, "ring", RingNetwork::new);
+        add(topologies, "hypercube", HyperCubeNetwork::new);
+        add(topologies, "tree", () -> new TreeNetwork(4));
+        return topologies;
+    }
+
+    private static void add(Map<String, NetworkTopology> topologies, String name,
+                            Supplier<NetworkTopology> factory) {
+        topologies.put(name, factory.get());
+    }
+
+    // Nodes without neighbour links, as on the switched network, pass their tokens to any node.
+    private static void installRandomWalk(List<Node> nodes) {
+        Node[] all = nodes.toArray(Node[]::new);
+        for (Node node : nodes) {
+            node.setConsoleOutput(false);
+            Node[] next = node.getNeighbors().isEmpty() ? all : node.getNeighbors().toArray(Node[]::new);
+            node.setMessageHandler(MessageType.DATA, (current, message) -> {
+                Node target = next[ThreadLocalRandom.current().nextInt(next.length)];
+                target.receiveMessage(new Message(MessageType.DATA, current.getNodeId(), message.getPayload()));
+            });
+        }
+    }
+
+    private static void seedTokens(List<Node> nodes) {
+        for (Node node : nodes) {
+            for (int token = 0; token < TOKENS_PER_NODE; token++) {
+                node.receiveMessage(new Message(MessageType.DATA, node.getNodeId(), token));
+            }
+        }
+    }
+
+    private static Map<String, Long> processedMessages(Map<String, NetworkTopology> topologies) {
+        Map<String, Long> processed = new LinkedHashMap<>();
+        topologies.forEach((name, topology) -> processed.put(name,
+                topology.getNodes().stream().mapToLong(Node::getProcessedMessageCount).sum()));
+        return processed;
+    }
+
+    private static Map<String, Long> busyNanos(SharedRuntime runtime) {
+        Map<String, Long> busy = new HashMap<>();
+        if (runtime != null) {
+            for (HostedMetrics metrics : runtime.getMetrics()) {
+                busy.put(metrics.name(), metrics.busyTime().toNanos());
+            }
+        }
+        return busy;
+    }
+
+    private static int weightOf(String name) {
+        return name.equals("ring") ? RING_WEIGHT : 1;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1e9;
+    }
+}
@@ -0,0 +1,159 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.RoutingStrategy;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.hypercubenetwork.HyperCubeNetwork;
+import org.sakidoa.hypercubenetwork.HyperCubeRouting;
+import org.sakidoa.torusnetwork.TorusNetwork;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Compares 2D/3D tori against hypercubes of the same size. Diameter and average distance are measured by
+ * walking the routing function. Throughput is measured on the running network: {@link #MESSAGES} messages
+ * between uniformly random node pairs are injected at once and forwarded hop by hop, and the rate is the
+ * number delivered at their destination per second until the last one arrives. Every node has a thread of
+ * its own, so throughput is only measured up to {@link #MAX_MEASURED_NODES} nodes. Memory is the heap
+ * allocated while building the nodes and their neighbour sets.
+ */
+public class TorusVsHyperCubeBenchmark {
+    private static final int[] NODE_COUNTS = {64, 256, 1024, 4096};
+    private static final int MESSAGES = 8192;
+    private static final int MAX_MEASURED_NODES = 1024;
+    private static final long SEED = 42;
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(60);
+
+    public static void main(String[] args) {
+        warmUp();
+        System.out.printf("%-22s %6s %9s %9s %13s %8s %12s%n",
+                "topology", "nodes", "diameter", "avg hops", "delivered/s", "dropped", "alloc (KiB)");
+        for (int nodeCount : NODE_COUNTS) {
+            int exponent = Integer.numberOfTrailingZeros(nodeCount);
+            benchmark(() -> new TorusNetwork(balancedRadices(exponent, 2)), nodeCount);
+            benchmark(() -> new TorusNetwork(balancedRadices(exponent, 3)), nodeCount);
+            benchmark(() -> {
+                HyperCubeNetwork hyperCube = new HyperCubeNetwork();
+                hyperCube.setRouting(HyperCubeRouting.E_CUBE);
+                return hyperCube;
+            }, nodeCount);
+        }
+    }
+
+    private static void benchmark(Supplier<NetworkTopology> factory, int nodeCount) {
+        NetworkTopology topology = factory.get();
+        long allocatedBefore = allocatedBytes();
+        topology.configureNetwork(nodeCount);
+        long configurationBytes = allocatedBytes() - allocatedBefore;
+
+        RoutingStrategy routing = routingOf(topology);
+        int diameter = 0;
+        for (int destination = 0; destination < nodeCount; destination++) {
+            diameter = Math.max(diameter, walk(routing, 0, destination));
+        }
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] sources = new int[MESSAGES];
+        int[] destinations = new int[MESSAGES];
+        long totalHops = 0;
+        for (int i = 0; i < MESSAGES; i++) {
+            sources[i] = random.nextInt(nodeCount);
+            destinations[i] = random.nextInt(nodeCount);
+            totalHops += walk(routing, sources[i], destinations[i]);
+        }
+
+        String delivered = "-";
+        String dropped = "-";
+        if (nodeCount <= MAX_MEASURED_NODES) {
+            Throughput throughput = measureThroughput(topology, sources, destinations);
+            delivered = String.format("%,.0f", throughput.deliveredPerSecond());
+            dropped = String.valueOf(throughput.dropped());
+        } else {
+            topology.shutdownNetwork(Duration.ZERO, false);
+        }
+        System.out.printf("%-22s %6d %9d %9.2f %13s %8s %12d%n", describe(topology), nodeCount, diameter,
+                (double) totalHops / MESSAGES, delivered, dropped, configurationBytes / 1024);
+    }
+
+    private static Throughput measureThroughput(NetworkTopology topology, int[] sources, int[] destinations) {
+        LongAdder deliveries = new LongAdder();
+        for (Node node : topology.getNodes()) {
+            node.setConsoleOutput(false);
+            node.setMessageHandler(MessageType.DATA, (current, message) -> deliveries.increment());
+        }
+        topology.runNetwork();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < sources.length; i++) {
+            topology.sendMessage(sources[i], destinations[i], "load");
+        }
+        long deadline = start + DELIVERY_TIMEOUT.toNanos();
+        while (deliveries.sum() + droppedMessages(topology) < sources.length && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        long elapsed = System.nanoTime() - start;
+        long dropped = droppedMessages(topology);
+        long delivered = deliveries.sum();
+        topology.shutdownNetwork(Duration.ofSeconds(1), false);
+        return new Throughput(delivered * 1e9 / elapsed, dropped);
+    }
+
+    private static long droppedMessages(NetworkTopology topology) {
+        return topology.getNodes().stream().mapToLong(Node::getDroppedMessageCount).sum();
+    }
+
+    private static void warmUp() {
+        for (NetworkTopology topology : new NetworkTopology[]{new TorusNetwork(4, 4), new HyperCubeNetwork()}) {
+            topology.configureNetwork(16);
+            measureThroughput(topology, new int[]{0, 5, 15}, new int[]{15, 10, 0});
+        }
+    }
+
+    private static int walk(RoutingStrategy routing, int source, int destination) {
+        int hops = 0;
+        int current = source;
+        while (current != destination) {
+            current = routing.nextHop(current, destination);
+            hops++;
+        }
+        return hops;
+    }
+
+    private static RoutingStrategy routingOf(NetworkTopology topology) {
+        if (topology instanceof TorusNetwork torus) {
+            return torus.getRoutingStrategy();
+        }
+        return ((HyperCubeNetwork) topology).getRoutingStrategy();
+    }
+
+    private static String describe(NetworkTopology topology) {
+        if (topology instanceof TorusNetwork torus) {
+            return "torus " + Arrays.toString(torus.getRadices()).replace(", ", "x");
+        }
+        return "hypercube d=" + ((HyperCubeNetwork) topology).getDimensions();
+    }
+
+    private static int[] balancedRadices(int exponent, int dimensions) {
+        int[] radices = new int[dimensions];
+        for (int dimension = 0; dimension < dimensions; dimension++) {
+            int share = exponent / dimensions + (dimension < exponent % dimensions ? 1 : 0);
+            radices[dimension] = 1 << share;
+        }
+        return radices;
+    }
+
+    private record Throughput(double deliveredPerSecond, long dropped) {
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
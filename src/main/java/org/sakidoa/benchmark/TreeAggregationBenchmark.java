@@ -0,0 +1,65 @@
+package org.sakidoa.benchmark;
+
+import org.sakidoa.treenetwork.AggregationResult;
+import org.sakidoa.treenetwork.Aggregator;
+import org.sakidoa.treenetwork.TreeAggregation;
+import org.sakidoa.treenetwork.TreeNetwork;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs sum convergecasts over trees of different fanouts and reports how many messages reach the roots per
+ * epoch and the resulting root ingress rate, with every contribution relayed to the root versus reduced
+ * in the network.
+ */
+public class TreeAggregationBenchmark {
+    private static final int NODE_COUNT = 341;
+    private static final int[] FANOUTS = {2, 4, 8, 16};
+    private static final int[] ROOT_COUNTS = {1, 2};
+    private static final int WARMUP_EPOCHS = 20;
+    private static final int EPOCHS = 200;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%6s %6s %6s %-11s %14s %16s %14s%n",
+                "fanout", "roots", "depth", "mode", "ingress/epoch", "ingress (msg/s)", "epoch (us)");
+        for (int rootCount : ROOT_COUNTS) {
+            for (int fanout : FANOUTS) {
+                benchmark(fanout, rootCount, false);
+                benchmark(fanout, rootCount, true);
+            }
+        }
+    }
+
+    private static void benchmark(int fanout, int rootCount, boolean inNetwork) throws Exception {
+        TreeNetwork network = new TreeNetwork(fanout, rootCount);
+        network.configureNetwork(NODE_COUNT);
+        TreeAggregation aggregation = network.enableAggregation(Aggregator.SUM, inNetwork);
+        network.runNetwork();
+
+        for (int i = 0; i < WARMUP_EPOCHS; i++) {
+            runEpoch(aggregation);
+        }
+
+        long ingressBefore = aggregation.getRootIngressCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < EPOCHS; i++) {
+            runEpoch(aggregation);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long ingress = aggregation.getRootIngressCount() - ingressBefore;
+
+        System.out.printf("%6d %6d %6d %-11s %14.1f %16.0f %14.1f%n", fanout, rootCount, network.getDepth(),
+                inNetwork ? "in-network" : "relay", (double) ingress / EPOCHS,
+                ingress * 1e9 / elapsedNanos, elapsedNanos / 1e3 / EPOCHS);
+        network.shutdownNetwork(Duration.ofSeconds(1), false);
+    }
+
+    private static void runEpoch(TreeAggregation aggregation) throws Exception {
+        AggregationResult result = aggregation.aggregate(index -> index).get(10, TimeUnit.SECONDS);
+        long expected = (long) NODE_COUNT * (NODE_COUNT - 1) / 2;
+        if (result.value() != expected || result.contributions() != NODE_COUNT) {
+            throw new IllegalStateException("Unexpected aggregate " + result);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.sakidoa.busnetwork;
+
+import java.util.BitSet;
+
+public interface BusArbiter {
+    int NO_CONTENDER = -1;
+    int COLLISION = -2;
+
+    /**
+     * Picks the station that gets the medium for the slot starting at {@code slotStartNanos}. Returns the
+     * station index, {@link #NO_CONTENDER} when every ready station is still backing off, or {@link #COLLISION}
+     * when several stations transmitted in the same slot.
+     */
+    int arbitrate(BitSet readyStations, long slotStartNanos);
+
+    default void attach(int stationCount, long slotTimeNanos) {
+    }
+
+    default long nextAttemptNanos(BitSet readyStations, long slotStartNanos) {
+        return slotStartNanos;
+    }
+
+    default long getCollisionCount() {
+        return 0;
+    }
+
+    default long getTotalBackoffNanos() {
+        return 0;
+    }
+}
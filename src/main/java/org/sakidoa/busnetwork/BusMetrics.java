@@ -0,0 +1,6 @@
+package org.sakidoa.busnetwork;
+
+public record BusMetrics(int stations, long transmittedFrames, long transmittedBytes, long droppedFrames,
+                         int pendingFrames, double utilization, long collisions, long totalBackoffNanos,
+                         long averageAccessDelayNanos, long maxAccessDelayNanos) {
+}
@@ -1,49 +1,249 @@
 package org.sakidoa.busnetwork;
 
+import org.sakidoa.core.Message;
 import org.sakidoa.core.MessageRouter;
 import org.sakidoa.core.Node;
+import org.sakidoa.core.ShutdownReport;
+import org.sakidoa.core.batch.CoalescingConfig;
+import org.sakidoa.core.batch.CoalescingMetrics;
+import org.sakidoa.core.batch.MessageCoalescer;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flood.FloodConfig;
+import org.sakidoa.core.flood.Flooding;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.runtime.HostedTopology;
+import org.sakidoa.core.NetworkShutdown;
 import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.enums.MessageType;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
 import java.util.stream.IntStream;
 
 public class BusNetwork implements NetworkTopology {
     private final AtomicBoolean running = new AtomicBoolean(false);
+    private final SharedBus sharedBus;
     private List<Node> nodes;
     private ExecutorService executor;
     private MessageRouter messageRouter;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private CoalescingConfig coalescingConfig;
+    private MessageCoalescer coalescer;
+    private FaultInjector faultInjector;
+    private Flooding flooding;
+    private HostedTopology runtime;
+
+    public BusNetwork() {
+        this.sharedBus = null;
+    }
+
+    public BusNetwork(SharedBus sharedBus) {
+        this.sharedBus = sharedBus;
+    }
 
     @Override
     public void configureNetwork(int numberOfNodes) {
         validateNodeCount(numberOfNodes);
         createNodes(numberOfNodes);
-        configureBusConnections();
+        if (isSharedMedium()) {
+            sharedBus.attach(nodes);
+        } else {
+            configureBusConnections();
+        }
         initializeExecutor(numberOfNodes);
         initializeMessageRouter();
+        initializeCoalescer();
     }
 
     @Override
     public void sendMessage(int fromNode, int toNode, String message) {
         validateNetworkRunning();
+        if (coalescer != null) {
+            sendCoalesced(fromNode, toNode, message);
+            return;
+        }
+        if (isSharedMedium()) {
+            sendOverSharedBus(fromNode, toNode, message);
+            return;
+        }
+        if (runtime != null) {
+            runtime.execute(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
         executor.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
     }
 
+    /**
+     * Submissions are handed on from the publisher's thread instead of the executor, so each one waits in a
+     * mailbox, a station queue or a pending batch, and all three count towards the backlog.
+     */
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        validateNetworkConfigured();
+        IntSupplier queueDepth = IngressSubscriber.queueDepthOf(nodes);
+        return new IngressSubscriber(this::inject, () -> queueDepth.getAsInt() + pendingOutsideMailboxes(),
+                maxQueuedMessages);
+    }
+
     @Override
     public void runNetwork() {
         validateNetworkConfigured();
         running.set(true);
+        if (isSharedMedium()) {
+            sharedBus.start();
+        }
         startNodes();
     }
 
     @Override
-    public void shutdownNetwork() {
+    public void runNetwork(HostedTopology runtime) {
+        validateNetworkConfigured();
+        this.runtime = runtime;
+        if (coalescer != null) {
+            coalescer.setTimer(runtime::schedule);
+        }
+        running.set(true);
+        if (isSharedMedium()) {
+            sharedBus.start();
+        }
+        runtime.start(nodes);
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
         running.set(false);
-        shutdownNodes();
-        gracefulShutdown();
+        if (coalescer != null) {
+            coalescer.close();
+        }
+        if (isSharedMedium()) {
+            sharedBus.close();
+        }
+        if (faultInjector != null) {
+            faultInjector.close();
+        }
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
+        }
+        return NetworkShutdown.shutdown(nodes == null ? List.of() : nodes, executor, deadline, drainInFlight);
+    }
+
+    public boolean isSharedMedium() {
+        return sharedBus != null;
+    }
+
+    public BusMetrics getBusMetrics() {
+        if (!isSharedMedium()) {
+            throw new IllegalStateException("Bus network is not running in shared-medium mode");
+        }
+        return sharedBus.getMetrics();
+    }
+
+    /**
+     * On the shared medium faults apply where the bus hands a frame to its station; otherwise the router
+     * forwards through the injector as on the other topologies. Coalesced sends outside the shared medium
+     * would bypass it, so that combination is rejected.
+     */
+    public FaultInjector enableFaultInjection() {
+        validateNetworkConfigured();
+        if (coalescer != null && !isSharedMedium()) {
+            throw new IllegalStateException("Fault injection cannot be combined with message coalescing");
+        }
+        this.faultInjector = new FaultInjector(nodes);
+        if (isSharedMedium()) {
+            sharedBus.setFaultInjector(faultInjector);
+        } else {
+            messageRouter.setFaultInjector(faultInjector);
+        }
+        return faultInjector;
+    }
+
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    /**
+     * Floods over the stations' neighbour links. On the shared medium the stations have no links, and a
+     * frame on the bus already reaches every station, so flooding is only offered without it.
+     */
+    public Flooding enableFlooding(FloodConfig config) {
+        validateNetworkConfigured();
+        if (isSharedMedium()) {
+            throw new IllegalStateException("Flooding is not available on the shared bus medium");
+        }
+        this.flooding = new Flooding(nodes, config);
+        return flooding;
+    }
+
+    public Flooding getFlooding() {
+        return flooding;
+    }
+
+    public void setCoalescing(CoalescingConfig coalescingConfig) {
+        this.coalescingConfig = coalescingConfig;
+    }
+
+    public CoalescingMetrics getCoalescingMetrics() {
+        if (coalescer == null) {
+            throw new IllegalStateException("Message coalescing is not enabled");
+        }
+        return coalescer.getMetrics();
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        validateNetworkConfigured();
+        return nodes;
+    }
+
+    private boolean inject(int fromNode, int toNode, String message) {
+        if (!running.get()) {
+            return false;
+        }
+        if (coalescer != null) {
+            return sendCoalesced(fromNode, toNode, message);
+        }
+        if (isSharedMedium()) {
+            return sendOverSharedBus(fromNode, toNode, message);
+        }
+        messageRouter.routeMessage(fromNode, toNode, message);
+        return true;
+    }
+
+    private int pendingOutsideMailboxes() {
+        int pending = coalescer == null ? 0 : coalescer.getPendingMessageCount();
+        return isSharedMedium() ? pending + sharedBus.getPendingFrameCount() : pending;
+    }
+
+    private boolean sendOverSharedBus(int fromNode, int toNode, String message) {
+        Message msg = createDataMessage(fromNode, toNode, message);
+        return MessageRouter.recordHandOff(nodes.get(fromNode), nodes.get(toNode), msg,
+                () -> sharedBus.transmit(fromNode, toNode, msg));
+    }
+
+    private boolean sendCoalesced(int fromNode, int toNode, String message) {
+        Message msg = createDataMessage(fromNode, toNode, message);
+        return MessageRouter.recordHandOff(nodes.get(fromNode), nodes.get(toNode), msg, () -> {
+            coalescer.submit(nodes.get(fromNode), nodes.get(toNode), msg);
+            return true;
+        });
+    }
+
+    private Message createDataMessage(int fromNode, int toNode, String message) {
+        if (fromNode < 0 || fromNode >= nodes.size() || toNode < 0 || toNode >= nodes.size()) {
+            throw new IndexOutOfBoundsException("Node index out of bounds: " + fromNode + " -> " + toNode);
+        }
+        Message msg = new Message(MessageType.DATA, nodes.get(fromNode).getNodeId(), message);
+        msg.setReceiverId(nodes.get(toNode).getNodeId());
+        return msg;
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
     }
 
     private void validateNodeCount(int numberOfNodes) {
@@ -54,10 +254,14 @@ public class BusNetwork implements NetworkTopology {
 
     private void createNodes(int numberOfNodes) {
         this.nodes = IntStream.range(0, numberOfNodes)
-                .mapToObj(i -> new Node("bus-node-" + i))
+                .mapToObj(i -> createNode("bus-node-" + i))
                 .toList();
     }
 
+    private Node createNode(String nodeId) {
+        return new Node(nodeId, mailboxFactory.create(nodeId));
+    }
+
     private void configureBusConnections() {
         for (int i = 0; i < nodes.size(); i++) {
             Node currentNode = nodes.get(i);
@@ -77,6 +281,16 @@ public class BusNetwork implements NetworkTopology {
         this.messageRouter = new MessageRouter(nodes);
     }
 
+    private void initializeCoalescer() {
+        if (coalescingConfig == null) {
+            return;
+        }
+        this.coalescer = isSharedMedium()
+                ? new MessageCoalescer(coalescingConfig, (from, to, envelope) -> sharedBus.transmit(
+                        messageRouter.indexOf(from.getNodeId()), messageRouter.indexOf(to.getNodeId()), envelope))
+                : new MessageCoalescer(coalescingConfig);
+    }
+
     private void validateNetworkRunning() {
         if (!running.get()) {
             throw new IllegalStateException("Network is not running");
@@ -92,28 +306,4 @@ public class BusNetwork implements NetworkTopology {
     private void startNodes() {
         nodes.forEach(executor::submit);
     }
-
-    private void shutdownNodes() {
-        if (nodes != null) {
-            nodes.forEach(Node::shutdown);
-        }
-    }
-
-    private void gracefulShutdown() {
-        if (executor != null) {
-            executor.shutdown();
-            try {
-                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executor.shutdownNow();
-                    if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                        System.err.println("Executor did not terminate gracefully");
-                    }
-                }
-            } catch (InterruptedException e) {
-                executor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package org.sakidoa.busnetwork;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Carrier-sense multiple access with collision detection: every ready station whose backoff has expired
+ * transmits, and when more than one does they all collide and back off a random number of slots using
+ * truncated binary exponential backoff.
+ */
+public class CsmaCdArbiter implements BusArbiter {
+    private static final int MAX_BACKOFF_EXPONENT = 10;
+
+    private final SplittableRandom random;
+    private long slotTimeNanos = 1;
+    private final BitSet contenders = new BitSet();
+    private int[] attempts = new int[0];
+    private long[] backoffUntilNanos = new long[0];
+    private long collisions;
+    private long totalBackoffNanos;
+
+    public CsmaCdArbiter(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void attach(int stationCount, long slotTimeNanos) {
+        this.slotTimeNanos = slotTimeNanos;
+        this.attempts = new int[stationCount];
+        this.backoffUntilNanos = new long[stationCount];
+    }
+
+    @Override
+    public int arbitrate(BitSet readyStations, long slotStartNanos) {
+        contenders.clear();
+        for (int station = readyStations.nextSetBit(0); station >= 0; station = readyStations.nextSetBit(station + 1)) {
+            if (backoffUntilNanos[station] <= slotStartNanos) {
+                contenders.set(station);
+            }
+        }
+
+        int contenderCount = contenders.cardinality();
+        if (contenderCount == 0) {
+            return NO_CONTENDER;
+        }
+        if (contenderCount == 1) {
+            int winner = contenders.nextSetBit(0);
+            attempts[winner] = 0;
+            return winner;
+        }
+
+        collisions++;
+        for (int station = contenders.nextSetBit(0); station >= 0; station = contenders.nextSetBit(station + 1)) {
+            backOff(station, slotStartNanos);
+        }
+        return COLLISION;
+    }
+
+    @Override
+    public long nextAttemptNanos(BitSet readyStations, long slotStartNanos) {
+        long next = Long.MAX_VALUE;
+        for (int station = readyStations.nextSetBit(0); station >= 0; station = readyStations.nextSetBit(station + 1)) {
+            next = Math.min(next, backoffUntilNanos[station]);
+        }
+        return next == Long.MAX_VALUE ? slotStartNanos : Math.max(next, slotStartNanos);
+    }
+
+    @Override
+    public long getCollisionCount() {
+        return collisions;
+    }
+
+    @Override
+    public long getTotalBackoffNanos() {
+        return totalBackoffNanos;
+    }
+
+    private void backOff(int station, long slotStartNanos) {
+        int exponent = Math.min(++attempts[station], MAX_BACKOFF_EXPONENT);
+        long backoffSlots = random.nextLong(1L << exponent);
+        long backoffNanos = backoffSlots * slotTimeNanos;
+        backoffUntilNanos[station] = slotStartNanos + slotTimeNanos + backoffNanos;
+        totalBackoffNanos += backoffNanos;
+    }
+}
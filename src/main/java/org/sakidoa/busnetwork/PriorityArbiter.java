@@ -0,0 +1,30 @@
+package org.sakidoa.busnetwork;
+
+import java.util.BitSet;
+import java.util.function.IntUnaryOperator;
+
+public class PriorityArbiter implements BusArbiter {
+    private final IntUnaryOperator stationPriority;
+
+    public PriorityArbiter() {
+        this(station -> -station);
+    }
+
+    public PriorityArbiter(IntUnaryOperator stationPriority) {
+        this.stationPriority = stationPriority;
+    }
+
+    @Override
+    public int arbitrate(BitSet readyStations, long slotStartNanos) {
+        int winner = NO_CONTENDER;
+        int winnerPriority = Integer.MIN_VALUE;
+        for (int station = readyStations.nextSetBit(0); station >= 0; station = readyStations.nextSetBit(station + 1)) {
+            int priority = stationPriority.applyAsInt(station);
+            if (winner == NO_CONTENDER || priority > winnerPriority) {
+                winner = station;
+                winnerPriority = priority;
+            }
+        }
+        return winner;
+    }
+}
@@ -0,0 +1,20 @@
+package org.sakidoa.busnetwork;
+
+import java.util.BitSet;
+
+public class RoundRobinArbiter implements BusArbiter {
+    private int lastWinner = -1;
+
+    @Override
+    public int arbitrate(BitSet readyStations, long slotStartNanos) {
+        int winner = readyStations.nextSetBit(lastWinner + 1);
+        if (winner < 0) {
+            winner = readyStations.nextSetBit(0);
+        }
+        if (winner < 0) {
+            return NO_CONTENDER;
+        }
+        lastWinner = winner;
+        return winner;
+    }
+}
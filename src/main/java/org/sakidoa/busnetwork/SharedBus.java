@@ -0,0 +1,256 @@
+package org.sakidoa.busnetwork;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.batch.MessageBatch;
+import org.sakidoa.core.fault.FaultInjector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single shared medium that every frame on the bus has to cross. Stations queue frames locally and one bus
+ * thread grants the medium through the configured {@link BusArbiter}, holding it for the serialization time
+ * of the frame at the bus bandwidth. State is one queue slot per station, so memory grows linearly.
+ */
+public class SharedBus implements AutoCloseable {
+    private static final int MESSAGE_HEADER_BYTES = 32;
+    private static final int MINIMUM_FRAME_BYTES = 64;
+    private static final long SPIN_THRESHOLD_NANOS = 20_000;
+
+    private final long bandwidthBytesPerSecond;
+    private final int stationQueueCapacity;
+    private final BusArbiter arbiter;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition framesAvailable = lock.newCondition();
+    private final BitSet readyStations = new BitSet();
+    private List<Node> stations;
+    private List<ArrayDeque<Frame>> stationQueues;
+    private long slotTimeNanos;
+    private Thread busThread;
+    private volatile FaultInjector faultInjector;
+    private volatile boolean running;
+    private long startNanos;
+    private long stopNanos;
+    private long mediumFreeAtNanos;
+    private int pendingFrames;
+    private long transmittedFrames;
+    private long transmittedBytes;
+    private long droppedFrames;
+    private long busyNanos;
+    private long totalAccessDelayNanos;
+    private long maxAccessDelayNanos;
+
+    public SharedBus(long bandwidthBytesPerSecond, BusArbiter arbiter, int stationQueueCapacity) {
+        if (bandwidthBytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Bus bandwidth must be positive");
+        }
+        if (stationQueueCapacity <= 0) {
+            throw new IllegalArgumentException("Station queue capacity must be positive");
+        }
+        this.bandwidthBytesPerSecond = bandwidthBytesPerSecond;
+        this.arbiter = arbiter;
+        this.stationQueueCapacity = stationQueueCapacity;
+    }
+
+    public void attach(List<Node> stations) {
+        this.stations = stations;
+        this.stationQueues = new ArrayList<>(stations.size());
+        for (int i = 0; i < stations.size(); i++) {
+            stationQueues.add(null);
+        }
+        this.slotTimeNanos = Math.max(1, serializationDelayNanos(MINIMUM_FRAME_BYTES));
+        arbiter.attach(stations.size(), slotTimeNanos);
+    }
+
+    public void start() {
+        if (stations == null) {
+            throw new IllegalStateException("Bus has no stations attached");
+        }
+        running = true;
+        startNanos = System.nanoTime();
+        mediumFreeAtNanos = startNanos;
+        busThread = new Thread(this::runBus, "shared-bus");
+        busThread.setDaemon(true);
+        busThread.start();
+    }
+
+    public boolean transmit(int fromStation, int toStation, Message message) {
+        Frame frame = new Frame(fromStation, toStation, message, sizeOf(message), System.nanoTime());
+        lock.lock();
+        try {
+            ArrayDeque<Frame> queue = stationQueue(fromStation);
+            if (queue.size() >= stationQueueCapacity) {
+                droppedFrames++;
+                return false;
+            }
+            queue.addLast(frame);
+            pendingFrames++;
+            readyStations.set(fromStation);
+            framesAvailable.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frames queued at the stations that have not crossed the bus yet.
+     */
+    public int getPendingFrameCount() {
+        lock.lock();
+        try {
+            return pendingFrames;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frames that cross the bus are handed to their station through the injector, so killed stations and cut
+     * links lose them and the loss is charged to the fault.
+     */
+    public void setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    public BusMetrics getMetrics() {
+        lock.lock();
+        try {
+            long elapsed = busThread == null ? 0 : (running ? System.nanoTime() : stopNanos) - startNanos;
+            double utilization = elapsed > 0 ? Math.min(1.0, (double) busyNanos / elapsed) : 0.0;
+            long averageAccessDelay = transmittedFrames > 0 ? totalAccessDelayNanos / transmittedFrames : 0;
+            return new BusMetrics(stations == null ? 0 : stations.size(), transmittedFrames, transmittedBytes,
+                    droppedFrames, pendingFrames, utilization, arbiter.getCollisionCount(),
+                    arbiter.getTotalBackoffNanos(), averageAccessDelay, maxAccessDelayNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (running) {
+                stopNanos = System.nanoTime();
+            }
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        if (busThread != null) {
+            busThread.interrupt();
+        }
+    }
+
+    private void runBus() {
+        try {
+            while (running) {
+                Frame frame = acquireMedium();
+                pace(mediumFreeAtNanos);
+                if (frame != null) {
+                    deliver(frame);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(Frame frame) {
+        FaultInjector faults = faultInjector;
+        if (faults == null) {
+            stations.get(frame.destination()).receiveMessage(frame.message());
+        } else {
+            faults.deliver(frame.source(), frame.destination(), frame.message(),
+                    (from, to, message) -> stations.get(to).receiveMessage(message));
+        }
+    }
+
+    private Frame acquireMedium() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && readyStations.isEmpty()) {
+                framesAvailable.await();
+            }
+            if (!running) {
+                return null;
+            }
+
+            long slotStart = Math.max(System.nanoTime(), mediumFreeAtNanos);
+            int station = arbiter.arbitrate(readyStations, slotStart);
+            if (station == BusArbiter.COLLISION) {
+                mediumFreeAtNanos = slotStart + slotTimeNanos;
+                return null;
+            }
+            if (station == BusArbiter.NO_CONTENDER) {
+                mediumFreeAtNanos = arbiter.nextAttemptNanos(readyStations, slotStart);
+                return null;
+            }
+            return transmitFrom(station, slotStart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Frame transmitFrom(int station, long slotStart) {
+        ArrayDeque<Frame> queue = stationQueues.get(station);
+        Frame frame = queue.pollFirst();
+        if (queue.isEmpty()) {
+            readyStations.clear(station);
+        }
+        pendingFrames--;
+
+        long serializationDelay = serializationDelayNanos(frame.sizeInBytes());
+        long accessDelay = slotStart - frame.enqueuedNanos();
+        mediumFreeAtNanos = slotStart + serializationDelay;
+        busyNanos += serializationDelay;
+        transmittedFrames++;
+        transmittedBytes += frame.sizeInBytes();
+        totalAccessDelayNanos += accessDelay;
+        maxAccessDelayNanos = Math.max(maxAccessDelayNanos, accessDelay);
+        return frame;
+    }
+
+    // Parking overshoots by tens of microseconds, so the last stretch before the medium frees up is spun.
+    private void pace(long untilNanos) {
+        long lead;
+        while (running && (lead = untilNanos - System.nanoTime()) > 0) {
+            if (lead > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(lead - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private ArrayDeque<Frame> stationQueue(int station) {
+        ArrayDeque<Frame> queue = stationQueues.get(station);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            stationQueues.set(station, queue);
+        }
+        return queue;
+    }
+
+    private long serializationDelayNanos(int sizeInBytes) {
+        return sizeInBytes * 1_000_000_000L / bandwidthBytesPerSecond;
+    }
+
+    private static int sizeOf(Message message) {
+        Object payload = message.getPayload();
+        if (payload instanceof MessageBatch batch) {
+            return MESSAGE_HEADER_BYTES + batch.payloadBytes();
+        }
+        return MESSAGE_HEADER_BYTES + (payload == null ? 0 : payload.toString().length());
+    }
+
+    private record Frame(int source, int destination, Message message, int sizeInBytes, long enqueuedNanos) {
+    }
+}
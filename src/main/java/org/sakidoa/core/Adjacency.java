@@ -0,0 +1,40 @@
+package org.sakidoa.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Neighbour lists by node index, the form the flooding, fault-detour and placement machinery walk. Row
+ * {@code i} holds the sorted, distinct indices in {@code nodes} of the neighbours of {@code nodes.get(i)}.
+ */
+public final class Adjacency {
+    private Adjacency() {
+    }
+
+    public static int[][] of(List<Node> nodes) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            indices.put(nodes.get(i).getNodeId(), i);
+        }
+        int[][] adjacency = new int[nodes.size()][];
+        for (int i = 0; i < nodes.size(); i++) {
+            adjacency[i] = nodes.get(i).getNeighbors().stream()
+                    .mapToInt(neighbor -> indices.get(neighbor.getNodeId()))
+                    .sorted()
+                    .toArray();
+        }
+        return adjacency;
+    }
+
+    /**
+     * Checks that {@code adjacency} was built for {@code nodes} and returns it.
+     */
+    public static int[][] validate(List<Node> nodes, int[][] adjacency) {
+        if (adjacency.length != nodes.size()) {
+            throw new IllegalArgumentException("Adjacency has " + adjacency.length + " rows for "
+                    + nodes.size() + " nodes");
+        }
+        return adjacency;
+    }
+}
@@ -1,19 +1,37 @@
 package org.sakidoa.core;
 
 import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.trace.MessageTrace;
+
+import java.time.Duration;
 
 public  class Message {
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
     private final MessageType type;
     private final String senderId;
     private final Object payload;
     private final long timestamp;
+    private final long createdNanos;
     private String receiverId;
+    private long correlationId;
+    private long deadline = NO_DEADLINE;
+    private MessageTrace trace;
 
     public Message(MessageType type, String senderId, Object payload, long timestamp) {
+        this(type, senderId, payload, timestamp, System.nanoTime());
+    }
+
+    /**
+     * Rebuilds a message that was created earlier in this JVM, such as one decoded from an off-heap
+     * mailbox, so that its age keeps counting from the original creation time.
+     */
+    public Message(MessageType type, String senderId, Object payload, long timestamp, long createdNanos) {
         this.type = type;
         this.senderId = senderId;
         this.payload = payload;
         this.timestamp = timestamp;
+        this.createdNanos = createdNanos;
     }
 
     public Message(MessageType type, String senderId, Object payload) {
@@ -34,4 +52,55 @@ public  class Message {
     public void setReceiverId(String toId) {
         this.receiverId = toId;
     }
+
+    public long getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(long correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sets the epoch millisecond, on the same clock as {@link #getTimestamp()}, after which the message is
+     * discarded instead of handled.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.deadline = timestamp + timeToLive.toMillis();
+    }
+
+    public boolean hasDeadline() {
+        return deadline != NO_DEADLINE;
+    }
+
+    public boolean isExpired() {
+        return deadline != NO_DEADLINE && System.currentTimeMillis() >= deadline;
+    }
+
+    /**
+     * Nanoseconds since this instance was created, measured on the monotonic clock of this JVM.
+     */
+    public long getAgeNanos() {
+        return System.nanoTime() - createdNanos;
+    }
+
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    public MessageTrace getTrace() {
+        return trace;
+    }
+
+    public void setTrace(MessageTrace trace) {
+        this.trace = trace;
+    }
 }
@@ -1,19 +1,155 @@
 package org.sakidoa.core;
 
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.jfr.RouteEvent;
+import org.sakidoa.core.link.LinkLayer;
+import org.sakidoa.core.trace.Tracer;
+
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 public class MessageRouter {
     private final List<Node> nodes;
+    private final Map<String, Integer> nodeIndices = new HashMap<>();
+    private RoutingStrategy routingStrategy;
+    private LinkLayer linkLayer;
+    private volatile Tracer tracer;
+    private FaultInjector faultInjector;
 
     public MessageRouter(List<Node> nodes) {
         this.nodes = nodes;
+        for (int i = 0; i < nodes.size(); i++) {
+            nodeIndices.put(nodes.get(i).getNodeId(), i);
+        }
     }
 
     public void routeMessage(int fromNode, int toNode, String message) {
         validateNodeIndices(fromNode, toNode);
 
+        if (!isHopByHop() && tracer == null) {
+            Node targetNode = nodes.get(toNode);
+            RouteEvent event = new RouteEvent();
+            event.begin();
+            boolean accepted = targetNode.receiveMessage(message);
+            event.end();
+            event.commitHandOff(nodes.get(fromNode).getNodeId(), targetNode.getNodeId(), targetNode.getNodeId(),
+                    MessageType.DATA.name(), accepted);
+            return;
+        }
+
+        Node sourceNode = nodes.get(fromNode);
+        Message msg = new Message(MessageType.DATA, sourceNode.getNodeId(), message);
+        dispatch(fromNode, toNode, msg);
+    }
+
+    public boolean dispatch(int fromNode, int toNode, Message message) {
+        validateNodeIndices(fromNode, toNode);
         Node targetNode = nodes.get(toNode);
-        targetNode.receiveMessage(message);
+        message.setReceiverId(targetNode.getNodeId());
+        Tracer activeTracer = tracer;
+        if (activeTracer != null) {
+            activeTracer.sample(message);
+        }
+        if (!isHopByHop()) {
+            return route(nodes.get(fromNode), targetNode, message);
+        }
+        return forwardFrom(fromNode, message);
+    }
+
+    /**
+     * Runs {@code transfer}, the hand-off of {@code message} from {@code currentNode} to {@code nextNode}, and
+     * records it as a {@link RouteEvent}. For topologies that deliver without going through a router.
+     */
+    public static boolean recordHandOff(Node currentNode, Node nextNode, Message message, BooleanSupplier transfer) {
+        RouteEvent event = new RouteEvent();
+        event.begin();
+        boolean accepted = transfer.getAsBoolean();
+        event.end();
+        event.commitHandOff(currentNode.getNodeId(), nextNode.getNodeId(), message.getReceiverId(),
+                message.getType().name(), accepted);
+        return accepted;
+    }
+
+    public int indexOf(String nodeId) {
+        Integer index = nodeIndices.get(nodeId);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown node: " + nodeId);
+        }
+        return index;
+    }
+
+    public void setRoutingStrategy(RoutingStrategy routingStrategy) {
+        this.routingStrategy = routingStrategy;
+        installForwarders();
+    }
+
+    public void setLinkLayer(LinkLayer linkLayer) {
+        this.linkLayer = linkLayer;
+        installForwarders();
+    }
+
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    public void setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+        installForwarders();
+    }
+
+    public RoutingStrategy getRoutingStrategy() {
+        return routingStrategy == null ? RoutingStrategy.DIRECT : routingStrategy;
+    }
+
+    private boolean isHopByHop() {
+        return routingStrategy != null || linkLayer != null || faultInjector != null;
+    }
+
+    private void installForwarders() {
+        Node.MessageForwarder forwarder = isHopByHop() ? this::forward : null;
+        nodes.forEach(node -> node.setForwarder(forwarder));
+    }
+
+    private void forward(Node currentNode, Message message) {
+        forwardFrom(nodeIndices.get(currentNode.getNodeId()), message);
+    }
+
+    private boolean forwardFrom(int currentIndex, Message message) {
+        if (nodes.get(currentIndex).discardIfExpired(message)) {
+            return false;
+        }
+        int destinationIndex = nodeIndices.get(message.getReceiverId());
+        if (faultInjector != null) {
+            return faultInjector.forward(currentIndex, destinationIndex, message, routingStrategy,
+                    (from, to, forwarded) -> route(nodes.get(from), nodes.get(to), forwarded));
+        }
+        Node currentNode = nodes.get(currentIndex);
+        Node nextNode = currentIndex == destinationIndex ? currentNode
+                : nodes.get(getRoutingStrategy().nextHop(currentIndex, destinationIndex));
+        return route(currentNode, nextNode, message);
+    }
+
+    private boolean route(Node currentNode, Node nextNode, Message message) {
+        RouteEvent event = new RouteEvent();
+        event.begin();
+        boolean accepted = handOff(currentNode, nextNode, message);
+        event.end();
+        event.commitHandOff(currentNode.getNodeId(), nextNode.getNodeId(), message.getReceiverId(),
+                message.getType().name(), accepted);
+        return accepted;
+    }
+
+    private boolean handOff(Node currentNode, Node nextNode, Message message) {
+        if (currentNode == nextNode) {
+            return currentNode.receiveMessage(message);
+        }
+        if (linkLayer != null) {
+            return linkLayer.transmit(currentNode, nextNode, message);
+        }
+        return nextNode.receiveMessage(message);
     }
 
     private void validateNodeIndices(int fromNode, int toNode) {
@@ -0,0 +1,104 @@
+package org.sakidoa.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Stops every node of a network against one global deadline: all nodes are signalled up front, optionally
+ * drain what is already in their mailboxes, and whatever is still running when the deadline expires is
+ * interrupted and reported as a straggler.
+ */
+public final class NetworkShutdown {
+    private static final long STRAGGLER_GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private NetworkShutdown() {
+    }
+
+    public static ShutdownReport shutdown(Collection<Node> nodes, ExecutorService executor, Duration deadline,
+                                          boolean drainInFlight) {
+        long start = System.nanoTime();
+        long deadlineNanos = start + deadline.toNanos();
+
+        for (Node node : nodes) {
+            if (drainInFlight) {
+                node.drainAndShutdown();
+            } else {
+                node.shutdown();
+            }
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+
+        List<Node> stragglers = awaitNodes(nodes, deadlineNanos);
+        stragglers.forEach(Node::forceStop);
+        awaitNodes(stragglers, System.nanoTime() + STRAGGLER_GRACE_NANOS);
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+
+        return buildReport(nodes, stragglers, start);
+    }
+
+    /**
+     * Waits until {@code idle} holds and every mailbox is empty on two consecutive polls, or until the
+     * deadline. The second poll catches a message that was being handed between nodes during the first.
+     */
+    public static void awaitQuiescence(Collection<Node> nodes, BooleanSupplier idle, long deadlineNanos,
+                                       long pollNanos) {
+        int quietChecks = 0;
+        while (quietChecks < 2 && System.nanoTime() < deadlineNanos) {
+            quietChecks = isQuiescent(nodes, idle) ? quietChecks + 1 : 0;
+            LockSupport.parkNanos(pollNanos);
+        }
+    }
+
+    private static boolean isQuiescent(Collection<Node> nodes, BooleanSupplier idle) {
+        if (!idle.getAsBoolean()) {
+            return false;
+        }
+        for (Node node : nodes) {
+            if (!node.getMailbox().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Node> awaitNodes(Collection<Node> nodes, long deadlineNanos) {
+        List<Node> pending = new ArrayList<>();
+        for (Node node : nodes) {
+            try {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (!node.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                    pending.add(node);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.add(node);
+            }
+        }
+        return pending;
+    }
+
+    private static ShutdownReport buildReport(Collection<Node> nodes, List<Node> stragglers, long start) {
+        long drained = 0;
+        long discarded = 0;
+        for (Node node : nodes) {
+            drained += node.getDrainedMessageCount();
+            discarded += node.getDiscardedMessageCount();
+        }
+        for (Node straggler : stragglers) {
+            discarded += straggler.getQueueSize();
+        }
+
+        List<String> stragglerIds = stragglers.stream().map(Node::getNodeId).toList();
+        return new ShutdownReport(drained, discarded, stragglerIds, Duration.ofNanos(System.nanoTime() - start));
+    }
+}
@@ -1,12 +1,39 @@
 package org.sakidoa.core;
 
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.runtime.HostedTopology;
+
+import java.time.Duration;
+import java.util.List;
+
 public interface NetworkTopology {
+    Duration DEFAULT_SHUTDOWN_DEADLINE = Duration.ofSeconds(5);
+
     void configureNetwork(int numberOfNodes);
 
     void sendMessage(int fromNode, int toNode, String message);
 
     void runNetwork();
 
-    void shutdownNetwork();
+    /**
+     * Starts the configured network on a shared runtime instead of threads of its own: the runtime steps the
+     * nodes and runs the topology's asynchronous work, and {@link #shutdownNetwork(Duration, boolean)} hands
+     * the nodes back.
+     */
+    void runNetwork(HostedTopology runtime);
+
+    default void shutdownNetwork() {
+        shutdownNetwork(DEFAULT_SHUTDOWN_DEADLINE, false);
+    }
+
+    ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight);
+
+    List<Node> getNodes();
 
+    /**
+     * Returns a subscriber that injects submissions into the running network, requesting more only while
+     * fewer than {@code maxQueuedMessages} messages are queued in it: in the nodes' mailboxes and anywhere
+     * else the topology holds a sent message before it reaches one.
+     */
+    IngressSubscriber ingressSubscriber(int maxQueuedMessages);
 }
@@ -1,48 +1,88 @@
 package org.sakidoa.core;
 
+import org.sakidoa.core.batch.MessageBatch;
 import org.sakidoa.core.enums.MessageType;
 import org.sakidoa.core.enums.NodeEvent;
 import org.sakidoa.core.enums.NodeState;
+import org.sakidoa.core.jfr.MailboxDequeueEvent;
+import org.sakidoa.core.jfr.MailboxEnqueueEvent;
+import org.sakidoa.core.jfr.MessageDropEvent;
+import org.sakidoa.core.jfr.NodeStateEvent;
+import org.sakidoa.core.mailbox.FifoMailbox;
+import org.sakidoa.core.mailbox.Mailbox;
+import org.sakidoa.core.metrics.LatencyHistogram;
+import org.sakidoa.core.trace.MessageTrace;
 
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
 
 public class Node implements Runnable {
+    private static final int MAX_MESSAGES_PER_WAKEUP = 64;
+    private static final long SUSPENDED_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
     private final String nodeId;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final Set<Node> neighbors = Collections.synchronizedSet(new HashSet<>());
-    private final BlockingQueue<Message> messageQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService messageProcessor = Executors.newSingleThreadExecutor();
+    private final Mailbox mailbox;
     private final AtomicLong processedMessages = new AtomicLong(0);
+    private final AtomicLong drainedMessages = new AtomicLong(0);
+    private final AtomicLongArray expiredMessages = new AtomicLongArray(MessageType.values().length);
+    private final AtomicLong droppedMessages = new AtomicLong(0);
+    private final CountDownLatch terminated = new CountDownLatch(1);
     private final List<NodeEventListener> eventListeners = Collections.synchronizedList(new ArrayList<>());
     private volatile boolean active;
+    private volatile boolean draining;
+    private volatile boolean suspended;
+    private volatile boolean consoleOutput = true;
+    private volatile Thread runnerThread;
+    private volatile long discardedMessages;
     private volatile long lastUpdateTime;
     private volatile NodeState state = NodeState.IDLE;
+    private volatile LongSupplier clock = System::currentTimeMillis;
+    private volatile MessageForwarder forwarder;
+    private volatile LatencyHistogram[] deliveryLatencies = new LatencyHistogram[0];
+    private volatile MessageHandler[] messageHandlers = new MessageHandler[MessageType.values().length];
+    private volatile LongAdder queueDepth;
+    // Only touched by the thread consuming the mailbox, between the start and the end of one consume.
+    private int batchEntriesBeyondEnvelope;
 
     public Node(String nodeId) {
+        this(nodeId, new FifoMailbox());
+    }
+
+    public Node(String nodeId, Mailbox mailbox) {
         this.nodeId = Objects.requireNonNull(nodeId, "Node ID cannot be null");
+        this.mailbox = Objects.requireNonNull(mailbox, "Mailbox cannot be null");
         this.active = true;
-        this.lastUpdateTime = System.currentTimeMillis();
+        this.lastUpdateTime = clock.getAsLong();
     }
 
     @Override
     public void run() {
-        if (!running.compareAndSet(false, true)) {
+        if (!begin()) {
             return;
         }
 
+        runnerThread = Thread.currentThread();
         try {
-            notifyListeners(NodeEvent.STARTED);
-            setState(NodeState.RUNNING);
-
             while (active && !Thread.currentThread().isInterrupted()) {
                 try {
+                    if (suspended) {
+                        LockSupport.parkNanos(this, SUSPENDED_PARK_NANOS);
+                        continue;
+                    }
                     processMessages();
                     performNodeOperations();
                     updateNodeState();
-                    Thread.sleep(10);
+                    if (draining && mailbox.isEmpty()) {
+                        active = false;
+                    }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -51,52 +91,175 @@ public class Node implements Runnable {
                 }
             }
         } finally {
-            cleanup();
-            running.set(false);
-            setState(NodeState.STOPPED);
-            notifyListeners(NodeEvent.STOPPED);
+            runnerThread = null;
+            terminate();
         }
     }
 
+    /**
+     * Starts the node without a thread of its own; an external scheduler then drives it through
+     * {@link #step(int)} and ends it with {@link #stopStepping()}.
+     */
+    public boolean startStepping() {
+        return begin();
+    }
+
+    /**
+     * Handles up to {@code maxMessages} messages that are already queued, without blocking, followed by the
+     * node's periodic work. Returns how many messages were handled, counting each entry of a batch envelope.
+     */
+    public int step(int maxMessages) {
+        if (!active || !running.get() || suspended) {
+            return 0;
+        }
+        int processed = 0;
+        try {
+            Message message;
+            while (processed < maxMessages && active && (message = mailbox.poll()) != null) {
+                processed += consume(message);
+            }
+            performNodeOperations();
+            updateNodeState();
+        } catch (Exception e) {
+            handleException(e);
+        }
+        return processed;
+    }
+
+    public void stopStepping() {
+        active = false;
+        if (running.get() && runnerThread == null) {
+            terminate();
+        }
+    }
+
+    private boolean begin() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        notifyListeners(NodeEvent.STARTED);
+        setState(NodeState.RUNNING);
+        return true;
+    }
+
+    private void terminate() {
+        cleanup();
+        running.set(false);
+        setState(NodeState.STOPPED);
+        notifyListeners(NodeEvent.STOPPED);
+        terminated.countDown();
+    }
+
     private void processMessages() throws InterruptedException {
-        Message message = messageQueue.poll(50, TimeUnit.MILLISECONDS);
-        if (message != null) {
-            handleMessage(message);
-            processedMessages.incrementAndGet();
+        Message message = mailbox.poll(50, TimeUnit.MILLISECONDS);
+        int processed = 0;
+        while (message != null) {
+            processed += consume(message);
+            if (processed >= MAX_MESSAGES_PER_WAKEUP || !active) {
+                break;
+            }
+            message = mailbox.poll();
+        }
+    }
+
+    // Returns how many messages the envelope stood for: one, or the entries of a batch unpacked here.
+    private int consume(Message message) {
+        LongAdder depth = queueDepth;
+        if (depth != null) {
+            depth.decrement();
+        }
+        if (discardIfExpired(message)) {
+            return 1;
+        }
+        batchEntriesBeyondEnvelope = 0;
+        LatencyHistogram[] latencies = deliveryLatencies;
+        boolean delivered = latencies.length > 0 && !shouldForward(message) && !unpacksHere(message);
+        dispatchMessage(message);
+        if (delivered) {
+            recordDeliveryLatency(latencies, message.getAgeNanos());
         }
+        processedMessages.incrementAndGet();
+        if (draining) {
+            drainedMessages.incrementAndGet();
+        }
+        return 1 + batchEntriesBeyondEnvelope;
     }
 
     private void handleMessage(Message message) {
+        if (shouldForward(message)) {
+            forwarder.forward(this, message);
+            return;
+        }
+
+        MessageHandler customHandler = messageHandlers[message.getType().ordinal()];
+        if (customHandler != null) {
+            customHandler.handle(this, message);
+            return;
+        }
+
         switch (message.getType()) {
             case DATA -> processDataMessage(message);
             case CONTROL -> processControlMessage(message);
             case HEARTBEAT -> processHeartbeatMessage(message);
             case TOPOLOGY_UPDATE -> processTopologyUpdate(message);
+            case BATCH -> processBatch(message);
             default -> handleUnknownMessage(message);
         }
     }
 
+    private void dispatchMessage(Message message) {
+        MailboxDequeueEvent event = new MailboxDequeueEvent();
+        event.begin();
+        MessageTrace trace = message.getTrace();
+        if (trace == null) {
+            handleMessage(message);
+        } else {
+            handleTracedMessage(message, trace);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodeId = nodeId;
+            event.messageType = message.getType().name();
+            event.queueDepth = mailbox.size();
+            event.commit();
+        }
+    }
+
+    private void handleTracedMessage(Message message, MessageTrace trace) {
+        MessageTrace.OpenHop hop = trace.onDequeue(nodeId);
+        boolean delivered = !shouldForward(message);
+        handleMessage(message);
+        trace.onHandled(hop, message, delivered);
+    }
+
+    private boolean shouldForward(Message message) {
+        return forwarder != null && message.getReceiverId() != null && !nodeId.equals(message.getReceiverId());
+    }
+
     protected void performNodeOperations() {
-        if (System.currentTimeMillis() - lastUpdateTime > 5000) {
+        if (clock.getAsLong() - lastUpdateTime > 5000) {
             sendHeartbeatToNeighbors();
-            lastUpdateTime = System.currentTimeMillis();
+            lastUpdateTime = clock.getAsLong();
         }
     }
 
     private void updateNodeState() {
-        lastUpdateTime = System.currentTimeMillis();
-        setState(messageQueue.size() > 100 ? NodeState.BUSY : 
-                messageQueue.isEmpty() ? NodeState.IDLE : state);
+        lastUpdateTime = clock.getAsLong();
+        setState(mailbox.size() > 100 ? NodeState.BUSY : 
+                mailbox.isEmpty() ? NodeState.IDLE : state);
     }
 
     public boolean sendMessage(Message message) {
         if (!active) {
+            recordDrop(message, "node inactive", 1);
             return false;
         }
 
         try {
-            System.out.println(this.nodeId + " envió a " + message.getReceiverId() + ": " + message.getPayload());
-            return messageQueue.offer(message, 1, TimeUnit.SECONDS);
+            if (consoleOutput) {
+                System.out.println(this.nodeId + " envió a " + message.getReceiverId() + ": " + message.getPayload());
+            }
+            return enqueue(message, 1, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return false;
@@ -144,12 +307,48 @@ public class Node implements Runnable {
     }
 
     private void sendHeartbeatToNeighbors() {
-        Message heartbeat = new Message(MessageType.HEARTBEAT, nodeId, "heartbeat", System.currentTimeMillis());
+        Message heartbeat = new Message(MessageType.HEARTBEAT, nodeId, "heartbeat", clock.getAsLong());
         broadcastMessage(heartbeat);
     }
 
+    // The envelope was already counted once by consume, so only the entries beyond it are added here.
+    private void processBatch(Message message) {
+        MessageBatch batch = (MessageBatch) message.getPayload();
+        LatencyHistogram[] latencies = deliveryLatencies;
+        int handled = 0;
+        for (Message batchedMessage : batch.messages()) {
+            if (discardIfExpired(batchedMessage)) {
+                continue;
+            }
+            boolean delivered = latencies.length > 0 && !shouldForward(batchedMessage);
+            MessageTrace trace = batchedMessage.getTrace();
+            if (trace == null) {
+                handleMessage(batchedMessage);
+            } else {
+                handleTracedMessage(batchedMessage, trace);
+            }
+            if (delivered) {
+                recordDeliveryLatency(latencies, batchedMessage.getAgeNanos());
+            }
+            handled++;
+        }
+        processedMessages.addAndGet(handled - 1);
+        if (draining) {
+            drainedMessages.addAndGet(handled - 1);
+        }
+        batchEntriesBeyondEnvelope += handled - 1;
+    }
+
+    // Batch envelopes unpacked by this node record latency for their entries instead of for themselves.
+    private boolean unpacksHere(Message message) {
+        return message.getType() == MessageType.BATCH
+                && messageHandlers[MessageType.BATCH.ordinal()] == null;
+    }
+
     private void processDataMessage(Message message) {
-        System.out.println(this.nodeId + " recibió de " + message.getSenderId() + ": " + message.getPayload());
+        if (consoleOutput) {
+            System.out.println(this.nodeId + " recibió de " + message.getSenderId() + ": " + message.getPayload());
+        }
         onDataMessageReceived(message);
     }
 
@@ -187,17 +386,16 @@ public class Node implements Runnable {
     }
 
     private void cleanup() {
-        messageProcessor.shutdown();
-        try {
-            if (!messageProcessor.awaitTermination(5, TimeUnit.SECONDS)) {
-                messageProcessor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            messageProcessor.shutdownNow();
-            Thread.currentThread().interrupt();
+        int discarded = mailbox.clear();
+        LongAdder depth = queueDepth;
+        if (depth != null) {
+            depth.add(-discarded);
         }
-
-        messageQueue.clear();
+        discardedMessages += discarded;
+        if (discarded > 0) {
+            recordDrop(null, "discarded at shutdown", discarded);
+        }
+        mailbox.close();
         neighbors.clear();
         eventListeners.clear();
     }
@@ -207,11 +405,42 @@ public class Node implements Runnable {
         notifyListeners(NodeEvent.SHUTDOWN_REQUESTED);
     }
 
+    public void drainAndShutdown() {
+        draining = true;
+        notifyListeners(NodeEvent.SHUTDOWN_REQUESTED);
+    }
+
     public void forceStop() {
         active = false;
-        if (running.get()) {
-            Thread.currentThread().interrupt();
+        Thread runner = runnerThread;
+        if (runner != null) {
+            runner.interrupt();
+        }
+    }
+
+    /**
+     * Stops handling messages without leaving the network: the mailbox keeps accepting and the node stops
+     * refreshing its update time until {@link #resume()}.
+     */
+    public void suspend() {
+        suspended = true;
+        setState(NodeState.PAUSED);
+    }
+
+    public void resume() {
+        suspended = false;
+        setState(NodeState.RUNNING);
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!running.get() && terminated.getCount() > 0) {
+            return true;
         }
+        return terminated.await(timeout, unit);
     }
 
     public void addEventListener(NodeEventListener listener) {
@@ -252,6 +481,13 @@ public class Node implements Runnable {
         NodeState oldState = this.state;
         this.state = newState;
         if (oldState != newState) {
+            NodeStateEvent event = new NodeStateEvent();
+            if (event.shouldCommit()) {
+                event.nodeId = nodeId;
+                event.previousState = oldState.name();
+                event.newState = newState.name();
+                event.commit();
+            }
             notifyListeners(NodeEvent.STATE_CHANGED);
         }
     }
@@ -260,8 +496,55 @@ public class Node implements Runnable {
         return processedMessages.get();
     }
 
+    public long getDrainedMessageCount() {
+        return drainedMessages.get();
+    }
+
+    public long getDiscardedMessageCount() {
+        return discardedMessages;
+    }
+
+    public long getExpiredMessageCount() {
+        long expired = 0;
+        for (int i = 0; i < expiredMessages.length(); i++) {
+            expired += expiredMessages.get(i);
+        }
+        return expired;
+    }
+
+    public long getExpiredMessageCount(MessageType type) {
+        return expiredMessages.get(type.ordinal());
+    }
+
+    /**
+     * Messages lost for any reason: rejected while inactive or by a full mailbox, expired, or discarded at
+     * shutdown.
+     */
+    public long getDroppedMessageCount() {
+        return droppedMessages.get();
+    }
+
     public int getQueueSize() {
-        return messageQueue.size();
+        return mailbox.size();
+    }
+
+    /**
+     * Makes this node add its backlog to a counter shared by the whole network, so the total is read in one
+     * step instead of by visiting every mailbox. Returns the counter already in use if the node is tracked,
+     * otherwise {@code counter} after adding the current queue size to it; messages that arrive or leave
+     * while the counter is being attached may be missed.
+     */
+    public synchronized LongAdder trackQueueDepth(LongAdder counter) {
+        if (queueDepth != null) {
+            return queueDepth;
+        }
+        queueDepth = counter;
+        counter.add(mailbox.size());
+        return counter;
+    }
+
+    public Mailbox getMailbox() {
+        return mailbox;
     }
 
     public long getLastUpdateTime() {
@@ -272,21 +555,150 @@ public class Node implements Runnable {
         return neighbors.size();
     }
 
-    public void receiveMessage(String message) {
+    public boolean receiveMessage(String message) {
+        Message msg = new Message(MessageType.DATA, "external", message);
         if (!active) {
-            return;
+            recordDrop(msg, "node inactive", 1);
+            return false;
         }
 
-        Message msg = new Message(MessageType.DATA, "external", message);
-
         try {
-            if (!messageQueue.offer(msg, 1, TimeUnit.SECONDS)) {
-                System.err.println("Failed to receive message: queue is full for node " + nodeId);
-            }
+            return enqueue(msg, 1, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("Interrupted while trying to receive message for node " + nodeId);
+            if (consoleOutput) {
+                System.err.println("Interrupted while trying to receive message for node " + nodeId);
+            }
+            return false;
+        }
+    }
+
+    public boolean receiveMessage(Message message) {
+        if (!active) {
+            recordDrop(message, "node inactive", 1);
+            return false;
         }
+        return enqueue(message);
+    }
+
+    /**
+     * Drops the message and counts it as expired if its deadline has passed.
+     */
+    public boolean discardIfExpired(Message message) {
+        if (!message.isExpired()) {
+            return false;
+        }
+        expiredMessages.incrementAndGet(message.getType().ordinal());
+        recordDrop(message, "expired", 1);
+        return true;
+    }
+
+    private boolean enqueue(Message message) {
+        traceEnqueue(message);
+        MailboxEnqueueEvent event = new MailboxEnqueueEvent();
+        event.begin();
+        return completeEnqueue(event, message, mailbox.offer(message));
+    }
+
+    private boolean enqueue(Message message, long timeout, TimeUnit unit) throws InterruptedException {
+        traceEnqueue(message);
+        MailboxEnqueueEvent event = new MailboxEnqueueEvent();
+        event.begin();
+        return completeEnqueue(event, message, mailbox.offer(message, timeout, unit));
+    }
+
+    private boolean completeEnqueue(MailboxEnqueueEvent event, Message message, boolean accepted) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodeId = nodeId;
+            event.messageType = message.getType().name();
+            event.queueDepth = mailbox.size();
+            event.accepted = accepted;
+            event.commit();
+        }
+        if (!accepted) {
+            recordDrop(message, "mailbox rejected", 1);
+        } else {
+            LongAdder depth = queueDepth;
+            if (depth != null) {
+                depth.increment();
+            }
+        }
+        return accepted;
+    }
+
+    private void recordDrop(Message message, String reason, long count) {
+        droppedMessages.addAndGet(count);
+        MessageDropEvent event = new MessageDropEvent();
+        if (event.shouldCommit()) {
+            event.nodeId = nodeId;
+            event.messageType = message == null ? null : message.getType().name();
+            event.reason = reason;
+            event.count = count;
+            event.commit();
+        }
+    }
+
+    private static void recordDeliveryLatency(LatencyHistogram[] latencies, long ageNanos) {
+        for (LatencyHistogram latency : latencies) {
+            latency.record(ageNanos);
+        }
+    }
+
+    private void traceEnqueue(Message message) {
+        MessageTrace trace = message.getTrace();
+        if (trace != null) {
+            trace.onEnqueue();
+        }
+        if (message.getPayload() instanceof MessageBatch batch) {
+            for (Message batchedMessage : batch.messages()) {
+                MessageTrace batchedTrace = batchedMessage.getTrace();
+                if (batchedTrace != null) {
+                    batchedTrace.onEnqueue();
+                }
+            }
+        }
+    }
+
+    public void setForwarder(MessageForwarder forwarder) {
+        this.forwarder = forwarder;
+    }
+
+    /**
+     * Replaces the millisecond clock used for heartbeats and {@link #getLastUpdateTime()}.
+     */
+    public void setClock(LongSupplier clock) {
+        this.clock = clock;
+        this.lastUpdateTime = clock.getAsLong();
+    }
+
+    /**
+     * Enables or disables the per-message lines printed on send and on DATA receipt.
+     */
+    public void setConsoleOutput(boolean consoleOutput) {
+        this.consoleOutput = consoleOutput;
+    }
+
+    /**
+     * Records into {@code histogram}, for every message handled here rather than forwarded, the time since
+     * the message was created.
+     */
+    public synchronized void addDeliveryLatencyHistogram(LatencyHistogram histogram) {
+        LatencyHistogram[] updated = Arrays.copyOf(deliveryLatencies, deliveryLatencies.length + 1);
+        updated[updated.length - 1] = histogram;
+        deliveryLatencies = updated;
+    }
+
+    public synchronized void removeDeliveryLatencyHistogram(LatencyHistogram histogram) {
+        deliveryLatencies = Arrays.stream(deliveryLatencies)
+                .filter(registered -> registered != histogram)
+                .toArray(LatencyHistogram[]::new);
+    }
+
+    public void setMessageHandler(MessageType type, MessageHandler handler) {
+        MessageHandler[] updated = messageHandlers.clone();
+        updated[type.ordinal()] = handler;
+        messageHandlers = updated;
     }
 
     @Override
@@ -305,11 +717,21 @@ public class Node implements Runnable {
     @Override
     public String toString() {
         return String.format("Node{id='%s', state=%s, neighbors=%d, queue=%d}", 
-                nodeId, state, neighbors.size(), messageQueue.size());
+                nodeId, state, getNeighborCount(), mailbox.size());
     }
 
     @FunctionalInterface
     public interface NodeEventListener {
         void onNodeEvent(Node node, NodeEvent event);
     }
+
+    @FunctionalInterface
+    public interface MessageForwarder {
+        void forward(Node currentNode, Message message);
+    }
+
+    @FunctionalInterface
+    public interface MessageHandler {
+        void handle(Node node, Message message);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package org.sakidoa.core;
+
+import org.sakidoa.core.deterministic.DeterministicScheduler;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The optional machinery of a topology that routes through a {@link MessageRouter}: deterministic
+ * scheduling, fault injection, request-reply and ingress. The topology attaches its nodes and router once
+ * configured and forwards the matching calls here.
+ */
+public class RouterFeatures {
+    private List<Node> nodes;
+    private MessageRouter router;
+    private DeterministicScheduler scheduler;
+    private FaultInjector faultInjector;
+    private RequestReply requestReply;
+
+    public void attach(List<Node> nodes, MessageRouter router) {
+        this.nodes = nodes;
+        this.router = router;
+    }
+
+    public DeterministicScheduler enableDeterministicMode(long seed) {
+        validateAttached();
+        this.scheduler = new DeterministicScheduler(nodes, seed);
+        return scheduler;
+    }
+
+    /**
+     * Returns the deterministic scheduler, or null while the topology runs on wall-clock threads.
+     */
+    public DeterministicScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public FaultInjector enableFaultInjection() {
+        return enableFaultInjection(() -> Adjacency.of(nodes));
+    }
+
+    /**
+     * Enables fault injection, detouring over the adjacency the topology supplies instead of one rebuilt
+     * from the nodes' neighbour sets.
+     */
+    public FaultInjector enableFaultInjection(Supplier<int[][]> adjacency) {
+        validateAttached();
+        this.faultInjector = new FaultInjector(nodes, adjacency.get(), FaultInjector.DEFAULT_SUSPICION_TIMEOUT);
+        router.setFaultInjector(faultInjector);
+        return faultInjector;
+    }
+
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    public RequestReply enableRequestReply(RequestHandler handler) {
+        validateAttached();
+        this.requestReply = new RequestReply(router, nodes, handler);
+        return requestReply;
+    }
+
+    public RequestReply getRequestReply() {
+        return requestReply;
+    }
+
+    public IngressSubscriber ingressSubscriber(BooleanSupplier running, int maxQueuedMessages) {
+        validateAttached();
+        return IngressSubscriber.routed(router, nodes, running, this::getScheduler, maxQueuedMessages);
+    }
+
+    public void shutdownScheduler(boolean drainInFlight) {
+        if (scheduler != null) {
+            scheduler.shutdown(drainInFlight);
+        }
+    }
+
+    public void closeFaultInjector() {
+        if (faultInjector != null) {
+            faultInjector.close();
+        }
+    }
+
+    private void validateAttached() {
+        if (nodes == null) {
+            throw new IllegalStateException("Network not configured");
+        }
+    }
+}
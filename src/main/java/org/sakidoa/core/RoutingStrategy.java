@@ -0,0 +1,8 @@
+package org.sakidoa.core;
+
+@FunctionalInterface
+public interface RoutingStrategy {
+    RoutingStrategy DIRECT = (currentNode, destinationNode) -> destinationNode;
+
+    int nextHop(int currentNode, int destinationNode);
+}
@@ -0,0 +1,12 @@
+package org.sakidoa.core;
+
+import java.time.Duration;
+import java.util.List;
+
+public record ShutdownReport(long messagesDrained, long messagesDiscarded, List<String> stragglers,
+                             Duration elapsed) {
+
+    public boolean isClean() {
+        return stragglers.isEmpty();
+    }
+}
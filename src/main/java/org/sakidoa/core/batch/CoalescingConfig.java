@@ -0,0 +1,16 @@
+package org.sakidoa.core.batch;
+
+import java.time.Duration;
+
+public record CoalescingConfig(int maxBatchSize, Duration flushDelay) {
+    public static final CoalescingConfig DEFAULT = new CoalescingConfig(32, Duration.ofMillis(1));
+
+    public CoalescingConfig {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be at least 1");
+        }
+        if (flushDelay.isNegative() || flushDelay.isZero()) {
+            throw new IllegalArgumentException("Flush delay must be positive");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.sakidoa.core.batch;
+
+public record CoalescingMetrics(long submittedMessages, long deliveredMessages, long deliveredEnvelopes,
+                                long sizeFlushes, long timerFlushes, long rejectedMessages, int pendingMessages) {
+
+    public double averageBatchSize() {
+        return deliveredEnvelopes == 0 ? 0.0 : (double) deliveredMessages / deliveredEnvelopes;
+    }
+}
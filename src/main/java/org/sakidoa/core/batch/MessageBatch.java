@@ -0,0 +1,37 @@
+package org.sakidoa.core.batch;
+
+import org.sakidoa.core.Message;
+
+import java.util.List;
+
+/**
+ * Envelope for messages coalesced on the same hop. Each entry is framed with a small length/type prefix
+ * instead of a full message header.
+ */
+public record MessageBatch(List<Message> messages) {
+    public static final int ENTRY_OVERHEAD_BYTES = 8;
+
+    public MessageBatch {
+        messages = List.copyOf(messages);
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    public int payloadBytes() {
+        int bytes = 0;
+        for (Message message : messages) {
+            Object payload = message.getPayload();
+            int payloadBytes = payload instanceof byte[] array ? array.length
+                    : payload == null ? 0 : payload.toString().length();
+            bytes += ENTRY_OVERHEAD_BYTES + payloadBytes;
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "MessageBatch[" + messages.size() + " messages]";
+    }
+}
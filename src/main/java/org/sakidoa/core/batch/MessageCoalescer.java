@@ -0,0 +1,173 @@
+package org.sakidoa.core.batch;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.MessageType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Nagle-style coalescing per (sender, next hop). Messages accumulate until the batch reaches
+ * {@link CoalescingConfig#maxBatchSize()} or the first message in it has waited for the flush delay, and
+ * are then delivered as a single {@link MessageType#BATCH} envelope. Batches are delivered while holding
+ * the hop's lock, so per-hop FIFO order is preserved.
+ */
+public class MessageCoalescer implements AutoCloseable {
+    private final CoalescingConfig config;
+    private final HopDelivery delivery;
+    private final Map<Hop, PendingBatch> batches = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushScheduler;
+    private volatile BiConsumer<Runnable, Duration> timer = this::scheduleOnOwnThread;
+    private final LongAdder submittedMessages = new LongAdder();
+    private final LongAdder deliveredMessages = new LongAdder();
+    private final LongAdder deliveredEnvelopes = new LongAdder();
+    private final LongAdder sizeFlushes = new LongAdder();
+    private final LongAdder timerFlushes = new LongAdder();
+    private final LongAdder rejectedMessages = new LongAdder();
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+
+    public MessageCoalescer(CoalescingConfig config) {
+        this(config, (from, to, message) -> to.receiveMessage(message));
+    }
+
+    public MessageCoalescer(CoalescingConfig config, HopDelivery delivery) {
+        this.config = config;
+        this.delivery = delivery;
+    }
+
+    /**
+     * Runs the flush timers through {@code timer}, such as a hosted topology's schedule, instead of a
+     * thread of the coalescer's own.
+     */
+    public void setTimer(BiConsumer<Runnable, Duration> timer) {
+        this.timer = timer;
+    }
+
+    public void submit(Node from, Node nextHop, Message message) {
+        submittedMessages.increment();
+        pendingMessages.incrementAndGet();
+        PendingBatch batch = batches.computeIfAbsent(new Hop(from, nextHop), PendingBatch::new);
+        boolean scheduleFlush;
+        long generation;
+        synchronized (batch) {
+            batch.messages.add(message);
+            if (batch.messages.size() >= config.maxBatchSize()) {
+                sizeFlushes.increment();
+                batch.flush();
+                return;
+            }
+            scheduleFlush = batch.messages.size() == 1;
+            generation = batch.generation;
+        }
+        if (scheduleFlush) {
+            timer.accept(() -> flushOnTimer(batch, generation), config.flushDelay());
+        }
+    }
+
+    public void flushAll() {
+        for (PendingBatch batch : batches.values()) {
+            synchronized (batch) {
+                batch.flush();
+            }
+        }
+    }
+
+    public CoalescingConfig getConfig() {
+        return config;
+    }
+
+    public CoalescingMetrics getMetrics() {
+        return new CoalescingMetrics(submittedMessages.sum(), deliveredMessages.sum(), deliveredEnvelopes.sum(),
+                sizeFlushes.sum(), timerFlushes.sum(), rejectedMessages.sum(), pendingMessages.get());
+    }
+
+    /**
+     * Messages submitted but still waiting in a batch for their flush.
+     */
+    public int getPendingMessageCount() {
+        return pendingMessages.get();
+    }
+
+    @Override
+    public void close() {
+        flushAll();
+        synchronized (this) {
+            if (flushScheduler != null) {
+                flushScheduler.shutdownNow();
+            }
+        }
+    }
+
+    private synchronized void scheduleOnOwnThread(Runnable task, Duration delay) {
+        if (flushScheduler == null) {
+            flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "message-coalescer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        flushScheduler.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void flushOnTimer(PendingBatch batch, long generation) {
+        synchronized (batch) {
+            if (batch.generation == generation && !batch.messages.isEmpty()) {
+                timerFlushes.increment();
+                batch.flush();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface HopDelivery {
+        boolean deliver(Node from, Node nextHop, Message envelope);
+    }
+
+    private record Hop(Node from, Node to) {
+    }
+
+    private final class PendingBatch {
+        private final Hop hop;
+        private List<Message> messages;
+        private long generation;
+
+        private PendingBatch(Hop hop) {
+            this.hop = hop;
+            this.messages = new ArrayList<>(config.maxBatchSize());
+        }
+
+        private void flush() {
+            if (messages.isEmpty()) {
+                return;
+            }
+            List<Message> ready = messages;
+            messages = new ArrayList<>(config.maxBatchSize());
+            generation++;
+            pendingMessages.addAndGet(-ready.size());
+
+            Message envelope = ready.size() == 1 ? ready.get(0) : createEnvelope(ready);
+            if (delivery.deliver(hop.from(), hop.to(), envelope)) {
+                deliveredMessages.add(ready.size());
+                deliveredEnvelopes.increment();
+            } else {
+                rejectedMessages.add(ready.size());
+            }
+        }
+
+        private Message createEnvelope(List<Message> ready) {
+            Message envelope = new Message(MessageType.BATCH, hop.from().getNodeId(), new MessageBatch(ready));
+            envelope.setReceiverId(hop.to().getNodeId());
+            return envelope;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.sakidoa.core.collective;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Topology agnostic collectives: binomial trees over ranks relative to the root for reduce, broadcast,
+ * gather and scatter, and a pairwise exchange of n - 1 rounds for all-to-all, which maps one-to-one onto
+ * the links of a full mesh. Subclasses override the rank mapping or individual plans to follow their links.
+ */
+public class BinomialCollectiveAlgorithm implements CollectiveAlgorithm {
+
+    @Override
+    public CollectivePlan reduce(int nodeCount, int root, int length) {
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, length);
+        appendReduce(plan, nodeCount, root, length);
+        return plan.build();
+    }
+
+    @Override
+    public CollectivePlan allReduce(int nodeCount, int length) {
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, length);
+        appendReduce(plan, nodeCount, 0, length);
+        appendBroadcast(plan, nodeCount, 0, length);
+        return plan.build();
+    }
+
+    @Override
+    public CollectivePlan gather(int nodeCount, int root, int blockLength) {
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, nodeCount * blockLength);
+        for (int node = 0; node < nodeCount; node++) {
+            int rank = rankOf(node, root, nodeCount);
+            for (int mask = 1; mask < nodeCount; mask <<= 1) {
+                if ((rank & mask) != 0) {
+                    int parent = nodeOf(rank - mask, root, nodeCount);
+                    int subtreeSize = Math.min(mask, nodeCount - rank);
+                    plan.add(node, CollectiveStep.send(List.of(
+                            rankRangeTransfer(parent, rank, subtreeSize, root, nodeCount, blockLength))));
+                    break;
+                }
+                if (rank + mask < nodeCount) {
+                    plan.add(node, CollectiveStep.receive(false, nodeOf(rank + mask, root, nodeCount)));
+                }
+            }
+        }
+        return plan.build();
+    }
+
+    @Override
+    public CollectivePlan scatter(int nodeCount, int root, int blockLength) {
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, nodeCount * blockLength);
+        for (int node = 0; node < nodeCount; node++) {
+            int rank = rankOf(node, root, nodeCount);
+            if (rank != 0) {
+                plan.add(node, CollectiveStep.receive(false, nodeOf(rank - Integer.lowestOneBit(rank), root, nodeCount)));
+            }
+
+            List<Transfer> sends = new ArrayList<>();
+            for (int mask = childMaskLimit(rank, nodeCount) >>> 1; mask > 0; mask >>>= 1) {
+                int child = rank + mask;
+                if (child < nodeCount) {
+                    int subtreeSize = Math.min(mask, nodeCount - child);
+                    sends.add(rankRangeTransfer(nodeOf(child, root, nodeCount), child, subtreeSize, root,
+                            nodeCount, blockLength));
+                }
+            }
+            if (!sends.isEmpty()) {
+                plan.add(node, CollectiveStep.send(sends));
+            }
+        }
+        return plan.build();
+    }
+
+    @Override
+    public CollectivePlan allToAll(int nodeCount, int blockLength) {
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, nodeCount * blockLength);
+        for (int node = 0; node < nodeCount; node++) {
+            for (int round = 1; round < nodeCount; round++) {
+                int sendPeer = (node + round) % nodeCount;
+                int receivePeer = (node - round + nodeCount) % nodeCount;
+                Transfer transfer = Transfer.of(sendPeer,
+                        new Segment(sendPeer * blockLength, node * blockLength, blockLength));
+                plan.add(node, new CollectiveStep(List.of(transfer), new int[]{receivePeer}, false));
+            }
+        }
+        return plan.build();
+    }
+
+    protected int rankOf(int node, int root, int nodeCount) {
+        return (node - root + nodeCount) % nodeCount;
+    }
+
+    protected int nodeOf(int rank, int root, int nodeCount) {
+        return (rank + root) % nodeCount;
+    }
+
+    protected void appendReduce(CollectivePlan.Builder plan, int nodeCount, int root, int length) {
+        for (int node = 0; node < nodeCount; node++) {
+            int rank = rankOf(node, root, nodeCount);
+            for (int mask = 1; mask < nodeCount; mask <<= 1) {
+                if ((rank & mask) != 0) {
+                    Transfer transfer = Transfer.of(nodeOf(rank - mask, root, nodeCount), Segment.aligned(0, length));
+                    plan.add(node, CollectiveStep.send(List.of(transfer)));
+                    break;
+                }
+                if (rank + mask < nodeCount) {
+                    plan.add(node, CollectiveStep.receive(true, nodeOf(rank + mask, root, nodeCount)));
+                }
+            }
+        }
+    }
+
+    protected void appendBroadcast(CollectivePlan.Builder plan, int nodeCount, int root, int length) {
+        for (int node = 0; node < nodeCount; node++) {
+            int rank = rankOf(node, root, nodeCount);
+            if (rank != 0) {
+                plan.add(node, CollectiveStep.receive(false, nodeOf(rank - Integer.lowestOneBit(rank), root, nodeCount)));
+            }
+
+            List<Transfer> sends = new ArrayList<>();
+            for (int mask = childMaskLimit(rank, nodeCount) >>> 1; mask > 0; mask >>>= 1) {
+                if (rank + mask < nodeCount) {
+                    sends.add(Transfer.of(nodeOf(rank + mask, root, nodeCount), Segment.aligned(0, length)));
+                }
+            }
+            if (!sends.isEmpty()) {
+                plan.add(node, CollectiveStep.send(sends));
+            }
+        }
+    }
+
+    private int childMaskLimit(int rank, int nodeCount) {
+        return rank == 0 ? Integer.highestOneBit(nodeCount - 1) << 1 : Integer.lowestOneBit(rank);
+    }
+
+    private Transfer rankRangeTransfer(int peer, int firstRank, int rankCount, int root, int nodeCount,
+                                       int blockLength) {
+        List<Segment> segments = new ArrayList<>();
+        int segmentStart = -1;
+        int segmentEnd = -1;
+        for (int rank = firstRank; rank < firstRank + rankCount; rank++) {
+            int node = nodeOf(rank, root, nodeCount);
+            if (node != segmentEnd) {
+                if (segmentStart >= 0) {
+                    segments.add(blockSegment(segmentStart, segmentEnd, blockLength));
+                }
+                segmentStart = node;
+            }
+            segmentEnd = node + 1;
+        }
+        segments.add(blockSegment(segmentStart, segmentEnd, blockLength));
+        return new Transfer(peer, segments);
+    }
+
+    private Segment blockSegment(int firstNode, int endNode, int blockLength) {
+        return Segment.aligned(firstNode * blockLength, (endNode - firstNode) * blockLength);
+    }
+}
@@ -0,0 +1,18 @@
+package org.sakidoa.core.collective;
+
+/**
+ * Builds per-node step programs for each collective. Reduce style plans work on a single buffer of
+ * {@code length} elements; gather, scatter and all-to-all plans lay out one block per node at
+ * {@code node * blockLength}.
+ */
+public interface CollectiveAlgorithm {
+    CollectivePlan reduce(int nodeCount, int root, int length);
+
+    CollectivePlan allReduce(int nodeCount, int length);
+
+    CollectivePlan gather(int nodeCount, int root, int blockLength);
+
+    CollectivePlan scatter(int nodeCount, int root, int blockLength);
+
+    CollectivePlan allToAll(int nodeCount, int blockLength);
+}
@@ -0,0 +1,12 @@
+package org.sakidoa.core.collective;
+
+record CollectiveChunk(long operationId, int source, int[] targetOffsets, int[] lengths, long[] data) {
+
+    static CollectiveChunk start(long operationId, int node) {
+        return new CollectiveChunk(operationId, node, null, null, null);
+    }
+
+    boolean isStart() {
+        return data == null;
+    }
+}
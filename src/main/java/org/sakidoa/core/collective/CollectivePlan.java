@@ -0,0 +1,56 @@
+package org.sakidoa.core.collective;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CollectivePlan {
+    private final int bufferLength;
+    private final List<List<CollectiveStep>> steps;
+
+    private CollectivePlan(int bufferLength, List<List<CollectiveStep>> steps) {
+        this.bufferLength = bufferLength;
+        this.steps = steps;
+    }
+
+    public static Builder builder(int nodeCount, int bufferLength) {
+        return new Builder(nodeCount, bufferLength);
+    }
+
+    public int getBufferLength() {
+        return bufferLength;
+    }
+
+    public int getNodeCount() {
+        return steps.size();
+    }
+
+    public List<CollectiveStep> getSteps(int node) {
+        return steps.get(node);
+    }
+
+    public int getRoundCount() {
+        return steps.stream().mapToInt(List::size).max().orElse(0);
+    }
+
+    public static class Builder {
+        private final int bufferLength;
+        private final List<List<CollectiveStep>> steps;
+
+        private Builder(int nodeCount, int bufferLength) {
+            this.bufferLength = bufferLength;
+            this.steps = new ArrayList<>(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                steps.add(new ArrayList<>());
+            }
+        }
+
+        public Builder add(int node, CollectiveStep step) {
+            steps.get(node).add(step);
+            return this;
+        }
+
+        public CollectivePlan build() {
+            return new CollectivePlan(bufferLength, steps.stream().map(List::copyOf).toList());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.sakidoa.core.collective;
+
+import java.util.List;
+
+/**
+ * One round of a node's collective program: the sends are issued first, then the step completes once one
+ * chunk from every peer in {@code receiveFrom} has arrived, reducing or copying it into the node's buffer.
+ */
+public record CollectiveStep(List<Transfer> sends, int[] receiveFrom, boolean reduce) {
+    private static final int[] NO_PEERS = new int[0];
+
+    public CollectiveStep {
+        sends = List.copyOf(sends);
+        receiveFrom = receiveFrom.clone();
+    }
+
+    public static CollectiveStep send(List<Transfer> transfers) {
+        return new CollectiveStep(transfers, NO_PEERS, false);
+    }
+
+    public static CollectiveStep receive(boolean reduce, int... peers) {
+        return new CollectiveStep(List.of(), peers, reduce);
+    }
+
+    public static CollectiveStep exchange(Transfer transfer, int peer, boolean reduce) {
+        return new CollectiveStep(List.of(transfer), new int[]{peer}, reduce);
+    }
+}
@@ -0,0 +1,318 @@
+package org.sakidoa.core.collective;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.MessageType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Runs collective operations over a fixed, index addressed set of nodes. Each operation is compiled by the
+ * topology's {@link CollectiveAlgorithm} into per-node step programs that execute on the nodes' own threads
+ * and exchange {@link MessageType#COLLECTIVE} messages; the returned future completes once every node has
+ * finished its program. An operation that has not finished within the operation deadline, for example because a
+ * node died holding a chunk, fails with a {@link java.util.concurrent.TimeoutException} and is forgotten.
+ */
+public class Collectives {
+    private static final Duration DEFAULT_OPERATION_DEADLINE = Duration.ofSeconds(30);
+
+    private final List<Node> nodes;
+    private final CollectiveAlgorithm algorithm;
+    private final Map<Long, Operation> operations = new ConcurrentHashMap<>();
+    private final AtomicLong nextOperationId = new AtomicLong();
+    private volatile Duration operationDeadline = DEFAULT_OPERATION_DEADLINE;
+
+    public Collectives(List<Node> nodes, CollectiveAlgorithm algorithm) {
+        this.nodes = List.copyOf(nodes);
+        this.algorithm = algorithm;
+        installHandlers();
+    }
+
+    public CompletableFuture<long[]> reduce(int root, long[][] inputs, LongBinaryOperator reducer) {
+        validateRoot(root);
+        int length = validateUniformLength(inputs, nodes.size());
+        long[][] buffers = copyOf(inputs);
+        return execute(algorithm.reduce(nodes.size(), root, length), buffers, buffers, reducer)
+                .thenApply(results -> results[root]);
+    }
+
+    public CompletableFuture<long[][]> allReduce(long[][] inputs, LongBinaryOperator reducer) {
+        int length = validateUniformLength(inputs, nodes.size());
+        long[][] buffers = copyOf(inputs);
+        return execute(algorithm.allReduce(nodes.size(), length), buffers, buffers, reducer);
+    }
+
+    public CompletableFuture<long[][]> gather(int root, long[][] blocks) {
+        validateRoot(root);
+        int nodeCount = nodes.size();
+        int blockLength = validateUniformLength(blocks, nodeCount);
+        long[][] buffers = new long[nodeCount][nodeCount * blockLength];
+        for (int node = 0; node < nodeCount; node++) {
+            System.arraycopy(blocks[node], 0, buffers[node], node * blockLength, blockLength);
+        }
+        return execute(algorithm.gather(nodeCount, root, blockLength), buffers, buffers, null)
+                .thenApply(results -> split(results[root], nodeCount, blockLength));
+    }
+
+    public CompletableFuture<long[][]> scatter(int root, long[][] blocks) {
+        validateRoot(root);
+        int nodeCount = nodes.size();
+        int blockLength = validateUniformLength(blocks, nodeCount);
+        long[][] buffers = new long[nodeCount][nodeCount * blockLength];
+        for (int node = 0; node < nodeCount; node++) {
+            System.arraycopy(blocks[node], 0, buffers[root], node * blockLength, blockLength);
+        }
+        return execute(algorithm.scatter(nodeCount, root, blockLength), buffers, buffers, null)
+                .thenApply(results -> {
+                    long[][] received = new long[nodeCount][];
+                    for (int node = 0; node < nodeCount; node++) {
+                        received[node] = split(results[node], nodeCount, blockLength)[node];
+                    }
+                    return received;
+                });
+    }
+
+    public CompletableFuture<long[][][]> allToAll(long[][][] blocks) {
+        int nodeCount = nodes.size();
+        if (blocks.length != nodeCount) {
+            throw new IllegalArgumentException("Expected blocks for " + nodeCount + " nodes");
+        }
+        int blockLength = validateUniformLength(blocks[0], nodeCount);
+        long[][] sendBuffers = new long[nodeCount][nodeCount * blockLength];
+        long[][] receiveBuffers = new long[nodeCount][nodeCount * blockLength];
+        for (int node = 0; node < nodeCount; node++) {
+            if (validateUniformLength(blocks[node], nodeCount) != blockLength) {
+                throw new IllegalArgumentException("All blocks must have the same length");
+            }
+            for (int peer = 0; peer < nodeCount; peer++) {
+                System.arraycopy(blocks[node][peer], 0, sendBuffers[node], peer * blockLength, blockLength);
+            }
+            System.arraycopy(blocks[node][node], 0, receiveBuffers[node], node * blockLength, blockLength);
+        }
+        return execute(algorithm.allToAll(nodeCount, blockLength), sendBuffers, receiveBuffers, null)
+                .thenApply(results -> {
+                    long[][][] received = new long[nodeCount][][];
+                    for (int node = 0; node < nodeCount; node++) {
+                        received[node] = split(results[node], nodeCount, blockLength);
+                    }
+                    return received;
+                });
+    }
+
+    public void setOperationDeadline(Duration operationDeadline) {
+        this.operationDeadline = operationDeadline;
+    }
+
+    public Duration getOperationDeadline() {
+        return operationDeadline;
+    }
+
+    public CollectiveAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getPendingOperationCount() {
+        return operations.size();
+    }
+
+    private CompletableFuture<long[][]> execute(CollectivePlan plan, long[][] sendBuffers, long[][] receiveBuffers,
+                                                LongBinaryOperator reducer) {
+        long operationId = nextOperationId.getAndIncrement();
+        Operation operation = new Operation(plan, sendBuffers, receiveBuffers, reducer);
+        operations.put(operationId, operation);
+        operation.future.orTimeout(operationDeadline.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((results, error) -> operations.remove(operationId));
+
+        for (int node = 0; node < nodes.size(); node++) {
+            deliver(operation, node, node, CollectiveChunk.start(operationId, node));
+        }
+        return operation.future;
+    }
+
+    private void installHandlers() {
+        for (int i = 0; i < nodes.size(); i++) {
+            int index = i;
+            nodes.get(i).setMessageHandler(MessageType.COLLECTIVE, (node, message) -> onChunk(index, message));
+        }
+    }
+
+    private void onChunk(int index, Message message) {
+        CollectiveChunk chunk = (CollectiveChunk) message.getPayload();
+        Operation operation = operations.get(chunk.operationId());
+        if (operation == null) {
+            return;
+        }
+
+        NodeProgress progress = operation.progress[index];
+        if (chunk.isStart()) {
+            progress.step = 0;
+        } else {
+            progress.arrived.computeIfAbsent(chunk.source(), peer -> new ArrayDeque<>()).add(chunk);
+        }
+        advance(operation, index, chunk.operationId());
+    }
+
+    private void advance(Operation operation, int index, long operationId) {
+        NodeProgress progress = operation.progress[index];
+        if (progress.step < 0) {
+            return;
+        }
+
+        List<CollectiveStep> steps = operation.plan.getSteps(index);
+        while (progress.step < steps.size()) {
+            CollectiveStep step = steps.get(progress.step);
+            if (!progress.sent) {
+                for (Transfer transfer : step.sends()) {
+                    send(operation, operationId, index, transfer);
+                }
+                progress.sent = true;
+            }
+            if (!progress.hasChunksFrom(step.receiveFrom())) {
+                return;
+            }
+            for (int peer : step.receiveFrom()) {
+                apply(operation, index, progress.arrived.get(peer).poll(), step.reduce());
+            }
+            progress.step++;
+            progress.sent = false;
+        }
+
+        if (progress.step == steps.size()) {
+            progress.step++;
+            if (operation.remainingNodes.decrementAndGet() == 0) {
+                operations.remove(operationId);
+                operation.future.complete(operation.receiveBuffers);
+            }
+        }
+    }
+
+    private void send(Operation operation, long operationId, int index, Transfer transfer) {
+        List<Segment> segments = transfer.segments();
+        int[] targetOffsets = new int[segments.size()];
+        int[] lengths = new int[segments.size()];
+        long[] data = new long[transfer.length()];
+        long[] source = operation.sendBuffers[index];
+        int position = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            System.arraycopy(source, segment.sourceOffset(), data, position, segment.length());
+            targetOffsets[i] = segment.targetOffset();
+            lengths[i] = segment.length();
+            position += segment.length();
+        }
+        deliver(operation, index, transfer.peer(), new CollectiveChunk(operationId, index, targetOffsets, lengths, data));
+    }
+
+    private void deliver(Operation operation, int from, int to, CollectiveChunk chunk) {
+        Node receiver = nodes.get(to);
+        Message message = new Message(MessageType.COLLECTIVE, nodes.get(from).getNodeId(), chunk);
+        message.setReceiverId(receiver.getNodeId());
+        if (!receiver.receiveMessage(message)) {
+            operation.future.completeExceptionally(
+                    new IllegalStateException("Node " + receiver.getNodeId() + " rejected collective message"));
+        }
+    }
+
+    private void apply(Operation operation, int index, CollectiveChunk chunk, boolean reduce) {
+        long[] target = operation.receiveBuffers[index];
+        long[] data = chunk.data();
+        int position = 0;
+        for (int i = 0; i < chunk.lengths().length; i++) {
+            int offset = chunk.targetOffsets()[i];
+            int length = chunk.lengths()[i];
+            if (reduce) {
+                for (int j = 0; j < length; j++) {
+                    target[offset + j] = operation.reducer.applyAsLong(target[offset + j], data[position + j]);
+                }
+            } else {
+                System.arraycopy(data, position, target, offset, length);
+            }
+            position += length;
+        }
+    }
+
+    private void validateRoot(int root) {
+        if (root < 0 || root >= nodes.size()) {
+            throw new IndexOutOfBoundsException("Root index out of bounds: " + root);
+        }
+    }
+
+    private int validateUniformLength(long[][] inputs, int nodeCount) {
+        if (inputs.length != nodeCount) {
+            throw new IllegalArgumentException("Expected one input per node (" + nodeCount + ")");
+        }
+        int length = inputs[0].length;
+        for (long[] input : inputs) {
+            if (input.length != length) {
+                throw new IllegalArgumentException("All inputs must have the same length");
+            }
+        }
+        return length;
+    }
+
+    private static long[][] copyOf(long[][] inputs) {
+        long[][] copy = new long[inputs.length][];
+        for (int i = 0; i < inputs.length; i++) {
+            copy[i] = inputs[i].clone();
+        }
+        return copy;
+    }
+
+    private static long[][] split(long[] buffer, int blockCount, int blockLength) {
+        long[][] blocks = new long[blockCount][];
+        for (int i = 0; i < blockCount; i++) {
+            blocks[i] = Arrays.copyOfRange(buffer, i * blockLength, (i + 1) * blockLength);
+        }
+        return blocks;
+    }
+
+    private final class Operation {
+        private final CollectivePlan plan;
+        private final long[][] sendBuffers;
+        private final long[][] receiveBuffers;
+        private final LongBinaryOperator reducer;
+        private final NodeProgress[] progress;
+        private final AtomicInteger remainingNodes;
+        private final CompletableFuture<long[][]> future = new CompletableFuture<>();
+
+        private Operation(CollectivePlan plan, long[][] sendBuffers, long[][] receiveBuffers,
+                          LongBinaryOperator reducer) {
+            this.plan = plan;
+            this.sendBuffers = sendBuffers;
+            this.receiveBuffers = receiveBuffers;
+            this.reducer = reducer;
+            this.progress = new NodeProgress[nodes.size()];
+            for (int i = 0; i < progress.length; i++) {
+                progress[i] = new NodeProgress();
+            }
+            this.remainingNodes = new AtomicInteger(nodes.size());
+        }
+    }
+
+    private static final class NodeProgress {
+        private final Map<Integer, ArrayDeque<CollectiveChunk>> arrived = new HashMap<>();
+        private int step = -1;
+        private boolean sent;
+
+        private boolean hasChunksFrom(int[] peers) {
+            for (int peer : peers) {
+                ArrayDeque<CollectiveChunk> queue = arrived.get(peer);
+                if (queue == null || queue.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.sakidoa.core.collective;
+
+public record Segment(int sourceOffset, int targetOffset, int length) {
+    public Segment {
+        if (sourceOffset < 0 || targetOffset < 0 || length < 0) {
+            throw new IllegalArgumentException("Segment offsets and length must be non-negative");
+        }
+    }
+
+    public static Segment aligned(int offset, int length) {
+        return new Segment(offset, offset, length);
+    }
+}
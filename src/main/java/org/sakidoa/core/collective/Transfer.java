@@ -0,0 +1,17 @@
+package org.sakidoa.core.collective;
+
+import java.util.List;
+
+public record Transfer(int peer, List<Segment> segments) {
+    public Transfer {
+        segments = List.copyOf(segments);
+    }
+
+    public static Transfer of(int peer, Segment... segments) {
+        return new Transfer(peer, List.of(segments));
+    }
+
+    public int length() {
+        return segments.stream().mapToInt(Segment::length).sum();
+    }
+}
@@ -0,0 +1,206 @@
+package org.sakidoa.core.dashboard;
+
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.ConsoleColor;
+import org.sakidoa.core.metrics.LatencyHistogram;
+import org.sakidoa.core.metrics.LatencySnapshot;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live console view of a running network. While it runs, the nodes' per-message console lines are switched
+ * off and a daemon thread samples their counters at a fixed refresh rate, redrawing one frame in place, so
+ * console I/O stays at one frame per interval however fast messages flow.
+ */
+public class ConsoleDashboard implements AutoCloseable {
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMillis(500);
+    public static final int DEFAULT_TOP_NODES = 5;
+
+    private static final String CURSOR_HOME = "\u001B[H";
+    private static final String CLEAR_SCREEN = "\u001B[2J";
+    private static final String CLEAR_LINE = "\u001B[K";
+    private static final String CLEAR_BELOW = "\u001B[J";
+    private static final int BUSY_QUEUE_DEPTH = 100;
+    private static final Comparator<DashboardFrame.NodeLoad> BY_QUEUE_DEPTH =
+            Comparator.comparingInt(DashboardFrame.NodeLoad::queueDepth);
+
+    private final String title;
+    private final List<Node> nodes;
+    private final Duration refreshInterval;
+    private final int topNodes;
+    private final PrintStream out;
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+    private final ScheduledExecutorService refreshScheduler;
+    private ScheduledFuture<?> refreshTask;
+    private long lastProcessed;
+    private long lastSampleNanos;
+
+    public ConsoleDashboard(String title, List<Node> nodes) {
+        this(title, nodes, DEFAULT_REFRESH_INTERVAL, DEFAULT_TOP_NODES, System.out);
+    }
+
+    public ConsoleDashboard(String title, List<Node> nodes, Duration refreshInterval, int topNodes,
+                            PrintStream out) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+        if (topNodes < 0) {
+            throw new IllegalArgumentException("Top node count must not be negative");
+        }
+        this.title = title;
+        this.nodes = List.copyOf(nodes);
+        this.refreshInterval = refreshInterval;
+        this.topNodes = topNodes;
+        this.out = out;
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "console-dashboard");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void start() {
+        if (refreshTask != null) {
+            throw new IllegalStateException("Dashboard already started");
+        }
+        for (Node node : nodes) {
+            node.setConsoleOutput(false);
+            node.addDeliveryLatencyHistogram(deliveryLatency);
+        }
+        lastProcessed = totalProcessed();
+        lastSampleNanos = System.nanoTime();
+        out.print(CLEAR_SCREEN);
+        long intervalNanos = refreshInterval.toNanos();
+        refreshTask = refreshScheduler.scheduleAtFixedRate(this::refresh, intervalNanos, intervalNanos,
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops refreshing, draws a last frame and gives the nodes their console output back.
+     */
+    @Override
+    public void close() {
+        ScheduledFuture<?> task;
+        synchronized (this) {
+            task = refreshTask;
+        }
+        if (task == null) {
+            refreshScheduler.shutdownNow();
+            return;
+        }
+        task.cancel(false);
+        refreshScheduler.shutdownNow();
+        refresh();
+        for (Node node : nodes) {
+            node.removeDeliveryLatencyHistogram(deliveryLatency);
+            node.setConsoleOutput(true);
+        }
+    }
+
+    /**
+     * Takes a sample and starts the next rate and latency interval.
+     */
+    public synchronized DashboardFrame sample() {
+        long now = System.nanoTime();
+        long processed = 0;
+        long dropped = 0;
+        long expired = 0;
+        PriorityQueue<DashboardFrame.NodeLoad> hottest = new PriorityQueue<>(BY_QUEUE_DEPTH);
+        for (Node node : nodes) {
+            processed += node.getProcessedMessageCount();
+            dropped += node.getDroppedMessageCount();
+            expired += node.getExpiredMessageCount();
+            offerHottest(hottest, node);
+        }
+        double elapsedSeconds = Math.max(1, now - lastSampleNanos) / 1e9;
+        double rate = (processed - lastProcessed) / elapsedSeconds;
+        LatencySnapshot latency = deliveryLatency.snapshot();
+        deliveryLatency.reset();
+        lastProcessed = processed;
+        lastSampleNanos = now;
+
+        List<DashboardFrame.NodeLoad> ranked = new ArrayList<>(hottest);
+        ranked.sort(BY_QUEUE_DEPTH.reversed());
+        return new DashboardFrame(nodes.size(), processed, rate, dropped, expired, latency, List.copyOf(ranked));
+    }
+
+    public String render(DashboardFrame frame) {
+        StringBuilder screen = new StringBuilder(CURSOR_HOME);
+        line(screen, ConsoleColor.BRIGHT_CYAN, title);
+        line(screen, ConsoleColor.WHITE, String.format("nodes %,d   processed %,d   msgs/s %,.1f",
+                frame.nodeCount(), frame.processedMessages(), frame.messagesPerSecond()));
+        line(screen, frame.droppedMessages() == 0 ? ConsoleColor.GREEN : ConsoleColor.RED,
+                String.format("drops %,d (expired %,d)", frame.droppedMessages(), frame.expiredMessages()));
+        LatencySnapshot latency = frame.deliveryLatency();
+        line(screen, ConsoleColor.BRIGHT_BLUE, latency.count() == 0
+                ? "latency  no deliveries this interval"
+                : String.format("latency  p50 %s   p90 %s   p99 %s   max %s   (%,d deliveries)",
+                formatNanos(latency.p50Nanos()), formatNanos(latency.p90Nanos()), formatNanos(latency.p99Nanos()),
+                formatNanos(latency.maxNanos()), latency.count()));
+        line(screen, ConsoleColor.BRIGHT_BLUE, "");
+        line(screen, ConsoleColor.BRIGHT_BLUE, "hottest nodes by queue depth");
+        if (frame.hottestNodes().isEmpty()) {
+            line(screen, ConsoleColor.BRIGHT_BLACK, "  all mailboxes empty");
+        }
+        for (DashboardFrame.NodeLoad load : frame.hottestNodes()) {
+            line(screen, load.queueDepth() > BUSY_QUEUE_DEPTH ? ConsoleColor.YELLOW : ConsoleColor.WHITE,
+                    String.format("  %-16s depth %,10d   processed %,12d   %s", load.nodeId(), load.queueDepth(),
+                            load.processedMessages(), load.state()));
+        }
+        return screen.append(CLEAR_BELOW).toString();
+    }
+
+    private synchronized void refresh() {
+        out.print(render(sample()));
+        out.flush();
+    }
+
+    private void offerHottest(PriorityQueue<DashboardFrame.NodeLoad> hottest, Node node) {
+        int depth = node.getQueueSize();
+        if (depth == 0 || topNodes == 0) {
+            return;
+        }
+        if (hottest.size() == topNodes) {
+            if (hottest.peek().queueDepth() >= depth) {
+                return;
+            }
+            hottest.poll();
+        }
+        hottest.add(new DashboardFrame.NodeLoad(node.getNodeId(), depth, node.getProcessedMessageCount(),
+                node.getState()));
+    }
+
+    private long totalProcessed() {
+        long processed = 0;
+        for (Node node : nodes) {
+            processed += node.getProcessedMessageCount();
+        }
+        return processed;
+    }
+
+    private static void line(StringBuilder screen, ConsoleColor color, String text) {
+        screen.append(color).append(text).append(ConsoleColor.RESET).append(CLEAR_LINE).append('\n');
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1f us", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+}
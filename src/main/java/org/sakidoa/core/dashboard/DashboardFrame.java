@@ -0,0 +1,18 @@
+package org.sakidoa.core.dashboard;
+
+import org.sakidoa.core.enums.NodeState;
+import org.sakidoa.core.metrics.LatencySnapshot;
+
+import java.util.List;
+
+/**
+ * One sample of a network. Rates and latency cover the interval since the previous sample, counts are
+ * totals since the nodes were created.
+ */
+public record DashboardFrame(int nodeCount, long processedMessages, double messagesPerSecond,
+                             long droppedMessages, long expiredMessages, LatencySnapshot deliveryLatency,
+                             List<NodeLoad> hottestNodes) {
+
+    public record NodeLoad(String nodeId, int queueDepth, long processedMessages, NodeState state) {
+    }
+}
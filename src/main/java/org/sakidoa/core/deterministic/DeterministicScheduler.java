@@ -0,0 +1,155 @@
+package org.sakidoa.core.deterministic;
+
+import org.sakidoa.core.Node;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a whole network on the calling thread in a fixed order. Injected sends are queued in submission
+ * order; each round first performs every pending injection, then steps the nodes in index order, each
+ * handling at most a quantum of already-queued messages, and finally advances the logical clock. With the
+ * same seed and the same calls, two runs see identical delivery orders, counters and digest.
+ * <p>
+ * The ring, hypercube, torus, tree, graph, star and mesh networks can run under it. The fully connected
+ * network's coalescer and the bus, switched and fat-tree media forward on timers and threads of their own,
+ * so those networks still run on wall-clock time.
+ */
+public class DeterministicScheduler {
+    public static final int DEFAULT_QUANTUM = 64;
+
+    private final List<Node> nodes;
+    private final long seed;
+    private final int quantum;
+    private final SplittableRandom random;
+    private final LogicalClock clock = new LogicalClock();
+    private final Queue<Runnable> injections = new ArrayDeque<>();
+    private final AtomicInteger pendingInjections = new AtomicInteger();
+    private boolean started;
+    private long rounds;
+    private long digest = 1;
+
+    public DeterministicScheduler(List<Node> nodes, long seed) {
+        this(nodes, seed, DEFAULT_QUANTUM);
+    }
+
+    public DeterministicScheduler(List<Node> nodes, long seed, int quantum) {
+        if (quantum < 1) {
+            throw new IllegalArgumentException("Quantum must be at least 1");
+        }
+        this.nodes = List.copyOf(nodes);
+        this.seed = seed;
+        this.quantum = quantum;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        for (Node node : nodes) {
+            node.setClock(clock::now);
+            node.startStepping();
+        }
+    }
+
+    public synchronized void submit(Runnable injection) {
+        injections.add(injection);
+        pendingInjections.incrementAndGet();
+    }
+
+    /**
+     * Injections submitted but not yet run; readable without waiting for a running round to finish.
+     */
+    public int getPendingInjectionCount() {
+        return pendingInjections.get();
+    }
+
+    /**
+     * Runs rounds until no injection is pending and a full round handles no message. Returns the number of
+     * rounds run.
+     */
+    public synchronized long runUntilIdle() {
+        validateStarted();
+        long executed = 0;
+        boolean progress = true;
+        while (progress) {
+            progress = runRound();
+            executed++;
+        }
+        return executed;
+    }
+
+    public synchronized long runRounds(long count) {
+        validateStarted();
+        for (long i = 0; i < count; i++) {
+            runRound();
+        }
+        return count;
+    }
+
+    public synchronized void stop() {
+        nodes.forEach(Node::stopStepping);
+    }
+
+    public synchronized void shutdown(boolean drainInFlight) {
+        if (started && drainInFlight) {
+            runUntilIdle();
+        }
+        stop();
+    }
+
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    public LogicalClock getClock() {
+        return clock;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public synchronized long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Order-sensitive hash of how many messages each node handled in each round; equal digests mean the
+     * runs delivered in the same order.
+     */
+    public synchronized long getDigest() {
+        return digest;
+    }
+
+    private boolean runRound() {
+        boolean progress = !injections.isEmpty();
+        Runnable injection;
+        while ((injection = injections.poll()) != null) {
+            pendingInjections.decrementAndGet();
+            injection.run();
+        }
+
+        for (int index = 0; index < nodes.size(); index++) {
+            int handled = nodes.get(index).step(quantum);
+            if (handled > 0) {
+                progress = true;
+                digest = digest * 31 + ((rounds << 40) ^ ((long) index << 20) ^ handled);
+            }
+        }
+        rounds++;
+        clock.advance();
+        return progress;
+    }
+
+    private void validateStarted() {
+        if (!started) {
+            throw new IllegalStateException("Scheduler not started");
+        }
+    }
+}
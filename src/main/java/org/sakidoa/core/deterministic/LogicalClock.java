@@ -0,0 +1,19 @@
+package org.sakidoa.core.deterministic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that only moves when the deterministic scheduler finishes a round. Nodes read it in place of wall
+ * time, so heartbeats and update timestamps depend on the schedule rather than on how fast the host is.
+ */
+public class LogicalClock {
+    private final AtomicLong ticks = new AtomicLong();
+
+    public long now() {
+        return ticks.get();
+    }
+
+    public long advance() {
+        return ticks.incrementAndGet();
+    }
+}
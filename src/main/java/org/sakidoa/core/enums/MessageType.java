@@ -1,5 +1,5 @@
 package org.sakidoa.core.enums;
 
 public enum MessageType {
-    DATA, CONTROL, HEARTBEAT, TOPOLOGY_UPDATE
+    DATA, CONTROL, HEARTBEAT, TOPOLOGY_UPDATE, AGGREGATE, COLLECTIVE, REQUEST, REPLY, BATCH, FLOOD
 }
@@ -0,0 +1,86 @@
+package org.sakidoa.core.fault;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Shortest-path next hops over the neighbour graph, restricted to the nodes and links not currently
+ * suspected. Distance vectors are computed by a BFS from each destination and cached until the set of
+ * suspicions changes, so steady-state rerouting costs one scan of the current node's neighbours.
+ */
+final class DetourRouting {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final int[][] adjacency;
+    private final Map<Integer, int[]> unrestricted = new ConcurrentHashMap<>();
+    private final Map<Integer, Distances> restricted = new ConcurrentHashMap<>();
+
+    DetourRouting(int[][] adjacency) {
+        this.adjacency = adjacency;
+    }
+
+    int shortestHop(int current, int destination) {
+        int[] distances = unrestricted.computeIfAbsent(destination, d -> distancesTo(d, node -> true, (a, b) -> true));
+        return bestNeighbor(current, distances, -1, (a, b) -> true);
+    }
+
+    int nextHop(int current, int destination, int preferred, long version, IntPredicate usableNode,
+                LinkPredicate usableLink) {
+        Distances distances = restricted.get(destination);
+        if (distances == null || distances.version() != version) {
+            distances = new Distances(version, distancesTo(destination, usableNode, usableLink));
+            restricted.put(destination, distances);
+        }
+        return bestNeighbor(current, distances.values(), preferred, usableLink);
+    }
+
+    private int bestNeighbor(int current, int[] distances, int preferred, LinkPredicate usableLink) {
+        int best = -1;
+        int bestDistance = UNREACHABLE;
+        for (int neighbor : adjacency[current]) {
+            int distance = distances[neighbor];
+            if (distance == UNREACHABLE || !usableLink.test(current, neighbor)) {
+                continue;
+            }
+            if (distance < bestDistance || (distance == bestDistance && neighbor == preferred)) {
+                best = neighbor;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private int[] distancesTo(int destination, IntPredicate usableNode, LinkPredicate usableLink) {
+        int[] distances = new int[adjacency.length];
+        Arrays.fill(distances, UNREACHABLE);
+        if (!usableNode.test(destination)) {
+            return distances;
+        }
+        int[] queue = new int[adjacency.length];
+        int head = 0;
+        int tail = 0;
+        distances[destination] = 0;
+        queue[tail++] = destination;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int neighbor : adjacency[node]) {
+                if (distances[neighbor] == UNREACHABLE && usableNode.test(neighbor)
+                        && usableLink.test(neighbor, node)) {
+                    distances[neighbor] = distances[node] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return distances;
+    }
+
+    private record Distances(long version, int[] values) {
+    }
+
+    @FunctionalInterface
+    interface LinkPredicate {
+        boolean test(int from, int to);
+    }
+}
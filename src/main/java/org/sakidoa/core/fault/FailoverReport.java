@@ -0,0 +1,18 @@
+package org.sakidoa.core.fault;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one injected fault. Detection and reroute times are measured from injection and are
+ * {@code null} when the fault was never detected or no message had to be rerouted around it.
+ */
+public record FailoverReport(String fault, Duration injectedAt, Duration timeToDetect, Duration timeToReroute,
+                             long messagesLost) {
+    public boolean isDetected() {
+        return timeToDetect != null;
+    }
+
+    public boolean isRerouted() {
+        return timeToReroute != null;
+    }
+}
@@ -0,0 +1,394 @@
+package org.sakidoa.core.fault;
+
+import org.sakidoa.core.Adjacency;
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.RoutingStrategy;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Injects node and link faults into a running network and routes around them. Nodes can be killed or
+ * suspended, links dropped or delayed, and the network split into two sides, immediately or on a schedule.
+ * Failures are detected the way a real network would notice them: a killed node refuses deliveries, a
+ * suspended node stops refreshing its update time and is suspected by a periodic probe once that goes stale,
+ * and a dropped link is suspected on the first transmission it swallows. While anything is suspected every
+ * hop is taken along a shortest path that avoids the suspected nodes and links; otherwise the topology's own
+ * routing is used. Each fault reports its time to detection, time to the first message rerouted around it,
+ * and the messages it cost. Networks whose own medium carries a message to its destination in one step use
+ * {@link #deliver} instead of {@link #forward}, which applies the same faults without rerouting.
+ */
+public class FaultInjector implements AutoCloseable {
+    public static final Duration DEFAULT_SUSPICION_TIMEOUT = Duration.ofMillis(150);
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long KILL_SETTLE_MILLIS = 1_000;
+    private static final int MAX_ATTEMPTS_PER_HOP = 8;
+    private static final FaultRecord UNATTRIBUTED = new FaultRecord("unattributed", 0);
+
+    private final List<Node> nodes;
+    private final Map<String, Integer> nodeIndices = new HashMap<>();
+    private final DetourRouting detours;
+    private final long suspicionTimeoutMillis;
+    private final long originNanos = System.nanoTime();
+    private final List<FaultRecord> faults = new CopyOnWriteArrayList<>();
+    private final Map<Integer, FaultRecord> nodeFaults = new ConcurrentHashMap<>();
+    private final Set<Integer> killedNodes = ConcurrentHashMap.newKeySet();
+    private final Map<Long, LinkFault> linkFaults = new ConcurrentHashMap<>();
+    private final Map<Integer, FaultRecord> suspectedNodes = new ConcurrentHashMap<>();
+    private final Map<Long, FaultRecord> suspectedLinks = new ConcurrentHashMap<>();
+    private final AtomicLong suspicionVersion = new AtomicLong();
+    private final LongAdder deliveredMessages = new LongAdder();
+    private final LongAdder reroutedHops = new LongAdder();
+    private final LongAdder lostMessages = new LongAdder();
+    private final ScheduledExecutorService scheduler;
+    private volatile Partition partition;
+
+    public FaultInjector(List<Node> nodes) {
+        this(nodes, DEFAULT_SUSPICION_TIMEOUT);
+    }
+
+    public FaultInjector(List<Node> nodes, Duration suspicionTimeout) {
+        this(nodes, Adjacency.of(nodes), suspicionTimeout);
+    }
+
+    /**
+     * Detours over {@code adjacency}, row {@code i} listing the neighbour indices of {@code nodes.get(i)}, for
+     * topologies that already hold their graph in that form.
+     */
+    public FaultInjector(List<Node> nodes, int[][] adjacency, Duration suspicionTimeout) {
+        this.nodes = List.copyOf(nodes);
+        for (int i = 0; i < nodes.size(); i++) {
+            nodeIndices.put(nodes.get(i).getNodeId(), i);
+        }
+        this.detours = new DetourRouting(Adjacency.validate(this.nodes, adjacency));
+        this.suspicionTimeoutMillis = suspicionTimeout.toMillis();
+        this.scheduler = Executors.newScheduledThreadPool(1, runnable -> {
+            Thread thread = new Thread(runnable, "fault-injector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::probeNodes, PROBE_INTERVAL_NANOS, PROBE_INTERVAL_NANOS,
+                TimeUnit.NANOSECONDS);
+    }
+
+    public void killNode(int node) {
+        Node target = nodes.get(validateNode(node));
+        FaultRecord fault = recordFault("kill " + target.getNodeId());
+        nodeFaults.put(node, fault);
+        killedNodes.add(node);
+        long discardedBefore = target.getDiscardedMessageCount();
+        target.forceStop();
+        scheduler.execute(() -> {
+            try {
+                target.awaitTermination(KILL_SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lose(fault, target.getDiscardedMessageCount() - discardedBefore);
+        });
+    }
+
+    public void suspendNode(int node) {
+        Node target = nodes.get(validateNode(node));
+        nodeFaults.put(node, recordFault("suspend " + target.getNodeId()));
+        target.suspend();
+    }
+
+    public void resumeNode(int node) {
+        nodes.get(validateNode(node)).resume();
+        nodeFaults.remove(node);
+    }
+
+    public void dropLink(int from, int to) {
+        linkFaults.put(linkKey(validateNode(from), validateNode(to)),
+                new LinkFault(recordFault("drop link " + describeLink(from, to)), true, 0));
+    }
+
+    public void delayLink(int from, int to, Duration delay) {
+        String description = "delay link " + describeLink(validateNode(from), validateNode(to)) + " by "
+                + delay.toMillis() + " ms";
+        linkFaults.put(linkKey(from, to), new LinkFault(recordFault(description), false, delay.toNanos()));
+    }
+
+    public void restoreLink(int from, int to) {
+        long key = linkKey(from, to);
+        linkFaults.remove(key);
+        if (suspectedLinks.remove(key) != null) {
+            suspicionVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * Cuts every link between {@code side} and the rest of the network until {@link #heal()}.
+     */
+    public void partition(Collection<Integer> side) {
+        boolean[] inside = new boolean[nodes.size()];
+        side.forEach(node -> inside[validateNode(node)] = true);
+        partition = new Partition(inside, new LinkFault(recordFault("partition " + side), true, 0));
+    }
+
+    public void heal() {
+        Partition healed = partition;
+        partition = null;
+        if (healed != null && suspectedLinks.values().removeIf(fault -> fault == healed.cut().fault())) {
+            suspicionVersion.incrementAndGet();
+        }
+    }
+
+    public ScheduledFuture<?> schedule(Duration after, Consumer<FaultInjector> fault) {
+        return scheduler.schedule(() -> fault.accept(this), after.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Moves a message one hop towards its destination, retrying around nodes and links that fail during the
+     * attempt. Returns false when the message was lost.
+     */
+    public boolean forward(int current, int destination, Message message, RoutingStrategy primary,
+                           Transmission transmission) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS_PER_HOP; attempt++) {
+            if (current == destination) {
+                if (transmission.transmit(current, current, message)) {
+                    deliveredMessages.increment();
+                    return true;
+                }
+                return lose(faultOf(destination), 1);
+            }
+
+            int preferred = primary != null ? primary.nextHop(current, destination)
+                    : detours.shortestHop(current, destination);
+            int next = preferred;
+            FaultRecord avoided = null;
+            long version = suspicionVersion.get();
+            if (!suspectedNodes.isEmpty() || !suspectedLinks.isEmpty()) {
+                next = detours.nextHop(current, destination, preferred, version, this::isUsable, this::isUsable);
+                if (next < 0) {
+                    return lose(responsibleFault(current, preferred, destination), 1);
+                }
+                if (next != preferred) {
+                    avoided = suspicionOf(current, preferred);
+                }
+            }
+
+            LinkFault linkFault = linkFaultOf(current, next);
+            if (linkFault != null && linkFault.drops()) {
+                suspectLink(current, next, linkFault.fault());
+                continue;
+            }
+            if (linkFault != null) {
+                delay(current, next, message, linkFault, transmission);
+                return true;
+            }
+            if (transmission.transmit(current, next, message)) {
+                if (next == destination) {
+                    deliveredMessages.increment();
+                }
+                if (avoided != null) {
+                    avoided.markRerouted(System.nanoTime());
+                    reroutedHops.increment();
+                }
+                return true;
+            }
+            if (nodes.get(next).isActive()) {
+                return lose(UNATTRIBUTED, 1);
+            }
+            suspectNode(next, faultOf(next));
+        }
+        return lose(faultOf(destination), 1);
+    }
+
+    /**
+     * Hands a message straight to its destination for a bus, switch or fabric that carries it there itself.
+     * A killed destination or a dropped or cut link loses it, a delayed link holds it back, and a full
+     * mailbox loses it unattributed. Returns false when the message was lost.
+     */
+    public boolean deliver(int from, int to, Message message, Transmission transmission) {
+        validateNode(from);
+        validateNode(to);
+        if (killedNodes.contains(to)) {
+            FaultRecord fault = faultOf(to);
+            suspectNode(to, fault);
+            return lose(fault, 1);
+        }
+        LinkFault linkFault = from == to ? null : linkFaultOf(from, to);
+        if (linkFault != null && linkFault.drops()) {
+            suspectLink(from, to, linkFault.fault());
+            return lose(linkFault.fault(), 1);
+        }
+        if (linkFault != null) {
+            delay(from, to, message, linkFault, transmission);
+            return true;
+        }
+        if (transmission.transmit(from, to, message)) {
+            deliveredMessages.increment();
+            return true;
+        }
+        return lose(nodes.get(to).isActive() ? UNATTRIBUTED : faultOf(to), 1);
+    }
+
+    public int indexOf(String nodeId) {
+        Integer index = nodeIndices.get(nodeId);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown node: " + nodeId);
+        }
+        return index;
+    }
+
+    public List<FailoverReport> getReports() {
+        return faults.stream().map(fault -> fault.toReport(originNanos)).toList();
+    }
+
+    public boolean isSuspected(int node) {
+        return suspectedNodes.containsKey(node);
+    }
+
+    public long getDeliveredCount() {
+        return deliveredMessages.sum();
+    }
+
+    public long getReroutedHopCount() {
+        return reroutedHops.sum();
+    }
+
+    public long getLostCount() {
+        return lostMessages.sum();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void probeNodes() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            boolean silent = !node.isActive() || killedNodes.contains(i)
+                    || (node.isRunning() && now - node.getLastUpdateTime() > suspicionTimeoutMillis);
+            if (silent) {
+                suspectNode(i, faultOf(i));
+            } else if (suspectedNodes.remove(i) != null) {
+                suspicionVersion.incrementAndGet();
+            }
+        }
+    }
+
+    private void suspectNode(int node, FaultRecord fault) {
+        fault.markDetected(System.nanoTime());
+        if (suspectedNodes.putIfAbsent(node, fault) == null) {
+            suspicionVersion.incrementAndGet();
+        }
+    }
+
+    private void suspectLink(int from, int to, FaultRecord fault) {
+        fault.markDetected(System.nanoTime());
+        if (suspectedLinks.putIfAbsent(linkKey(from, to), fault) == null) {
+            suspicionVersion.incrementAndGet();
+        }
+    }
+
+    private void delay(int from, int to, Message message, LinkFault linkFault, Transmission transmission) {
+        scheduler.schedule(() -> {
+            if (!transmission.transmit(from, to, message)) {
+                lose(linkFault.fault(), 1);
+            }
+        }, linkFault.delayNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private boolean isUsable(int node) {
+        return !suspectedNodes.containsKey(node);
+    }
+
+    private boolean isUsable(int from, int to) {
+        return !suspectedLinks.containsKey(linkKey(from, to));
+    }
+
+    private LinkFault linkFaultOf(int from, int to) {
+        LinkFault linkFault = linkFaults.get(linkKey(from, to));
+        if (linkFault != null) {
+            return linkFault;
+        }
+        Partition current = partition;
+        if (current != null && current.inside()[from] != current.inside()[to]) {
+            return current.cut();
+        }
+        return null;
+    }
+
+    private FaultRecord suspicionOf(int from, int to) {
+        FaultRecord fault = suspectedNodes.get(to);
+        if (fault == null) {
+            fault = suspectedLinks.get(linkKey(from, to));
+        }
+        return fault == UNATTRIBUTED ? null : fault;
+    }
+
+    private FaultRecord responsibleFault(int current, int preferred, int destination) {
+        if (suspectedNodes.containsKey(destination)) {
+            return faultOf(destination);
+        }
+        Partition active = partition;
+        if (active != null) {
+            return active.cut().fault();
+        }
+        FaultRecord fault = suspicionOf(current, preferred);
+        return fault == null ? UNATTRIBUTED : fault;
+    }
+
+    private FaultRecord faultOf(int node) {
+        return nodeFaults.getOrDefault(node, UNATTRIBUTED);
+    }
+
+    private boolean lose(FaultRecord fault, long messages) {
+        if (messages > 0) {
+            fault.addLost(messages);
+            lostMessages.add(messages);
+        }
+        return false;
+    }
+
+    private FaultRecord recordFault(String description) {
+        FaultRecord fault = new FaultRecord(description, System.nanoTime());
+        faults.add(fault);
+        return fault;
+    }
+
+    private int validateNode(int node) {
+        if (node < 0 || node >= nodes.size()) {
+            throw new IndexOutOfBoundsException("Node index out of bounds: " + node);
+        }
+        return node;
+    }
+
+    private String describeLink(int from, int to) {
+        return nodes.get(from).getNodeId() + "<->" + nodes.get(to).getNodeId();
+    }
+
+    private static long linkKey(int from, int to) {
+        return ((long) Math.min(from, to) << 32) | Math.max(from, to);
+    }
+
+    @FunctionalInterface
+    public interface Transmission {
+        boolean transmit(int from, int to, Message message);
+    }
+
+    private record LinkFault(FaultRecord fault, boolean drops, long delayNanos) {
+    }
+
+    private record Partition(boolean[] inside, LinkFault cut) {
+    }
+}
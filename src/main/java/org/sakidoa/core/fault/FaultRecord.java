@@ -0,0 +1,41 @@
+package org.sakidoa.core.fault;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+final class FaultRecord {
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final String description;
+    private final long injectedAtNanos;
+    private final AtomicLong detectedAtNanos = new AtomicLong(UNSET);
+    private final AtomicLong reroutedAtNanos = new AtomicLong(UNSET);
+    private final LongAdder lostMessages = new LongAdder();
+
+    FaultRecord(String description, long injectedAtNanos) {
+        this.description = description;
+        this.injectedAtNanos = injectedAtNanos;
+    }
+
+    void markDetected(long nanos) {
+        detectedAtNanos.compareAndSet(UNSET, nanos);
+    }
+
+    void markRerouted(long nanos) {
+        reroutedAtNanos.compareAndSet(UNSET, nanos);
+    }
+
+    void addLost(long messages) {
+        lostMessages.add(messages);
+    }
+
+    FailoverReport toReport(long originNanos) {
+        return new FailoverReport(description, Duration.ofNanos(injectedAtNanos - originNanos),
+                since(detectedAtNanos.get()), since(reroutedAtNanos.get()), lostMessages.sum());
+    }
+
+    private Duration since(long nanos) {
+        return nanos == UNSET ? null : Duration.ofNanos(Math.max(0, nanos - injectedAtNanos));
+    }
+}
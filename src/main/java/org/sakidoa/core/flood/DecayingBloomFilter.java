@@ -0,0 +1,72 @@
+package org.sakidoa.core.flood;
+
+import java.util.Arrays;
+
+/**
+ * Two-generation Bloom filter over long keys. Keys are added to the current generation and looked up in
+ * both; every decay interval the current generation becomes the previous one and a cleared one takes its
+ * place, so a key is remembered for between one and two intervals in constant memory. Not thread-safe: each
+ * node owns its filter.
+ */
+final class DecayingBloomFilter {
+    private final int bitMask;
+    private final int hashFunctions;
+    private final long decayNanos;
+    private long[] current;
+    private long[] previous;
+    private long rotatedAt;
+
+    DecayingBloomFilter(int bits, int hashFunctions, long decayNanos, long nowNanos) {
+        this.bitMask = bits - 1;
+        this.hashFunctions = hashFunctions;
+        this.decayNanos = decayNanos;
+        this.current = new long[bits / Long.SIZE];
+        this.previous = new long[bits / Long.SIZE];
+        this.rotatedAt = nowNanos;
+    }
+
+    /**
+     * Adds the key and returns whether it was probably present already.
+     */
+    boolean checkAndAdd(long key, long nowNanos) {
+        if (nowNanos - rotatedAt >= decayNanos) {
+            rotate(nowNanos);
+        }
+        long first = mix(key);
+        long second = mix(first) | 1;
+        boolean inCurrent = true;
+        boolean inPrevious = true;
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = (int) (first + i * second) & bitMask;
+            inCurrent &= isSet(current, bit);
+            inPrevious &= isSet(previous, bit);
+        }
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = (int) (first + i * second) & bitMask;
+            current[bit >>> 6] |= 1L << bit;
+        }
+        return inCurrent || inPrevious;
+    }
+
+    long sizeBytes() {
+        return (long) (current.length + previous.length) * Long.BYTES;
+    }
+
+    private void rotate(long nowNanos) {
+        long[] cleared = previous;
+        Arrays.fill(cleared, 0L);
+        previous = current;
+        current = cleared;
+        rotatedAt = nowNanos;
+    }
+
+    private static boolean isSet(long[] words, int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
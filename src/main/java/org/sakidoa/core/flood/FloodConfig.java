@@ -0,0 +1,53 @@
+package org.sakidoa.core.flood;
+
+import java.time.Duration;
+
+/**
+ * {@code fanout} 0 forwards every first copy to all neighbours; a positive fanout gossips it to that many
+ * random neighbours. The seen-cache uses two generations of {@code filterBits} bits each.
+ */
+public record FloodConfig(int ttl, int fanout, int filterBits, int hashFunctions, Duration decayInterval) {
+    public static final int ALL_NEIGHBORS = 0;
+    public static final int DEFAULT_FILTER_BITS = 1024;
+    public static final int DEFAULT_HASH_FUNCTIONS = 4;
+    public static final Duration DEFAULT_DECAY_INTERVAL = Duration.ofSeconds(10);
+
+    public FloodConfig {
+        if (ttl < 0) {
+            throw new IllegalArgumentException("TTL cannot be negative");
+        }
+        if (fanout < 0) {
+            throw new IllegalArgumentException("Fanout cannot be negative");
+        }
+        if (filterBits < Long.SIZE || Integer.bitCount(filterBits) != 1) {
+            throw new IllegalArgumentException("Filter bits must be a power of two of at least 64");
+        }
+        if (hashFunctions < 1) {
+            throw new IllegalArgumentException("At least one hash function is required");
+        }
+        if (decayInterval.isNegative() || decayInterval.isZero()) {
+            throw new IllegalArgumentException("Decay interval must be positive");
+        }
+    }
+
+    public static FloodConfig of(int ttl) {
+        return new FloodConfig(ttl, ALL_NEIGHBORS, DEFAULT_FILTER_BITS, DEFAULT_HASH_FUNCTIONS,
+                DEFAULT_DECAY_INTERVAL);
+    }
+
+    public static FloodConfig gossip(int ttl, int fanout) {
+        return of(ttl).withFanout(fanout);
+    }
+
+    public FloodConfig withFanout(int fanout) {
+        return new FloodConfig(ttl, fanout, filterBits, hashFunctions, decayInterval);
+    }
+
+    public FloodConfig withFilter(int filterBits, int hashFunctions) {
+        return new FloodConfig(ttl, fanout, filterBits, hashFunctions, decayInterval);
+    }
+
+    public FloodConfig withDecayInterval(Duration decayInterval) {
+        return new FloodConfig(ttl, fanout, filterBits, hashFunctions, decayInterval);
+    }
+}
@@ -0,0 +1,12 @@
+package org.sakidoa.core.flood;
+
+public record FloodMetrics(long floods, long transmissions, long duplicates, long deliveries,
+                           double averageCoverage, long filterBytesPerNode) {
+
+    /**
+     * Copies sent per node reached; 1.0 means every copy reached a node that had not seen the flood.
+     */
+    public double redundancyRatio() {
+        return deliveries == 0 ? 0.0 : (double) transmissions / deliveries;
+    }
+}
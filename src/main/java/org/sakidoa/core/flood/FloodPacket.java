@@ -0,0 +1,5 @@
+package org.sakidoa.core.flood;
+
+record FloodPacket(long floodId, int sender, int hopsLeft, Object payload) {
+    static final int ORIGIN = -1;
+}
@@ -0,0 +1,189 @@
+package org.sakidoa.core.flood;
+
+import org.sakidoa.core.Adjacency;
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.MessageType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Floods payloads over whatever graph the nodes' neighbour sets form, for topologies without a routing
+ * scheme. Every copy carries the flood id and a hop budget. Each node remembers the ids it has seen in a
+ * fixed-size, time-decaying Bloom filter and forwards only the first copy: to every neighbour except the
+ * one it came from, or in gossip mode to {@code fanout} of them picked at random. A false positive makes a
+ * node drop a flood it had not seen, which costs coverage but never adds traffic.
+ * <p>
+ * Coverage is tracked per flood until {@link #closeFlood(long)} or until two decay intervals have passed.
+ * By then every filter has forgotten the flood, so a late copy would be taken for a new flood anyway.
+ */
+public class Flooding {
+    private final List<Node> nodes;
+    private final FloodConfig config;
+    private final int[][] adjacency;
+    private final DecayingBloomFilter[] seen;
+    private final SplittableRandom[] randoms;
+    private final AtomicLong nextFloodId = new AtomicLong();
+    private final Map<Long, FloodProgress> reached = new ConcurrentHashMap<>();
+    private final AtomicLong nextExpiryNanos;
+    private final LongAdder transmissions = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder deliveries = new LongAdder();
+    private volatile BiConsumer<Node, Object> listener = (node, payload) -> {
+    };
+
+    public Flooding(List<Node> nodes, FloodConfig config) {
+        this(nodes, Adjacency.of(nodes), config);
+    }
+
+    /**
+     * Floods over {@code adjacency}, row {@code i} listing the neighbour indices of {@code nodes.get(i)}, for
+     * topologies that already hold their graph in that form.
+     */
+    public Flooding(List<Node> nodes, int[][] adjacency, FloodConfig config) {
+        this.nodes = List.copyOf(nodes);
+        this.config = config;
+        this.adjacency = Adjacency.validate(this.nodes, adjacency);
+        this.seen = new DecayingBloomFilter[nodes.size()];
+        this.randoms = new SplittableRandom[nodes.size()];
+        long now = System.nanoTime();
+        this.nextExpiryNanos = new AtomicLong(now + config.decayInterval().toNanos());
+        for (int index = 0; index < nodes.size(); index++) {
+            seen[index] = new DecayingBloomFilter(config.filterBits(), config.hashFunctions(),
+                    config.decayInterval().toNanos(), now);
+            randoms[index] = new SplittableRandom(index);
+            int node = index;
+            nodes.get(index).setMessageHandler(MessageType.FLOOD, (current, message) -> onFlood(node, message));
+        }
+    }
+
+    /**
+     * Starts a flood from {@code origin}; the origin handles it on its own thread like any received copy.
+     * Returns the flood id.
+     */
+    public long flood(int origin, Object payload) {
+        if (origin < 0 || origin >= nodes.size()) {
+            throw new IndexOutOfBoundsException("Origin node index out of bounds: " + origin);
+        }
+        long now = System.nanoTime();
+        expireFloods(now);
+        long floodId = nextFloodId.incrementAndGet();
+        reached.put(floodId, new FloodProgress(new LongAdder(), now));
+        Node node = nodes.get(origin);
+        Message message = new Message(MessageType.FLOOD, node.getNodeId(),
+                new FloodPacket(floodId, FloodPacket.ORIGIN, config.ttl(), payload));
+        message.setReceiverId(node.getNodeId());
+        node.receiveMessage(message);
+        return floodId;
+    }
+
+    public void setDeliveryListener(BiConsumer<Node, Object> listener) {
+        this.listener = listener;
+    }
+
+    public FloodConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Fraction of the nodes the flood has reached so far, its origin included.
+     */
+    public double getCoverage(long floodId) {
+        FloodProgress progress = reached.get(floodId);
+        return progress == null ? 0.0 : coverageOf(progress);
+    }
+
+    /**
+     * Stops tracking the flood and returns the coverage it reached; copies still in flight are forwarded
+     * as usual but no longer counted.
+     */
+    public double closeFlood(long floodId) {
+        FloodProgress progress = reached.remove(floodId);
+        return progress == null ? 0.0 : coverageOf(progress);
+    }
+
+    /**
+     * Counts every flood started; the average coverage is over the floods still tracked.
+     */
+    public FloodMetrics getMetrics() {
+        expireFloods(System.nanoTime());
+        double coverage = reached.values().stream()
+                .mapToDouble(this::coverageOf)
+                .average()
+                .orElse(0.0);
+        long filterBytes = seen.length == 0 ? 0 : seen[0].sizeBytes();
+        return new FloodMetrics(nextFloodId.get(), transmissions.sum(), duplicates.sum(), deliveries.sum(),
+                coverage, filterBytes);
+    }
+
+    private double coverageOf(FloodProgress progress) {
+        return (double) progress.count().sum() / nodes.size();
+    }
+
+    // Sweeps at most once per decay interval, so starting a flood stays O(1) amortised.
+    private void expireFloods(long now) {
+        long next = nextExpiryNanos.get();
+        long decayNanos = config.decayInterval().toNanos();
+        if (now - next < 0 || !nextExpiryNanos.compareAndSet(next, now + decayNanos)) {
+            return;
+        }
+        long horizon = now - 2 * decayNanos;
+        reached.values().removeIf(progress -> progress.startedNanos() - horizon < 0);
+    }
+
+    private void onFlood(int index, Message message) {
+        FloodPacket packet = (FloodPacket) message.getPayload();
+        if (seen[index].checkAndAdd(packet.floodId(), System.nanoTime())) {
+            duplicates.increment();
+            return;
+        }
+        if (packet.sender() != FloodPacket.ORIGIN) {
+            deliveries.increment();
+        }
+        FloodProgress progress = reached.get(packet.floodId());
+        if (progress != null) {
+            progress.count().increment();
+        }
+        Node node = nodes.get(index);
+        listener.accept(node, packet.payload());
+        if (packet.hopsLeft() > 0) {
+            forward(index, node, packet);
+        }
+    }
+
+    private void forward(int index, Node node, FloodPacket packet) {
+        int[] candidates = adjacency[index].clone();
+        int count = 0;
+        for (int neighbor : candidates) {
+            if (neighbor != packet.sender()) {
+                candidates[count++] = neighbor;
+            }
+        }
+        int targets = config.fanout() == FloodConfig.ALL_NEIGHBORS ? count : Math.min(config.fanout(), count);
+        SplittableRandom random = randoms[index];
+        FloodPacket next = new FloodPacket(packet.floodId(), index, packet.hopsLeft() - 1, packet.payload());
+        for (int i = 0; i < targets; i++) {
+            if (targets < count) {
+                int pick = i + random.nextInt(count - i);
+                int swap = candidates[i];
+                candidates[i] = candidates[pick];
+                candidates[pick] = swap;
+            }
+            Node target = nodes.get(candidates[i]);
+            Message copy = new Message(MessageType.FLOOD, node.getNodeId(), next);
+            copy.setReceiverId(target.getNodeId());
+            if (target.receiveMessage(copy)) {
+                transmissions.increment();
+            }
+        }
+    }
+
+    private record FloodProgress(LongAdder count, long startedNanos) {
+    }
+}
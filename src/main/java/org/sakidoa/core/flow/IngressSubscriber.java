@@ -0,0 +1,202 @@
+package org.sakidoa.core.flow;
+
+import org.sakidoa.core.MessageRouter;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.deterministic.DeterministicScheduler;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Feeds a network from a {@link Flow.Publisher}, with demand derived from mailbox capacity. Messages are
+ * injected on the publisher's own thread, pooled or virtual, and more are requested only while the messages
+ * already queued in the nodes' mailboxes plus those requested but not yet received stay below
+ * {@code maxQueuedMessages}. Demand is topped up in batches of a quarter of that budget; when the
+ * mailboxes are too full to grant any, their depth is rechecked every millisecond until they drain.
+ * {@link #queueDepthOf(List)} keeps that depth in a running counter, so each check costs the same however
+ * many nodes the network has.
+ */
+public class IngressSubscriber implements Flow.Subscriber<MessageSubmission> {
+    private static final long RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Injector injector;
+    private final IntSupplier queuedMessages;
+    private final int maxQueuedMessages;
+    private final int batch;
+    private final AtomicLong outstanding = new AtomicLong();
+    private final AtomicBoolean recheckScheduled = new AtomicBoolean();
+    private final LongAdder acceptedMessages = new LongAdder();
+    private final LongAdder rejectedMessages = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile Flow.Subscription subscription;
+    private boolean stalled;
+
+    public IngressSubscriber(Injector injector, IntSupplier queuedMessages, int maxQueuedMessages) {
+        if (maxQueuedMessages < 1) {
+            throw new IllegalArgumentException("Max queued messages must be at least 1");
+        }
+        this.injector = injector;
+        this.queuedMessages = queuedMessages;
+        this.maxQueuedMessages = maxQueuedMessages;
+        this.batch = Math.max(1, maxQueuedMessages / 4);
+    }
+
+    /**
+     * Subscriber for a topology whose {@code deliver} hands a message to the nodes before returning, so the
+     * mailboxes hold its whole backlog. Submissions are rejected while {@code running} is false. Under a
+     * deterministic scheduler they are queued there instead and count towards the backlog until a round runs
+     * them.
+     */
+    public static IngressSubscriber synchronous(Injector deliver, List<Node> nodes, BooleanSupplier running,
+                                                Supplier<DeterministicScheduler> scheduler, int maxQueuedMessages) {
+        IntSupplier queueDepth = queueDepthOf(nodes);
+        return new IngressSubscriber((fromNode, toNode, message) -> {
+            if (!running.getAsBoolean()) {
+                return false;
+            }
+            DeterministicScheduler active = scheduler.get();
+            if (active == null) {
+                return deliver.inject(fromNode, toNode, message);
+            }
+            active.submit(() -> deliver.inject(fromNode, toNode, message));
+            return true;
+        }, () -> {
+            DeterministicScheduler active = scheduler.get();
+            return queueDepth.getAsInt() + (active == null ? 0 : active.getPendingInjectionCount());
+        }, maxQueuedMessages);
+    }
+
+    /**
+     * {@link #synchronous} for a topology that routes each submission through {@code router}.
+     */
+    public static IngressSubscriber routed(MessageRouter router, List<Node> nodes, BooleanSupplier running,
+                                           Supplier<DeterministicScheduler> scheduler, int maxQueuedMessages) {
+        return synchronous((fromNode, toNode, message) -> {
+            router.routeMessage(fromNode, toNode, message);
+            return true;
+        }, nodes, running, scheduler, maxQueuedMessages);
+    }
+
+    /**
+     * Total number of messages waiting in the given nodes' mailboxes, kept up to date by the nodes themselves
+     * through a counter they share.
+     */
+    public static IntSupplier queueDepthOf(List<Node> nodes) {
+        if (nodes.isEmpty()) {
+            return () -> 0;
+        }
+        LongAdder counter = nodes.get(0).trackQueueDepth(new LongAdder());
+        for (Node node : nodes) {
+            node.trackQueueDepth(counter);
+        }
+        return () -> (int) Math.max(0, Math.min(Integer.MAX_VALUE, counter.sum()));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        requestDemand();
+    }
+
+    @Override
+    public void onNext(MessageSubmission submission) {
+        if (injector.inject(submission.fromNode(), submission.toNode(), submission.message())) {
+            acceptedMessages.increment();
+        } else {
+            rejectedMessages.increment();
+        }
+        if (outstanding.decrementAndGet() < batch) {
+            requestDemand();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(null);
+    }
+
+    public void cancel() {
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+        completion.cancel(false);
+    }
+
+    /**
+     * Completes when the publisher completes, exceptionally when it fails.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    public long getAcceptedCount() {
+        return acceptedMessages.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedMessages.sum();
+    }
+
+    /**
+     * Number of times demand ran out because the mailboxes were full.
+     */
+    public long getStallCount() {
+        return stalls.sum();
+    }
+
+    private synchronized void requestDemand() {
+        Flow.Subscription current = subscription;
+        if (current == null || completion.isDone()) {
+            return;
+        }
+        long pending = outstanding.get();
+        long free = maxQueuedMessages - queuedMessages.getAsInt() - pending;
+        if (free >= batch || (free > 0 && pending == 0)) {
+            stalled = false;
+            outstanding.addAndGet(free);
+            current.request(free);
+        } else if (pending == 0) {
+            if (!stalled) {
+                stalled = true;
+                stalls.increment();
+            }
+            scheduleRecheck();
+        }
+    }
+
+    private void scheduleRecheck() {
+        if (recheckScheduled.compareAndSet(false, true)) {
+            CompletableFuture.delayedExecutor(RECHECK_NANOS, TimeUnit.NANOSECONDS).execute(() -> {
+                recheckScheduled.set(false);
+                requestDemand();
+            });
+        }
+    }
+
+    @FunctionalInterface
+    public interface Injector {
+        /**
+         * Hands one message to the network before returning; returns false if the network refused it.
+         */
+        boolean inject(int fromNode, int toNode, String message);
+    }
+}
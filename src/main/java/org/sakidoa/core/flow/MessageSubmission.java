@@ -0,0 +1,4 @@
+package org.sakidoa.core.flow;
+
+public record MessageSubmission(int fromNode, int toNode, String message) {
+}
@@ -0,0 +1,27 @@
+package org.sakidoa.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("org.sakidoa.MailboxDequeue")
+@Label("Mailbox Dequeue")
+@Description("A message taken from a node's mailbox; the duration covers handling or forwarding it")
+@Category({"Network Topology", "Mailbox"})
+@StackTrace(false)
+@Threshold("100 us")
+public class MailboxDequeueEvent extends Event {
+    @Label("Node")
+    public String nodeId;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Queue Depth")
+    @Description("Messages still queued after this one was taken")
+    public int queueDepth;
+}
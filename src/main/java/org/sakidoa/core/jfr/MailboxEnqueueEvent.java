@@ -0,0 +1,29 @@
+package org.sakidoa.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("org.sakidoa.MailboxEnqueue")
+@Label("Mailbox Enqueue")
+@Description("A message offered to a node's mailbox; the duration covers any time spent waiting for space")
+@Category({"Network Topology", "Mailbox"})
+@StackTrace(false)
+@Threshold("10 us")
+public class MailboxEnqueueEvent extends Event {
+    @Label("Node")
+    public String nodeId;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Queue Depth")
+    public int queueDepth;
+
+    @Label("Accepted")
+    public boolean accepted;
+}
@@ -0,0 +1,25 @@
+package org.sakidoa.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.sakidoa.MessageDrop")
+@Label("Message Dropped")
+@Category({"Network Topology", "Node"})
+@StackTrace(false)
+public class MessageDropEvent extends Event {
+    @Label("Node")
+    public String nodeId;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Reason")
+    public String reason;
+
+    @Label("Messages")
+    public long count;
+}
@@ -0,0 +1,22 @@
+package org.sakidoa.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.sakidoa.NodeState")
+@Label("Node State Transition")
+@Category({"Network Topology", "Node"})
+@StackTrace(false)
+public class NodeStateEvent extends Event {
+    @Label("Node")
+    public String nodeId;
+
+    @Label("Previous State")
+    public String previousState;
+
+    @Label("New State")
+    public String newState;
+}
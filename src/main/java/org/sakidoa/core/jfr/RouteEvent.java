@@ -0,0 +1,48 @@
+package org.sakidoa.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("org.sakidoa.Route")
+@Label("Routing Decision")
+@Description("Next-hop selection and hand-off of a message by the message router or a topology's own delivery path")
+@Category({"Network Topology", "Routing"})
+@StackTrace(false)
+@Threshold("10 us")
+public class RouteEvent extends Event {
+    @Label("Current Node")
+    public String currentNode;
+
+    @Label("Next Hop")
+    public String nextHop;
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Accepted")
+    public boolean accepted;
+
+    /**
+     * Fills in the fields and commits the event if the recording keeps it. Called after {@link #end()}, so a
+     * disabled event or one below the threshold costs no field writes.
+     */
+    public void commitHandOff(String currentNode, String nextHop, String destination, String messageType,
+                              boolean accepted) {
+        if (shouldCommit()) {
+            this.currentNode = currentNode;
+            this.nextHop = nextHop;
+            this.destination = destination;
+            this.messageType = messageType;
+            this.accepted = accepted;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.sakidoa.core.link;
+
+import java.util.ArrayDeque;
+
+/**
+ * Point-to-point link with a single transmitter. The output queue is modelled by the departure times of the
+ * frames still waiting for (or undergoing) serialization, so an idle link holds no timers or threads. Besides
+ * the links of a {@link LinkLayer}, it also models switch output ports.
+ */
+public class Link {
+    private final String fromNodeId;
+    private final String toNodeId;
+    private final ArrayDeque<Long> pendingDepartures = new ArrayDeque<>();
+    private volatile LinkConfig config;
+    private long transmitterFreeAtNanos;
+    private long transmittedMessages;
+    private long droppedMessages;
+    private long transmittedBytes;
+    private long busyNanos;
+    private long totalQueueingNanos;
+    private long maxQueueingNanos;
+
+    public Link(String fromNodeId, String toNodeId, LinkConfig config) {
+        this.fromNodeId = fromNodeId;
+        this.toNodeId = toNodeId;
+        this.config = config;
+    }
+
+    /**
+     * Reserves the transmitter for a frame and returns the absolute arrival time at the far end,
+     * or {@code -1} when the output queue is full and the frame is dropped.
+     */
+    public synchronized long schedule(int sizeInBytes, long nowNanos) {
+        discardDeparted(nowNanos);
+        if (pendingDepartures.size() >= config.queueCapacity()) {
+            droppedMessages++;
+            return -1;
+        }
+
+        long transmissionStart = Math.max(nowNanos, transmitterFreeAtNanos);
+        long serializationDelay = config.serializationDelayNanos(sizeInBytes);
+        transmitterFreeAtNanos = transmissionStart + serializationDelay;
+        pendingDepartures.addLast(transmitterFreeAtNanos);
+
+        long queueingDelay = transmissionStart - nowNanos;
+        totalQueueingNanos += queueingDelay;
+        maxQueueingNanos = Math.max(maxQueueingNanos, queueingDelay);
+        busyNanos += serializationDelay;
+        transmittedBytes += sizeInBytes;
+        transmittedMessages++;
+
+        return transmitterFreeAtNanos + config.propagationDelayNanos();
+    }
+
+    public synchronized int getQueueDepth(long nowNanos) {
+        discardDeparted(nowNanos);
+        return pendingDepartures.size();
+    }
+
+    public synchronized LinkMetrics snapshot(long nowNanos, long observedNanos) {
+        discardDeparted(nowNanos);
+        long completedBusyNanos = busyNanos - Math.max(0, transmitterFreeAtNanos - nowNanos);
+        double utilization = observedNanos > 0 ? Math.min(1.0, (double) completedBusyNanos / observedNanos) : 0.0;
+        long averageQueueing = transmittedMessages > 0 ? totalQueueingNanos / transmittedMessages : 0;
+        return new LinkMetrics(fromNodeId, toNodeId, transmittedMessages, droppedMessages, transmittedBytes,
+                pendingDepartures.size(), utilization, averageQueueing, maxQueueingNanos);
+    }
+
+    void setConfig(LinkConfig config) {
+        this.config = config;
+    }
+
+    public String getFromNodeId() {
+        return fromNodeId;
+    }
+
+    public String getToNodeId() {
+        return toNodeId;
+    }
+
+    public LinkConfig getConfig() {
+        return config;
+    }
+
+    private void discardDeparted(long nowNanos) {
+        while (!pendingDepartures.isEmpty() && pendingDepartures.peekFirst() <= nowNanos) {
+            pendingDepartures.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.sakidoa.core.link;
+
+import java.time.Duration;
+
+public record LinkConfig(long propagationDelayNanos, long bandwidthBytesPerSecond, int queueCapacity) {
+
+    public LinkConfig {
+        if (propagationDelayNanos < 0) {
+            throw new IllegalArgumentException("Propagation delay cannot be negative");
+        }
+        if (bandwidthBytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Bandwidth must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+    }
+
+    public static LinkConfig of(Duration propagationDelay, long bandwidthBytesPerSecond, int queueCapacity) {
+        return new LinkConfig(propagationDelay.toNanos(), bandwidthBytesPerSecond, queueCapacity);
+    }
+
+    public long serializationDelayNanos(int sizeInBytes) {
+        return sizeInBytes * 1_000_000_000L / bandwidthBytesPerSecond;
+    }
+}
@@ -0,0 +1,117 @@
+package org.sakidoa.core.link;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.batch.MessageBatch;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Models the physical links between nodes. Links are created on first use and every in-flight frame is
+ * delivered by one shared scheduler, so the cost of the model depends on traffic, not on the number of links.
+ */
+public class LinkLayer implements AutoCloseable {
+    private static final int MESSAGE_HEADER_BYTES = 32;
+
+    private final LinkConfig defaultConfig;
+    private final Map<LinkKey, Link> links = new ConcurrentHashMap<>();
+    private final Map<LinkKey, LinkConfig> linkOverrides = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService deliveryScheduler;
+    private final AtomicLong inFlightMessages = new AtomicLong(0);
+    private final long startNanos = System.nanoTime();
+
+    public LinkLayer(LinkConfig defaultConfig) {
+        this.defaultConfig = defaultConfig;
+        this.deliveryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "link-layer-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void configureLink(Node from, Node to, LinkConfig config) {
+        LinkKey key = new LinkKey(from.getNodeId(), to.getNodeId());
+        linkOverrides.put(key, config);
+        Link existing = links.get(key);
+        if (existing != null) {
+            existing.setConfig(config);
+        }
+    }
+
+    public boolean transmit(Node from, Node to, Message message) {
+        Link link = linkBetween(from, to);
+        long now = System.nanoTime();
+        long arrivalNanos = link.schedule(sizeOf(message), now);
+        if (arrivalNanos < 0) {
+            return false;
+        }
+
+        inFlightMessages.incrementAndGet();
+        deliveryScheduler.schedule(() -> deliver(to, message), arrivalNanos - now, TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    public int getQueueDepth(Node from, Node to) {
+        Link link = links.get(new LinkKey(from.getNodeId(), to.getNodeId()));
+        return link == null ? 0 : link.getQueueDepth(System.nanoTime());
+    }
+
+    public Optional<LinkMetrics> getLinkMetrics(Node from, Node to) {
+        long now = System.nanoTime();
+        return Optional.ofNullable(links.get(new LinkKey(from.getNodeId(), to.getNodeId())))
+                .map(link -> link.snapshot(now, now - startNanos));
+    }
+
+    public List<LinkMetrics> getLinkMetrics() {
+        long now = System.nanoTime();
+        return links.values().stream()
+                .map(link -> link.snapshot(now, now - startNanos))
+                .sorted(Comparator.comparingDouble(LinkMetrics::utilization).reversed())
+                .toList();
+    }
+
+    public int getActiveLinkCount() {
+        return links.size();
+    }
+
+    public long getInFlightMessageCount() {
+        return inFlightMessages.get();
+    }
+
+    @Override
+    public void close() {
+        deliveryScheduler.shutdownNow();
+    }
+
+    private Link linkBetween(Node from, Node to) {
+        return links.computeIfAbsent(new LinkKey(from.getNodeId(), to.getNodeId()),
+                key -> new Link(key.fromNodeId(), key.toNodeId(), linkOverrides.getOrDefault(key, defaultConfig)));
+    }
+
+    private void deliver(Node to, Message message) {
+        inFlightMessages.decrementAndGet();
+        to.receiveMessage(message);
+    }
+
+    public static int sizeOf(Message message) {
+        Object payload = message.getPayload();
+        if (payload instanceof MessageBatch batch) {
+            return MESSAGE_HEADER_BYTES + batch.payloadBytes();
+        }
+        if (payload instanceof byte[] bytes) {
+            return MESSAGE_HEADER_BYTES + bytes.length;
+        }
+        return MESSAGE_HEADER_BYTES + (payload == null ? 0 : payload.toString().length());
+    }
+
+    private record LinkKey(String fromNodeId, String toNodeId) {
+    }
+}
@@ -0,0 +1,6 @@
+package org.sakidoa.core.link;
+
+public record LinkMetrics(String fromNodeId, String toNodeId, long transmittedMessages, long droppedMessages,
+                          long transmittedBytes, int queueDepth, double utilization,
+                          long averageQueueingDelayNanos, long maxQueueingDelayNanos) {
+}
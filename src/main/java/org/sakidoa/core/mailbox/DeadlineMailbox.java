@@ -0,0 +1,134 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.Message;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Earliest-deadline-first mailbox. Messages with the nearest deadline are handed out first, messages without
+ * a deadline come last, and ties keep arrival order. Once a backlog builds up, the messages that can still
+ * make their deadline are served before those that have a long way to go, and already expired messages
+ * surface at the head, where the node discards them.
+ */
+public class DeadlineMailbox implements Mailbox {
+    private final int capacity;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger count = new AtomicInteger(0);
+    private long nextSequence;
+
+    public DeadlineMailbox() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public DeadlineMailbox(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Mailbox capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean offer(Message message) {
+        lock.lock();
+        try {
+            return count.get() < capacity && enqueue(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Message message, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count.get() >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return enqueue(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Message poll() {
+        if (count.get() == 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return count.get() == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Message poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int clear() {
+        lock.lock();
+        try {
+            int discarded = queue.size();
+            queue.clear();
+            count.set(0);
+            notFull.signalAll();
+            return discarded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean enqueue(Message message) {
+        queue.add(new Entry(message, nextSequence++));
+        count.incrementAndGet();
+        notEmpty.signal();
+        return true;
+    }
+
+    private Message dequeue() {
+        Message message = queue.poll().message();
+        count.decrementAndGet();
+        notFull.signal();
+        return message;
+    }
+
+    private record Entry(Message message, long sequence) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byDeadline = Long.compare(message.getDeadline(), other.message.getDeadline());
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class FifoMailbox implements Mailbox {
+    private final BlockingQueue<Message> queue;
+
+    public FifoMailbox() {
+        this.queue = new LinkedBlockingQueue<>();
+    }
+
+    public FifoMailbox(int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public boolean offer(Message message) {
+        return queue.offer(message);
+    }
+
+    @Override
+    public boolean offer(Message message, long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.offer(message, timeout, unit);
+    }
+
+    @Override
+    public Message poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public Message poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int clear() {
+        List<Message> discarded = new ArrayList<>();
+        return queue.drainTo(discarded);
+    }
+}
@@ -0,0 +1,35 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.enums.MessageType;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+public record LaneConfig(Set<MessageType> types, int weight, int capacity) {
+
+    public LaneConfig {
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("Lane must carry at least one message type");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Lane weight must be positive");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Lane capacity must be positive");
+        }
+        types = Collections.unmodifiableSet(EnumSet.copyOf(types));
+    }
+
+    public LaneConfig(MessageType type, int weight, int capacity) {
+        this(Set.of(type), weight, capacity);
+    }
+
+    public static LaneConfig unbounded(MessageType type, int weight) {
+        return new LaneConfig(type, weight, Integer.MAX_VALUE);
+    }
+
+    public static LaneConfig unbounded(Set<MessageType> types, int weight) {
+        return new LaneConfig(types, weight, Integer.MAX_VALUE);
+    }
+}
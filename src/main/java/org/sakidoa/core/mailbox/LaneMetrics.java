@@ -0,0 +1,9 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.enums.MessageType;
+
+import java.util.Set;
+
+public record LaneMetrics(Set<MessageType> types, int depth, long enqueued, long dequeued, long rejected,
+                          long averageQueueingNanos, long maxQueueingNanos) {
+}
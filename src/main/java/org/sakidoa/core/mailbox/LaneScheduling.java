@@ -0,0 +1,5 @@
+package org.sakidoa.core.mailbox;
+
+public enum LaneScheduling {
+    STRICT, WEIGHTED
+}
@@ -0,0 +1,32 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.Message;
+
+import java.util.concurrent.TimeUnit;
+
+public interface Mailbox {
+    boolean offer(Message message);
+
+    boolean offer(Message message, long timeout, TimeUnit unit) throws InterruptedException;
+
+    Message poll();
+
+    Message poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Discards every queued message and returns how many were dropped.
+     */
+    int clear();
+
+    /**
+     * Releases resources held outside the heap once the owning node has stopped.
+     */
+    default void close() {
+    }
+}
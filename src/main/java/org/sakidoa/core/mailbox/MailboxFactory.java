@@ -0,0 +1,9 @@
+package org.sakidoa.core.mailbox;
+
+@FunctionalInterface
+public interface MailboxFactory {
+    MailboxFactory FIFO = nodeId -> new FifoMailbox();
+    MailboxFactory EARLIEST_DEADLINE_FIRST = nodeId -> new DeadlineMailbox();
+
+    Mailbox create(String nodeId);
+}
@@ -0,0 +1,238 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.trace.MessageTrace;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flat binary encoding of a {@link Message} for mailboxes that keep their backlog outside the heap.
+ * Strings, byte arrays and boxed longs/ints are written inline; any other payload stays on the heap and
+ * only a reference id is encoded, so every message can be stored without giving up FIFO order. A sampled
+ * message's trace is kept by reference the same way, and the creation time is written so the decoded
+ * message reports the same age as the one that was offered.
+ * All reads and writes use absolute offsets, so producers can encode into disjoint regions concurrently.
+ */
+public class MessageCodec {
+    private static final MessageType[] TYPES = MessageType.values();
+    private static final byte NULL_PAYLOAD = 0;
+    private static final byte STRING_PAYLOAD = 1;
+    private static final byte BYTES_PAYLOAD = 2;
+    private static final byte LONG_PAYLOAD = 3;
+    private static final byte INTEGER_PAYLOAD = 4;
+    private static final byte REFERENCE_PAYLOAD = 5;
+    private static final byte LATIN1 = 0;
+    private static final byte UTF16 = 1;
+    private static final long NO_REFERENCE = -1;
+    private static final int HEADER_LONGS = 5;
+    private static final int FIXED_BYTES = 1 + Long.BYTES * HEADER_LONGS + 1;
+
+    private final Map<Long, Object> heapPayloads = new ConcurrentHashMap<>();
+    private final AtomicLong nextReference = new AtomicLong();
+
+    public int encodedSize(Message message) {
+        return FIXED_BYTES + stringSize(message.getSenderId()) + stringSize(message.getReceiverId())
+                + payloadSize(message.getPayload());
+    }
+
+    public int encode(Message message, ByteBuffer buffer, int offset) {
+        int position = offset;
+        buffer.put(position, (byte) message.getType().ordinal());
+        buffer.putLong(position + 1, message.getTimestamp());
+        buffer.putLong(position + 1 + Long.BYTES, message.getCorrelationId());
+        buffer.putLong(position + 1 + Long.BYTES * 2, message.getDeadline());
+        buffer.putLong(position + 1 + Long.BYTES * 3, message.getCreatedNanos());
+        MessageTrace trace = message.getTrace();
+        buffer.putLong(position + 1 + Long.BYTES * 4, trace == null ? NO_REFERENCE : retain(trace));
+        position += 1 + Long.BYTES * HEADER_LONGS;
+        position = putString(buffer, position, message.getSenderId());
+        position = putString(buffer, position, message.getReceiverId());
+        return putPayload(buffer, position, message.getPayload()) - offset;
+    }
+
+    public Message decode(ByteBuffer buffer, int offset) {
+        MessageType type = TYPES[buffer.get(offset)];
+        long timestamp = buffer.getLong(offset + 1);
+        long correlationId = buffer.getLong(offset + 1 + Long.BYTES);
+        long deadline = buffer.getLong(offset + 1 + Long.BYTES * 2);
+        long createdNanos = buffer.getLong(offset + 1 + Long.BYTES * 3);
+        long traceReference = buffer.getLong(offset + 1 + Long.BYTES * 4);
+        int position = offset + 1 + Long.BYTES * HEADER_LONGS;
+
+        String senderId = getString(buffer, position);
+        position += stringSize(senderId);
+        String receiverId = getString(buffer, position);
+        position += stringSize(receiverId);
+
+        Message message = new Message(type, senderId, getPayload(buffer, position), timestamp, createdNanos);
+        message.setReceiverId(receiverId);
+        message.setCorrelationId(correlationId);
+        message.setDeadline(deadline);
+        if (traceReference != NO_REFERENCE) {
+            message.setTrace((MessageTrace) heapPayloads.remove(traceReference));
+        }
+        return message;
+    }
+
+    /**
+     * Drops the heap references held for an encoded message that will never be decoded, such as one
+     * discarded by {@link Mailbox#clear()}, without materialising its strings.
+     */
+    public void release(ByteBuffer buffer, int offset) {
+        long traceReference = buffer.getLong(offset + 1 + Long.BYTES * 4);
+        if (traceReference != NO_REFERENCE) {
+            heapPayloads.remove(traceReference);
+        }
+        int position = skipString(buffer, offset + 1 + Long.BYTES * HEADER_LONGS);
+        position = skipString(buffer, position);
+        if (buffer.get(position) == REFERENCE_PAYLOAD) {
+            heapPayloads.remove(buffer.getLong(position + 1));
+        }
+    }
+
+    public int getHeapPayloadCount() {
+        return heapPayloads.size();
+    }
+
+    private static int stringSize(String value) {
+        if (value == null) {
+            return Integer.BYTES;
+        }
+        return Integer.BYTES + 1 + (isLatin1(value) ? value.length() : value.length() * 2);
+    }
+
+    private static int payloadSize(Object payload) {
+        if (payload == null) {
+            return 0;
+        }
+        if (payload instanceof String value) {
+            return stringSize(value);
+        }
+        if (payload instanceof byte[] bytes) {
+            return Integer.BYTES + bytes.length;
+        }
+        if (payload instanceof Integer) {
+            return Integer.BYTES;
+        }
+        return Long.BYTES;
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int putString(ByteBuffer buffer, int position, String value) {
+        if (value == null) {
+            buffer.putInt(position, -1);
+            return position + Integer.BYTES;
+        }
+        int length = value.length();
+        buffer.putInt(position, length);
+        position += Integer.BYTES;
+        if (isLatin1(value)) {
+            buffer.put(position++, LATIN1);
+            for (int i = 0; i < length; i++) {
+                buffer.put(position + i, (byte) value.charAt(i));
+            }
+            return position + length;
+        }
+        buffer.put(position++, UTF16);
+        for (int i = 0; i < length; i++) {
+            buffer.putChar(position + i * 2, value.charAt(i));
+        }
+        return position + length * 2;
+    }
+
+    private static int skipString(ByteBuffer buffer, int position) {
+        int length = buffer.getInt(position);
+        if (length < 0) {
+            return position + Integer.BYTES;
+        }
+        int width = buffer.get(position + Integer.BYTES) == LATIN1 ? 1 : 2;
+        return position + Integer.BYTES + 1 + length * width;
+    }
+
+    private static String getString(ByteBuffer buffer, int position) {
+        int length = buffer.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        position += Integer.BYTES;
+        if (buffer.get(position++) == LATIN1) {
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(position + i * 2);
+        }
+        return new String(chars);
+    }
+
+    private int putPayload(ByteBuffer buffer, int position, Object payload) {
+        if (payload == null) {
+            buffer.put(position, NULL_PAYLOAD);
+            return position + 1;
+        }
+        if (payload instanceof String value) {
+            buffer.put(position, STRING_PAYLOAD);
+            return putString(buffer, position + 1, value);
+        }
+        if (payload instanceof byte[] bytes) {
+            buffer.put(position, BYTES_PAYLOAD);
+            buffer.putInt(position + 1, bytes.length);
+            buffer.put(position + 1 + Integer.BYTES, bytes);
+            return position + 1 + Integer.BYTES + bytes.length;
+        }
+        if (payload instanceof Integer value) {
+            buffer.put(position, INTEGER_PAYLOAD);
+            buffer.putInt(position + 1, value);
+            return position + 1 + Integer.BYTES;
+        }
+
+        long value;
+        if (payload instanceof Long longValue) {
+            buffer.put(position, LONG_PAYLOAD);
+            value = longValue;
+        } else {
+            buffer.put(position, REFERENCE_PAYLOAD);
+            value = retain(payload);
+        }
+        buffer.putLong(position + 1, value);
+        return position + 1 + Long.BYTES;
+    }
+
+    private long retain(Object value) {
+        long reference = nextReference.getAndIncrement();
+        heapPayloads.put(reference, value);
+        return reference;
+    }
+
+    private Object getPayload(ByteBuffer buffer, int position) {
+        byte tag = buffer.get(position);
+        return switch (tag) {
+            case NULL_PAYLOAD -> null;
+            case STRING_PAYLOAD -> getString(buffer, position + 1);
+            case BYTES_PAYLOAD -> {
+                byte[] bytes = new byte[buffer.getInt(position + 1)];
+                buffer.get(position + 1 + Integer.BYTES, bytes);
+                yield bytes;
+            }
+            case INTEGER_PAYLOAD -> buffer.getInt(position + 1);
+            case LONG_PAYLOAD -> buffer.getLong(position + 1);
+            case REFERENCE_PAYLOAD -> heapPayloads.remove(buffer.getLong(position + 1));
+            default -> throw new IllegalStateException("Unknown payload tag: " + tag);
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package org.sakidoa.core.mailbox;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Upper bound on the direct memory that off-heap mailboxes may reserve, shared by every mailbox created
+ * from the same factory.
+ */
+public class OffHeapBudget {
+    private final long maxBytes;
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    public OffHeapBudget(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Off-heap budget must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public static OffHeapBudget unlimited() {
+        return new OffHeapBudget(Long.MAX_VALUE);
+    }
+
+    public boolean tryReserve(long bytes) {
+        long current;
+        do {
+            current = reservedBytes.get();
+            if (bytes > maxBytes - current) {
+                return false;
+            }
+        } while (!reservedBytes.compareAndSet(current, current + bytes));
+        return true;
+    }
+
+    public void release(long bytes) {
+        reservedBytes.addAndGet(-bytes);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+}
@@ -0,0 +1,253 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.Message;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mailbox whose backlog lives in a direct-memory ring instead of on the heap. Producers claim space by
+ * advancing the tail with a CAS, encode the message with {@link MessageCodec} and publish it by writing
+ * the record length last; the owning node is the single consumer. A message only exists as a heap object
+ * while it is being handled. The ring is reserved from an {@link OffHeapBudget} on first use and returned
+ * when the node stops; offers fail when either the ring or the budget is exhausted.
+ */
+public class OffHeapMailbox implements Mailbox {
+    public static final int DEFAULT_CAPACITY_BYTES = 1 << 20;
+    private static final int MIN_CAPACITY_BYTES = 1 << 12;
+    private static final int HEADER_BYTES = 8;
+    private static final int ALIGNMENT = 8;
+    private static final long OFFER_BACKOFF_NANOS = 50_000;
+    private static final VarHandle RECORD_LENGTH =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            TAIL = MethodHandles.lookup().findVarHandle(OffHeapMailbox.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final OffHeapBudget budget;
+    private final MessageCodec codec = new MessageCodec();
+    private final AtomicInteger count = new AtomicInteger();
+    private final LongAdder rejectedMessages = new LongAdder();
+    private volatile ByteBuffer buffer;
+    private volatile boolean closed;
+    private volatile long head;
+    private volatile long tail;
+    private volatile Thread waitingConsumer;
+
+    public OffHeapMailbox() {
+        this(DEFAULT_CAPACITY_BYTES, OffHeapBudget.unlimited());
+    }
+
+    public OffHeapMailbox(int capacityBytes, OffHeapBudget budget) {
+        this.capacity = Math.max(MIN_CAPACITY_BYTES, Integer.highestOneBit(Math.max(1, capacityBytes - 1)) << 1);
+        this.mask = capacity - 1;
+        this.budget = budget;
+    }
+
+    public static MailboxFactory factory(int capacityBytesPerNode, OffHeapBudget globalBudget) {
+        return nodeId -> new OffHeapMailbox(capacityBytesPerNode, globalBudget);
+    }
+
+    @Override
+    public boolean offer(Message message) {
+        ByteBuffer ring = ensureAllocated();
+        if (ring == null) {
+            rejectedMessages.increment();
+            return false;
+        }
+
+        int length = HEADER_BYTES + codec.encodedSize(message);
+        int required = align(length);
+        int index = claim(ring, required);
+        if (index < 0) {
+            rejectedMessages.increment();
+            return false;
+        }
+
+        // Counted before it is published, so the consumer can never decrement first.
+        count.incrementAndGet();
+        codec.encode(message, ring, index + HEADER_BYTES);
+        RECORD_LENGTH.setVolatile(ring, index, length);
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean offer(Message message, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(message)) {
+            if (closed || System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(this, OFFER_BACKOFF_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Message poll() {
+        ByteBuffer ring = buffer;
+        if (ring == null) {
+            return null;
+        }
+
+        while (true) {
+            long currentHead = head;
+            int index = (int) currentHead & mask;
+            int length = (int) RECORD_LENGTH.getVolatile(ring, index);
+            if (length == 0) {
+                return null;
+            }
+            if (length < 0) {
+                zero(ring, index, -length);
+                head = currentHead - length;
+                continue;
+            }
+
+            Message message = codec.decode(ring, index + HEADER_BYTES);
+            int recordBytes = align(length);
+            zero(ring, index, recordBytes);
+            head = currentHead + recordBytes;
+            count.decrementAndGet();
+            return message;
+        }
+    }
+
+    @Override
+    public Message poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            Message message = poll();
+            if (message != null) {
+                return message;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+
+            waitingConsumer = Thread.currentThread();
+            message = poll();
+            if (message == null) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            waitingConsumer = null;
+            if (message != null) {
+                return message;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int clear() {
+        int discarded = 0;
+        while (poll() != null) {
+            discarded++;
+        }
+        return discarded;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (buffer != null) {
+            buffer = null;
+            budget.release(capacity);
+        }
+    }
+
+    public int getCapacityBytes() {
+        return capacity;
+    }
+
+    public long getUsedBytes() {
+        return tail - head;
+    }
+
+    public boolean isAllocated() {
+        return buffer != null;
+    }
+
+    public long getRejectedCount() {
+        return rejectedMessages.sum();
+    }
+
+    public int getHeapPayloadCount() {
+        return codec.getHeapPayloadCount();
+    }
+
+    private ByteBuffer ensureAllocated() {
+        ByteBuffer ring = buffer;
+        if (ring != null || closed) {
+            return ring;
+        }
+        synchronized (this) {
+            if (buffer == null && !closed && budget.tryReserve(capacity)) {
+                buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+            }
+            return buffer;
+        }
+    }
+
+    private int claim(ByteBuffer ring, int required) {
+        if (required > capacity) {
+            return -1;
+        }
+        while (true) {
+            long currentHead = head;
+            long currentTail = tail;
+            int available = capacity - (int) (currentTail - currentHead);
+            int tailIndex = (int) currentTail & mask;
+            int toEnd = capacity - tailIndex;
+            int padding = required > toEnd ? toEnd : 0;
+            if (required + padding > available) {
+                return -1;
+            }
+            if (TAIL.compareAndSet(this, currentTail, currentTail + required + padding)) {
+                if (padding == 0) {
+                    return tailIndex;
+                }
+                RECORD_LENGTH.setVolatile(ring, tailIndex, -padding);
+                return 0;
+            }
+        }
+    }
+
+    private static void zero(ByteBuffer ring, int index, int length) {
+        for (int offset = 0; offset < length; offset += Long.BYTES) {
+            ring.putLong(index + offset, 0L);
+        }
+    }
+
+    private static int align(int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
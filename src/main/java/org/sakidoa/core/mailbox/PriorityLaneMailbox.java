@@ -0,0 +1,291 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.enums.MessageType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mailbox with bounded lanes, each carrying one or more {@link MessageType}s, and every type carried by exactly
+ * one lane. Lanes are listed from highest to lowest priority and served either strictly in that order or by
+ * smooth weighted round-robin. The DATA lane is protected from starvation by a bounded share: once its oldest
+ * message has waited longer than the threshold, it gets one message through for every
+ * {@code starvationInterval} messages taken from the other lanes, so a deep DATA backlog can never push
+ * control traffic back behind it.
+ */
+public class PriorityLaneMailbox implements Mailbox {
+    private static final Duration DEFAULT_STARVATION_THRESHOLD = Duration.ofMillis(100);
+    private static final int DEFAULT_STARVATION_INTERVAL = 16;
+
+    private final LaneScheduling scheduling;
+    private final Lane[] lanes;
+    private final Lane[] lanesByType;
+    private final Lane starvationProtectedLane;
+    private final long starvationThresholdNanos;
+    private final int starvationInterval;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger count = new AtomicInteger(0);
+    private int dequeuesSinceProtectedLane;
+
+    public PriorityLaneMailbox(LaneScheduling scheduling, List<LaneConfig> lanesInPriorityOrder,
+                               Duration dataStarvationThreshold) {
+        this(scheduling, lanesInPriorityOrder, dataStarvationThreshold, DEFAULT_STARVATION_INTERVAL);
+    }
+
+    public PriorityLaneMailbox(LaneScheduling scheduling, List<LaneConfig> lanesInPriorityOrder,
+                               Duration dataStarvationThreshold, int starvationInterval) {
+        if (lanesInPriorityOrder.isEmpty()) {
+            throw new IllegalArgumentException("At least one lane is required");
+        }
+        if (starvationInterval <= 0) {
+            throw new IllegalArgumentException("Starvation interval must be positive");
+        }
+        this.scheduling = scheduling;
+        this.lanes = lanesInPriorityOrder.stream().map(Lane::new).toArray(Lane[]::new);
+        this.lanesByType = new Lane[MessageType.values().length];
+        for (Lane lane : lanes) {
+            for (MessageType type : lane.config.types()) {
+                if (lanesByType[type.ordinal()] != null) {
+                    throw new IllegalArgumentException("Message type " + type + " is assigned to two lanes");
+                }
+                lanesByType[type.ordinal()] = lane;
+            }
+        }
+        for (MessageType type : MessageType.values()) {
+            if (lanesByType[type.ordinal()] == null) {
+                throw new IllegalArgumentException("Message type " + type + " has no lane");
+            }
+        }
+        this.starvationProtectedLane = lanesByType[MessageType.DATA.ordinal()];
+        this.starvationThresholdNanos = dataStarvationThreshold.toNanos();
+        this.starvationInterval = starvationInterval;
+    }
+
+    public static PriorityLaneMailbox strict() {
+        return new PriorityLaneMailbox(LaneScheduling.STRICT, defaultLanes(1, 1, 1, 1, 1, 1),
+                DEFAULT_STARVATION_THRESHOLD);
+    }
+
+    public static PriorityLaneMailbox weighted() {
+        return new PriorityLaneMailbox(LaneScheduling.WEIGHTED, defaultLanes(8, 4, 2, 4, 2, 1),
+                DEFAULT_STARVATION_THRESHOLD);
+    }
+
+    // Request/reply and collective traffic sits between control and bulk data; batches and floods carry data.
+    private static List<LaneConfig> defaultLanes(int control, int heartbeat, int topology, int request,
+                                                 int collective, int data) {
+        return List.of(
+                LaneConfig.unbounded(MessageType.CONTROL, control),
+                LaneConfig.unbounded(MessageType.HEARTBEAT, heartbeat),
+                LaneConfig.unbounded(MessageType.TOPOLOGY_UPDATE, topology),
+                LaneConfig.unbounded(EnumSet.of(MessageType.REQUEST, MessageType.REPLY), request),
+                LaneConfig.unbounded(EnumSet.of(MessageType.COLLECTIVE, MessageType.AGGREGATE), collective),
+                LaneConfig.unbounded(EnumSet.of(MessageType.DATA, MessageType.BATCH, MessageType.FLOOD), data));
+    }
+
+    @Override
+    public boolean offer(Message message) {
+        Lane lane = laneFor(message);
+        lock.lock();
+        try {
+            return enqueue(lane, message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Message message, long timeout, TimeUnit unit) throws InterruptedException {
+        Lane lane = laneFor(message);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (lane.isFull()) {
+                if (nanos <= 0) {
+                    return enqueue(lane, message);
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return enqueue(lane, message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Message poll() {
+        if (count.get() == 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return count.get() == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Message poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int clear() {
+        lock.lock();
+        try {
+            int discarded = 0;
+            for (Lane lane : lanes) {
+                discarded += lane.queue.size();
+                lane.queue.clear();
+            }
+            count.set(0);
+            notFull.signalAll();
+            return discarded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<LaneMetrics> getLaneMetrics() {
+        lock.lock();
+        try {
+            return Arrays.stream(lanes).map(Lane::snapshot).toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LaneScheduling getScheduling() {
+        return scheduling;
+    }
+
+    private Lane laneFor(Message message) {
+        return lanesByType[message.getType().ordinal()];
+    }
+
+    private boolean enqueue(Lane lane, Message message) {
+        if (lane.isFull()) {
+            lane.rejected++;
+            return false;
+        }
+        lane.queue.addLast(new QueuedMessage(message, System.nanoTime()));
+        lane.enqueued++;
+        count.incrementAndGet();
+        notEmpty.signal();
+        return true;
+    }
+
+    private Message dequeue() {
+        long now = System.nanoTime();
+        Lane lane = selectLane(now);
+        boolean wasFull = lane.isFull();
+        QueuedMessage queued = lane.queue.pollFirst();
+        count.decrementAndGet();
+        dequeuesSinceProtectedLane = lane == starvationProtectedLane ? 0 : dequeuesSinceProtectedLane + 1;
+        lane.recordDequeue(now - queued.enqueuedNanos());
+        if (wasFull) {
+            notFull.signalAll();
+        }
+        return queued.message();
+    }
+
+    private Lane selectLane(long now) {
+        QueuedMessage oldestData = starvationProtectedLane.queue.peekFirst();
+        if (oldestData != null && dequeuesSinceProtectedLane >= starvationInterval
+                && now - oldestData.enqueuedNanos() >= starvationThresholdNanos) {
+            return starvationProtectedLane;
+        }
+        return scheduling == LaneScheduling.STRICT ? firstNonEmptyLane() : nextWeightedLane();
+    }
+
+    private Lane firstNonEmptyLane() {
+        for (Lane lane : lanes) {
+            if (!lane.queue.isEmpty()) {
+                return lane;
+            }
+        }
+        throw new IllegalStateException("Mailbox count is positive but every lane is empty");
+    }
+
+    private Lane nextWeightedLane() {
+        Lane selected = null;
+        int totalWeight = 0;
+        for (Lane lane : lanes) {
+            if (lane.queue.isEmpty()) {
+                continue;
+            }
+            lane.currentWeight += lane.config.weight();
+            totalWeight += lane.config.weight();
+            if (selected == null || lane.currentWeight > selected.currentWeight) {
+                selected = lane;
+            }
+        }
+        if (selected == null) {
+            throw new IllegalStateException("Mailbox count is positive but every lane is empty");
+        }
+        selected.currentWeight -= totalWeight;
+        return selected;
+    }
+
+    private static final class Lane {
+        private final LaneConfig config;
+        private final ArrayDeque<QueuedMessage> queue = new ArrayDeque<>();
+        private int currentWeight;
+        private long enqueued;
+        private long dequeued;
+        private long rejected;
+        private long totalQueueingNanos;
+        private long maxQueueingNanos;
+
+        private Lane(LaneConfig config) {
+            this.config = config;
+        }
+
+        private boolean isFull() {
+            return queue.size() >= config.capacity();
+        }
+
+        private void recordDequeue(long queueingNanos) {
+            dequeued++;
+            totalQueueingNanos += queueingNanos;
+            maxQueueingNanos = Math.max(maxQueueingNanos, queueingNanos);
+        }
+
+        private LaneMetrics snapshot() {
+            long average = dequeued > 0 ? totalQueueingNanos / dequeued : 0;
+            return new LaneMetrics(config.types(), queue.size(), enqueued, dequeued, rejected, average,
+                    maxQueueingNanos);
+        }
+    }
+
+    private record QueuedMessage(Message message, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,42 @@
+package org.sakidoa.core.mailbox;
+
+import java.nio.file.Path;
+
+public record SpillConfig(Path directory, int memoryWatermark, int segmentBytes, int maxRecycledSegments,
+                          long maxSpillBytes) {
+    public static final int DEFAULT_MEMORY_WATERMARK = 10_000;
+    public static final int DEFAULT_SEGMENT_BYTES = 16 << 20;
+    public static final int DEFAULT_MAX_RECYCLED_SEGMENTS = 2;
+
+    public SpillConfig {
+        if (memoryWatermark < 1) {
+            throw new IllegalArgumentException("Memory watermark must be at least 1");
+        }
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Spill segments must be at least 4096 bytes");
+        }
+        if (maxRecycledSegments < 0) {
+            throw new IllegalArgumentException("Recycled segment count must not be negative");
+        }
+        if (maxSpillBytes <= 0) {
+            throw new IllegalArgumentException("Spill limit must be positive");
+        }
+    }
+
+    public static SpillConfig of(Path directory) {
+        return new SpillConfig(directory, DEFAULT_MEMORY_WATERMARK, DEFAULT_SEGMENT_BYTES,
+                DEFAULT_MAX_RECYCLED_SEGMENTS, Long.MAX_VALUE);
+    }
+
+    public SpillConfig withMemoryWatermark(int memoryWatermark) {
+        return new SpillConfig(directory, memoryWatermark, segmentBytes, maxRecycledSegments, maxSpillBytes);
+    }
+
+    public SpillConfig withSegmentBytes(int segmentBytes) {
+        return new SpillConfig(directory, memoryWatermark, segmentBytes, maxRecycledSegments, maxSpillBytes);
+    }
+
+    public SpillConfig withMaxSpillBytes(long maxSpillBytes) {
+        return new SpillConfig(directory, memoryWatermark, segmentBytes, maxRecycledSegments, maxSpillBytes);
+    }
+}
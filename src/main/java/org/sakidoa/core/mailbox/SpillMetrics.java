@@ -0,0 +1,7 @@
+package org.sakidoa.core.mailbox;
+
+public record SpillMetrics(int inMemoryMessages, long spilledMessages, long spilledBytes,
+                           long totalSpilledMessages, long totalSpilledBytes, long totalReadBackMessages,
+                           long totalReadBackBytes, double readBackMessagesPerSecond, int activeSegments,
+                           long recycledSegments) {
+}
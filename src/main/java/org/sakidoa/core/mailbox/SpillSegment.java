@@ -0,0 +1,87 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.Message;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only, memory-mapped file holding length-prefixed encoded messages. The backing file is unlinked
+ * right after mapping, so segments never outlive the process and can be reset and reused once read.
+ */
+final class SpillSegment {
+    static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int readPosition;
+
+    private SpillSegment(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    static SpillSegment create(Path directory, String prefix, int sizeInBytes) {
+        try {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, prefix, ".spill");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeInBytes);
+                buffer.order(ByteOrder.nativeOrder());
+                return new SpillSegment(buffer);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create spill segment in " + directory, e);
+        }
+    }
+
+    boolean hasRoomFor(int encodedBytes) {
+        return writePosition + LENGTH_PREFIX_BYTES + encodedBytes <= buffer.capacity();
+    }
+
+    int append(MessageCodec codec, Message message, int encodedBytes) {
+        buffer.putInt(writePosition, encodedBytes);
+        codec.encode(message, buffer, writePosition + LENGTH_PREFIX_BYTES);
+        writePosition += LENGTH_PREFIX_BYTES + encodedBytes;
+        return LENGTH_PREFIX_BYTES + encodedBytes;
+    }
+
+    boolean hasUnread() {
+        return readPosition < writePosition;
+    }
+
+    int peekRecordBytes() {
+        return LENGTH_PREFIX_BYTES + buffer.getInt(readPosition);
+    }
+
+    Message read(MessageCodec codec) {
+        int encodedBytes = buffer.getInt(readPosition);
+        Message message = codec.decode(buffer, readPosition + LENGTH_PREFIX_BYTES);
+        readPosition += LENGTH_PREFIX_BYTES + encodedBytes;
+        return message;
+    }
+
+    void discardUnread(MessageCodec codec) {
+        while (readPosition < writePosition) {
+            int encodedBytes = buffer.getInt(readPosition);
+            codec.release(buffer, readPosition + LENGTH_PREFIX_BYTES);
+            readPosition += LENGTH_PREFIX_BYTES + encodedBytes;
+        }
+    }
+
+    void reset() {
+        writePosition = 0;
+        readPosition = 0;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+}
@@ -0,0 +1,277 @@
+package org.sakidoa.core.mailbox;
+
+import org.sakidoa.core.Message;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mailbox that keeps up to {@link SpillConfig#memoryWatermark()} messages on the heap and appends the rest
+ * to memory-mapped spill segments. Once spilling starts, every new message goes to disk until the spilled
+ * backlog has been read back, so the node still sees its messages in arrival order. Drained segments are
+ * kept for reuse up to {@link SpillConfig#maxRecycledSegments()}. A timed offer that finds the spill
+ * budget exhausted waits until reads free enough of it or the timeout passes.
+ */
+public class SpillingMailbox implements Mailbox {
+    private final String nodeId;
+    private final SpillConfig config;
+    private final MessageCodec codec = new MessageCodec();
+    private final ArrayDeque<Message> memory = new ArrayDeque<>();
+    private final ArrayDeque<SpillSegment> segments = new ArrayDeque<>();
+    private final ArrayDeque<SpillSegment> recycled = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger count = new AtomicInteger(0);
+    private boolean closed;
+    private long spilledMessages;
+    private long spilledBytes;
+    private long totalSpilledMessages;
+    private long totalSpilledBytes;
+    private long totalReadBackMessages;
+    private long totalReadBackBytes;
+    private long recycledSegmentCount;
+    private long rejectedMessages;
+    private long drainStartNanos;
+    private long drainLastNanos;
+    private long drainMessages;
+
+    public SpillingMailbox(String nodeId, SpillConfig config) {
+        this.nodeId = nodeId;
+        this.config = config;
+    }
+
+    public static MailboxFactory factory(SpillConfig config) {
+        return nodeId -> new SpillingMailbox(nodeId, config);
+    }
+
+    @Override
+    public boolean offer(Message message) {
+        lock.lock();
+        try {
+            return enqueue(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Message message, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!closed && nanos > 0 && mustWaitForRoom(message)) {
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return enqueue(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Message poll() {
+        if (count.get() == 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return count.get() == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Message poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int clear() {
+        lock.lock();
+        try {
+            int discarded = count.get();
+            memory.clear();
+            while (!segments.isEmpty()) {
+                SpillSegment segment = segments.pollFirst();
+                segment.discardUnread(codec);
+                recycle(segment);
+            }
+            spilledMessages = 0;
+            spilledBytes = 0;
+            count.set(0);
+            notFull.signalAll();
+            return discarded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            clear();
+            recycled.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public SpillConfig getConfig() {
+        return config;
+    }
+
+    public SpillMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new SpillMetrics(memory.size(), spilledMessages, spilledBytes, totalSpilledMessages,
+                    totalSpilledBytes, totalReadBackMessages, totalReadBackBytes, readBackRate(),
+                    segments.size(), recycledSegmentCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejectedMessages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getHeapPayloadCount() {
+        return codec.getHeapPayloadCount();
+    }
+
+    private boolean enqueue(Message message) {
+        if (closed) {
+            rejectedMessages++;
+            return false;
+        }
+        if (spilledMessages == 0 && memory.size() < config.memoryWatermark()) {
+            memory.addLast(message);
+        } else if (!spill(message)) {
+            rejectedMessages++;
+            return false;
+        }
+        count.incrementAndGet();
+        notEmpty.signal();
+        return true;
+    }
+
+    // Waiting only helps while reads can still free enough of the spill budget for this record.
+    private boolean mustWaitForRoom(Message message) {
+        if (spilledMessages == 0 && memory.size() < config.memoryWatermark()) {
+            return false;
+        }
+        long recordBytes = SpillSegment.LENGTH_PREFIX_BYTES + codec.encodedSize(message);
+        return recordBytes <= config.maxSpillBytes() && spilledBytes + recordBytes > config.maxSpillBytes();
+    }
+
+    private boolean spill(Message message) {
+        int encodedBytes = codec.encodedSize(message);
+        int recordBytes = SpillSegment.LENGTH_PREFIX_BYTES + encodedBytes;
+        if (spilledBytes + recordBytes > config.maxSpillBytes()) {
+            return false;
+        }
+
+        if (spilledMessages == 0) {
+            drainMessages = 0;
+        }
+        SpillSegment tail = segments.peekLast();
+        if (tail == null || !tail.hasRoomFor(encodedBytes)) {
+            tail = acquireSegment(recordBytes);
+            segments.addLast(tail);
+        }
+        tail.append(codec, message, encodedBytes);
+        spilledMessages++;
+        spilledBytes += recordBytes;
+        totalSpilledMessages++;
+        totalSpilledBytes += recordBytes;
+        return true;
+    }
+
+    private Message dequeue() {
+        Message message = memory.pollFirst();
+        if (message == null) {
+            message = readBack();
+        }
+        count.decrementAndGet();
+        return message;
+    }
+
+    private Message readBack() {
+        SpillSegment head = segments.peekFirst();
+        while (!head.hasUnread()) {
+            recycle(segments.pollFirst());
+            head = segments.peekFirst();
+        }
+
+        long now = System.nanoTime();
+        if (drainMessages == 0) {
+            drainStartNanos = now;
+        }
+        int recordBytes = head.peekRecordBytes();
+        Message message = head.read(codec);
+        spilledMessages--;
+        spilledBytes -= recordBytes;
+        totalReadBackMessages++;
+        totalReadBackBytes += recordBytes;
+        drainMessages++;
+        drainLastNanos = now;
+        notFull.signalAll();
+
+        if (spilledMessages == 0) {
+            while (!segments.isEmpty()) {
+                recycle(segments.pollFirst());
+            }
+        }
+        return message;
+    }
+
+    private double readBackRate() {
+        long elapsed = drainLastNanos - drainStartNanos;
+        return elapsed > 0 ? drainMessages * 1e9 / elapsed : 0.0;
+    }
+
+    private SpillSegment acquireSegment(int recordBytes) {
+        if (recordBytes <= config.segmentBytes() && !recycled.isEmpty()) {
+            recycledSegmentCount++;
+            return recycled.pollFirst();
+        }
+        return SpillSegment.create(config.directory(), nodeId + "-", Math.max(config.segmentBytes(), recordBytes));
+    }
+
+    private void recycle(SpillSegment segment) {
+        segment.reset();
+        if (!closed && segment.capacity() == config.segmentBytes()
+                && recycled.size() < config.maxRecycledSegments()) {
+            recycled.addLast(segment);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.sakidoa.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies. Each power of two is split into 32 linear
+ * buckets, so recorded values are reported with at most ~3% relative error and recording is a single
+ * atomic increment plus two striped adders.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Returns, for each of the ascending {@code upperBoundsNanos}, how many recorded values fall at or below
+     * it, at the resolution of the histogram's buckets.
+     */
+    public long[] cumulativeCounts(long... upperBoundsNanos) {
+        long[] cumulative = new long[upperBoundsNanos.length];
+        long seen = 0;
+        int bucket = 0;
+        for (int i = 0; i < upperBoundsNanos.length; i++) {
+            int lastBucket = bucketIndex(Math.max(0, upperBoundsNanos[i]));
+            for (; bucket <= lastBucket; bucket++) {
+                seen += counts.get(bucket);
+            }
+            cumulative[i] = seen;
+        }
+        return cumulative;
+    }
+
+    public long valueAtPercentile(double percentile) {
+        long[] snapshot = snapshotCounts();
+        long count = 0;
+        for (long bucketCount : snapshot) {
+            count += bucketCount;
+        }
+        return valueAtPercentile(snapshot, count, percentile);
+    }
+
+    public LatencySnapshot snapshot() {
+        long[] snapshot = snapshotCounts();
+        long count = 0;
+        for (long bucketCount : snapshot) {
+            count += bucketCount;
+        }
+        long mean = count == 0 ? 0 : totalNanos.sum() / Math.max(1, totalCount.sum());
+        return new LatencySnapshot(count, mean,
+                valueAtPercentile(snapshot, count, 50.0),
+                valueAtPercentile(snapshot, count, 90.0),
+                valueAtPercentile(snapshot, count, 99.0),
+                valueAtPercentile(snapshot, count, 99.9),
+                maxNanos.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    private long[] snapshotCounts() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    private long valueAtPercentile(long[] snapshot, long count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
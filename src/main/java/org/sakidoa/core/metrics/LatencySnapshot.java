@@ -0,0 +1,22 @@
+package org.sakidoa.core.metrics;
+
+import java.time.Duration;
+
+public record LatencySnapshot(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                              long p999Nanos, long maxNanos) {
+
+    public Duration mean() {
+        return Duration.ofNanos(meanNanos);
+    }
+
+    public Duration p99() {
+        return Duration.ofNanos(p99Nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                count, meanNanos / 1e3, p50Nanos / 1e3, p90Nanos / 1e3, p99Nanos / 1e3, p999Nanos / 1e3,
+                maxNanos / 1e3);
+    }
+}
@@ -0,0 +1,304 @@
+package org.sakidoa.core.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.NodeState;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves node and topology metrics in the Prometheus text format on {@code http://localhost:<port>/metrics}.
+ * A daemon thread walks the registered nodes once per refresh interval, reading only their atomic counters,
+ * and renders the result once; scrapes are answered from that cached body and never touch the nodes.
+ */
+public class PrometheusEndpoint implements AutoCloseable {
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(5);
+    public static final String PATH = "/metrics";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final long[] LATENCY_BUCKETS_NANOS = {
+            10_000L, 50_000L, 100_000L, 500_000L, 1_000_000L, 5_000_000L, 10_000_000L, 50_000_000L,
+            100_000_000L, 500_000_000L, 1_000_000_000L, 5_000_000_000L, Long.MAX_VALUE
+    };
+    private static final NodeState[] NODE_STATES = NodeState.values();
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ScheduledExecutorService refreshScheduler;
+    private final List<RegisteredTopology> topologies = new CopyOnWriteArrayList<>();
+    private volatile byte[] cachedBody = new byte[0];
+
+    private PrometheusEndpoint(HttpServer server, Duration refreshInterval) {
+        this.server = server;
+        this.requestExecutor = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "prometheus-http"));
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> daemon(runnable, "prometheus-refresh"));
+        server.createContext(PATH, this::handle);
+        server.setExecutor(requestExecutor);
+        server.start();
+        long intervalNanos = refreshInterval.toNanos();
+        refreshScheduler.scheduleAtFixedRate(this::refresh, 0, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static PrometheusEndpoint start(int port) {
+        return start(port, DEFAULT_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Binds to the loopback address; pass port 0 to pick a free port.
+     */
+    public static PrometheusEndpoint start(int port, Duration refreshInterval) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            return new PrometheusEndpoint(server, refreshInterval);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot bind metrics endpoint to port " + port, e);
+        }
+    }
+
+    public void register(String topology, List<Node> nodes) {
+        register(topology, nodes, true);
+    }
+
+    /**
+     * Exports {@code nodes} under the {@code topology} label. Per-node series add three series per node;
+     * without them only the topology totals, the state distribution and the latency histogram are exported.
+     */
+    public void register(String topology, List<Node> nodes, boolean perNodeSeries) {
+        if (topologies.stream().anyMatch(registered -> registered.name.equals(topology))) {
+            throw new IllegalArgumentException("Topology already registered: " + topology);
+        }
+        RegisteredTopology registered = new RegisteredTopology(topology, List.copyOf(nodes), perNodeSeries);
+        for (Node node : registered.nodes) {
+            node.addDeliveryLatencyHistogram(registered.deliveryLatency);
+        }
+        topologies.add(registered);
+    }
+
+    public void unregister(String topology) {
+        for (RegisteredTopology registered : topologies) {
+            if (registered.name.equals(topology)) {
+                topologies.remove(registered);
+                for (Node node : registered.nodes) {
+                    node.removeDeliveryLatencyHistogram(registered.deliveryLatency);
+                }
+            }
+        }
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Takes a fresh snapshot of every registered topology and replaces the body served to scrapes.
+     */
+    public synchronized void refresh() {
+        List<TopologySnapshot> snapshots = topologies.stream().map(TopologySnapshot::take).toList();
+        cachedBody = render(snapshots).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        refreshScheduler.shutdownNow();
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        for (RegisteredTopology registered : topologies) {
+            unregister(registered.name);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = cachedBody;
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String render(List<TopologySnapshot> snapshots) {
+        StringBuilder text = new StringBuilder();
+        family(text, "network_processed_messages_total", "counter", "Messages handled by the topology's nodes.");
+        for (TopologySnapshot snapshot : snapshots) {
+            sample(text, "network_processed_messages_total", snapshot.labels, snapshot.processed);
+        }
+        family(text, "network_dropped_messages_total", "counter", "Messages dropped by the topology's nodes.");
+        for (TopologySnapshot snapshot : snapshots) {
+            sample(text, "network_dropped_messages_total", snapshot.labels, snapshot.dropped);
+        }
+        family(text, "network_expired_messages_total", "counter", "Messages discarded after their deadline.");
+        for (TopologySnapshot snapshot : snapshots) {
+            sample(text, "network_expired_messages_total", snapshot.labels, snapshot.expired);
+        }
+        family(text, "network_queued_messages", "gauge", "Messages waiting in the topology's mailboxes.");
+        for (TopologySnapshot snapshot : snapshots) {
+            sample(text, "network_queued_messages", snapshot.labels, snapshot.queued);
+        }
+        family(text, "network_nodes", "gauge", "Nodes per state.");
+        for (TopologySnapshot snapshot : snapshots) {
+            for (NodeState state : NODE_STATES) {
+                sample(text, "network_nodes", snapshot.labels + ",state=\"" + state + "\"",
+                        snapshot.stateCounts[state.ordinal()]);
+            }
+        }
+        renderLatency(text, snapshots);
+        renderNodes(text, snapshots);
+        return text.toString();
+    }
+
+    private static void renderLatency(StringBuilder text, List<TopologySnapshot> snapshots) {
+        family(text, "network_delivery_latency_seconds", "histogram",
+                "Time from message creation to handling at its destination.");
+        for (TopologySnapshot snapshot : snapshots) {
+            for (int i = 0; i < LATENCY_BUCKETS_NANOS.length; i++) {
+                long bound = LATENCY_BUCKETS_NANOS[i];
+                String le = bound == Long.MAX_VALUE ? "+Inf" : seconds(bound);
+                sample(text, "network_delivery_latency_seconds_bucket", snapshot.labels + ",le=\"" + le + "\"",
+                        snapshot.latencyBuckets[i]);
+            }
+            text.append("network_delivery_latency_seconds_sum{").append(snapshot.labels).append("} ")
+                    .append(seconds(snapshot.latencySumNanos)).append('\n');
+            sample(text, "network_delivery_latency_seconds_count", snapshot.labels,
+                    snapshot.latencyBuckets[LATENCY_BUCKETS_NANOS.length - 1]);
+        }
+    }
+
+    private static void renderNodes(StringBuilder text, List<TopologySnapshot> snapshots) {
+        family(text, "network_node_processed_messages_total", "counter", "Messages handled per node.");
+        for (TopologySnapshot snapshot : snapshots) {
+            for (int i = 0; i < snapshot.nodeLabels.length; i++) {
+                sample(text, "network_node_processed_messages_total", snapshot.nodeLabels[i],
+                        snapshot.nodeProcessed[i]);
+            }
+        }
+        family(text, "network_node_dropped_messages_total", "counter", "Messages dropped per node.");
+        for (TopologySnapshot snapshot : snapshots) {
+            for (int i = 0; i < snapshot.nodeLabels.length; i++) {
+                sample(text, "network_node_dropped_messages_total", snapshot.nodeLabels[i],
+                        snapshot.nodeDropped[i]);
+            }
+        }
+        family(text, "network_node_queue_depth", "gauge", "Messages waiting in each node's mailbox.");
+        for (TopologySnapshot snapshot : snapshots) {
+            for (int i = 0; i < snapshot.nodeLabels.length; i++) {
+                sample(text, "network_node_queue_depth", snapshot.nodeLabels[i], snapshot.nodeQueueDepths[i]);
+            }
+        }
+    }
+
+    private static void family(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String name, String labels, long value) {
+        text.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class RegisteredTopology {
+        private final String name;
+        private final List<Node> nodes;
+        private final boolean perNodeSeries;
+        private final String labels;
+        private final String[] nodeLabels;
+        private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+
+        private RegisteredTopology(String name, List<Node> nodes, boolean perNodeSeries) {
+            this.name = name;
+            this.nodes = nodes;
+            this.perNodeSeries = perNodeSeries;
+            this.labels = "topology=\"" + escape(name) + "\"";
+            this.nodeLabels = perNodeSeries
+                    ? nodes.stream().map(node -> labels + ",node=\"" + escape(node.getNodeId()) + "\"")
+                    .toArray(String[]::new)
+                    : new String[0];
+        }
+    }
+
+    private static final class TopologySnapshot {
+        private final String labels;
+        private final String[] nodeLabels;
+        private final long[] nodeProcessed;
+        private final long[] nodeDropped;
+        private final int[] nodeQueueDepths;
+        private final long[] stateCounts = new long[NODE_STATES.length];
+        private long processed;
+        private long dropped;
+        private long expired;
+        private long queued;
+        private long[] latencyBuckets;
+        private long latencySumNanos;
+
+        private TopologySnapshot(RegisteredTopology topology) {
+            int perNode = topology.perNodeSeries ? topology.nodes.size() : 0;
+            this.labels = topology.labels;
+            this.nodeLabels = topology.nodeLabels;
+            this.nodeProcessed = new long[perNode];
+            this.nodeDropped = new long[perNode];
+            this.nodeQueueDepths = new int[perNode];
+        }
+
+        static TopologySnapshot take(RegisteredTopology topology) {
+            TopologySnapshot snapshot = new TopologySnapshot(topology);
+            List<Node> nodes = topology.nodes;
+            for (int i = 0; i < nodes.size(); i++) {
+                Node node = nodes.get(i);
+                long processed = node.getProcessedMessageCount();
+                long dropped = node.getDroppedMessageCount();
+                int queueDepth = node.getQueueSize();
+                snapshot.processed += processed;
+                snapshot.dropped += dropped;
+                snapshot.expired += node.getExpiredMessageCount();
+                snapshot.queued += queueDepth;
+                snapshot.stateCounts[node.getState().ordinal()]++;
+                if (topology.perNodeSeries) {
+                    snapshot.nodeProcessed[i] = processed;
+                    snapshot.nodeDropped[i] = dropped;
+                    snapshot.nodeQueueDepths[i] = queueDepth;
+                }
+            }
+            snapshot.latencyBuckets = topology.deliveryLatency.cumulativeCounts(LATENCY_BUCKETS_NANOS);
+            snapshot.latencySumNanos = topology.deliveryLatency.getTotalNanos();
+            return snapshot;
+        }
+    }
+}
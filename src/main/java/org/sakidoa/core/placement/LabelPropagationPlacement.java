@@ -0,0 +1,131 @@
+package org.sakidoa.core.placement;
+
+import java.util.Arrays;
+
+/**
+ * Balanced label propagation. Nodes start in contiguous chunks of some order, then repeatedly move to the
+ * partition holding most of their neighbours, as long as that partition stays within the allowed imbalance,
+ * until a pass moves nothing. Each pass is linear in the number of edges. Both a breadth-first order and
+ * the topology's own index order are refined this way and the one with the smaller edge cut wins, since
+ * regular topologies often number their nodes so that index ranges are already well-connected blocks.
+ */
+public class LabelPropagationPlacement implements PlacementStrategy {
+    public static final double DEFAULT_IMBALANCE = 0.03;
+    public static final int DEFAULT_MAX_PASSES = 32;
+
+    private final double imbalance;
+    private final int maxPasses;
+
+    public LabelPropagationPlacement() {
+        this(DEFAULT_IMBALANCE, DEFAULT_MAX_PASSES);
+    }
+
+    public LabelPropagationPlacement(double imbalance, int maxPasses) {
+        if (imbalance < 0) {
+            throw new IllegalArgumentException("Imbalance cannot be negative");
+        }
+        if (maxPasses < 0) {
+            throw new IllegalArgumentException("Max passes cannot be negative");
+        }
+        this.imbalance = imbalance;
+        this.maxPasses = maxPasses;
+    }
+
+    @Override
+    public int[] place(int[][] adjacency, int workers) {
+        int[] indexOrder = new int[adjacency.length];
+        Arrays.setAll(indexOrder, node -> node);
+        int[] fromBreadthFirst = refine(adjacency, workers, breadthFirstOrder(adjacency));
+        int[] fromIndices = refine(adjacency, workers, indexOrder);
+        return edgeCut(adjacency, fromIndices) < edgeCut(adjacency, fromBreadthFirst)
+                ? fromIndices : fromBreadthFirst;
+    }
+
+    private int[] refine(int[][] adjacency, int workers, int[] order) {
+        int nodeCount = adjacency.length;
+        int chunk = Math.max(1, (nodeCount + workers - 1) / workers);
+        int capacity = (int) Math.ceil(chunk * (1 + imbalance));
+        int[] assignment = new int[nodeCount];
+        int[] sizes = new int[workers];
+        for (int position = 0; position < nodeCount; position++) {
+            int worker = Math.min(position / chunk, workers - 1);
+            assignment[order[position]] = worker;
+            sizes[worker]++;
+        }
+
+        int[] counts = new int[workers];
+        for (int pass = 0; pass < maxPasses; pass++) {
+            int moves = 0;
+            for (int node : order) {
+                int current = assignment[node];
+                int best = bestPartition(adjacency[node], assignment, counts, sizes, current, capacity);
+                if (best != current) {
+                    assignment[node] = best;
+                    sizes[current]--;
+                    sizes[best]++;
+                    moves++;
+                }
+            }
+            if (moves == 0) {
+                break;
+            }
+        }
+        return assignment;
+    }
+
+    private static int edgeCut(int[][] adjacency, int[] assignment) {
+        int cut = 0;
+        for (int node = 0; node < adjacency.length; node++) {
+            for (int neighbor : adjacency[node]) {
+                if (assignment[node] != assignment[neighbor]) {
+                    cut++;
+                }
+            }
+        }
+        return cut;
+    }
+
+    // Only the labels present among the neighbours are counted, compared and reset, so a node costs its degree
+    // rather than the number of workers. Ties keep the current partition, then the first label reached.
+    private static int bestPartition(int[] neighbors, int[] assignment, int[] counts, int[] sizes, int current,
+                                     int capacity) {
+        for (int neighbor : neighbors) {
+            counts[assignment[neighbor]]++;
+        }
+        int best = current;
+        for (int neighbor : neighbors) {
+            int partition = assignment[neighbor];
+            if (counts[partition] > counts[best] && sizes[partition] < capacity) {
+                best = partition;
+            }
+        }
+        for (int neighbor : neighbors) {
+            counts[assignment[neighbor]] = 0;
+        }
+        return best;
+    }
+
+    private static int[] breadthFirstOrder(int[][] adjacency) {
+        int nodeCount = adjacency.length;
+        int[] order = new int[nodeCount];
+        boolean[] visited = new boolean[nodeCount];
+        int tail = 0;
+        for (int root = 0; root < nodeCount; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            int head = tail;
+            visited[root] = true;
+            order[tail++] = root;
+            while (head < tail) {
+                for (int neighbor : adjacency[order[head++]]) {
+                    if (!visited[neighbor]) {
+                        visited[neighbor] = true;
+                        order[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+}
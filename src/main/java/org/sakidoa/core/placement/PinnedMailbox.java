@@ -0,0 +1,180 @@
+package org.sakidoa.core.placement;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.mailbox.Mailbox;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mailbox of a node pinned to a {@link WorkerPool} worker. Offers made on the owning worker's thread, i.e. by
+ * nodes of the same partition, go to a plain deque with no synchronisation at all; offers from any other
+ * thread go through a concurrent queue and wake the worker. Only the owner polls, moving remote arrivals
+ * behind the local ones, so messages from any one sender stay in order. Because the deque belongs to the
+ * owner, a clear or close from another thread is handed to the owner and waited for, unless the owner has
+ * already exited.
+ */
+public class PinnedMailbox implements Mailbox {
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ArrayDeque<Message> local = new ArrayDeque<>();
+    private final Queue<Message> remote = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger remoteCount = new AtomicInteger();
+    private final LongAdder crossThreadOffers = new LongAdder();
+    private long localOffers;
+    private volatile WorkerPool.Worker owner;
+    private volatile boolean closed;
+    private volatile ClearRequest pendingClear;
+
+    @Override
+    public boolean offer(Message message) {
+        if (closed) {
+            return false;
+        }
+        WorkerPool.Worker worker = owner;
+        if (worker != null && worker.isCurrentThread()) {
+            local.addLast(message);
+            localOffers++;
+            return true;
+        }
+        // Counted before it becomes visible, so the owner's transfer can never take the count below zero.
+        remoteCount.incrementAndGet();
+        remote.add(message);
+        crossThreadOffers.increment();
+        if (worker != null) {
+            worker.wake();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean offer(Message message, long timeout, TimeUnit unit) {
+        return offer(message);
+    }
+
+    @Override
+    public Message poll() {
+        if (remoteCount.get() > 0) {
+            transferRemote();
+        }
+        return local.pollFirst();
+    }
+
+    @Override
+    public Message poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Message message;
+        while ((message = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+        }
+        return message;
+    }
+
+    /**
+     * Exact on the owning worker; from other threads the local part is a racy read, good enough for load
+     * hints.
+     */
+    @Override
+    public int size() {
+        return local.size() + remoteCount.get();
+    }
+
+    @Override
+    public int clear() {
+        WorkerPool.Worker worker = owner;
+        if (worker == null || worker.isCurrentThread() || !worker.isAlive()) {
+            return discardAll();
+        }
+        return clearOnOwner(worker);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        clear();
+    }
+
+    public long getLocalOfferCount() {
+        return localOffers;
+    }
+
+    public long getCrossThreadOfferCount() {
+        return crossThreadOffers.sum();
+    }
+
+    void bind(WorkerPool.Worker worker) {
+        this.owner = worker;
+    }
+
+    boolean hasRemote() {
+        return remoteCount.get() > 0;
+    }
+
+    /**
+     * Called by the owning worker on every pass so that clears requested by other threads run on its thread.
+     */
+    void runPendingClear() {
+        ClearRequest request = pendingClear;
+        if (request != null) {
+            pendingClear = null;
+            request.discarded = discardAll();
+            request.done = true;
+        }
+    }
+
+    // An exited worker's writes are visible once isAlive() has returned false, so the deque can be cleared here.
+    private synchronized int clearOnOwner(WorkerPool.Worker worker) {
+        ClearRequest request = new ClearRequest();
+        pendingClear = request;
+        worker.wake();
+        while (!request.done) {
+            if (!worker.isAlive()) {
+                if (request.done) {
+                    break;
+                }
+                pendingClear = null;
+                return discardAll();
+            }
+            LockSupport.parkNanos(this, MAX_PARK_NANOS);
+        }
+        return request.discarded;
+    }
+
+    private int discardAll() {
+        int discarded = local.size();
+        local.clear();
+        int drained = 0;
+        while (remote.poll() != null) {
+            drained++;
+        }
+        remoteCount.addAndGet(-drained);
+        return discarded + drained;
+    }
+
+    private void transferRemote() {
+        int moved = 0;
+        Message message;
+        while ((message = remote.poll()) != null) {
+            local.addLast(message);
+            moved++;
+        }
+        remoteCount.addAndGet(-moved);
+    }
+
+    private static final class ClearRequest {
+        private int discarded;
+        private volatile boolean done;
+    }
+}
@@ -0,0 +1,17 @@
+package org.sakidoa.core.placement;
+
+public record PlacementConfig(int workers, PlacementStrategy strategy) {
+
+    public PlacementConfig {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1");
+        }
+        if (strategy == null) {
+            throw new IllegalArgumentException("Placement strategy cannot be null");
+        }
+    }
+
+    public static PlacementConfig of(int workers) {
+        return new PlacementConfig(workers, new LabelPropagationPlacement());
+    }
+}
@@ -0,0 +1,5 @@
+package org.sakidoa.core.placement;
+
+public record PlacementMetrics(int workers, int edgeCut, int largestPartition, long localHandoffs,
+                               long crossThreadHandoffs) {
+}
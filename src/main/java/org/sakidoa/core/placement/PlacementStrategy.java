@@ -0,0 +1,17 @@
+package org.sakidoa.core.placement;
+
+@FunctionalInterface
+public interface PlacementStrategy {
+    PlacementStrategy ROUND_ROBIN = (adjacency, workers) -> {
+        int[] assignment = new int[adjacency.length];
+        for (int node = 0; node < assignment.length; node++) {
+            assignment[node] = node % workers;
+        }
+        return assignment;
+    };
+
+    /**
+     * Returns the worker of every node, given each node's neighbour indices.
+     */
+    int[] place(int[][] adjacency, int workers);
+}
@@ -0,0 +1,203 @@
+package org.sakidoa.core.placement;
+
+import org.sakidoa.core.Adjacency;
+import org.sakidoa.core.NetworkShutdown;
+import org.sakidoa.core.Node;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a network's nodes on a fixed set of worker threads instead of one thread per node. The placement
+ * strategy assigns every node to a worker and the node stays there: each worker steps its own nodes in
+ * turn and parks when none of them has work. Every node must use a {@link PinnedMailbox}, so deliveries
+ * between nodes of the same partition never leave the worker's thread.
+ */
+public class WorkerPool {
+    public static final int DEFAULT_QUANTUM = 64;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final List<Node> nodes;
+    private final PlacementConfig config;
+    private final int[] assignment;
+    private final int edgeCut;
+    private final List<Worker> workers = new ArrayList<>();
+    private volatile boolean stopping;
+    private boolean started;
+
+    public WorkerPool(List<Node> nodes, PlacementConfig config) {
+        this.nodes = List.copyOf(nodes);
+        this.config = config;
+        for (Node node : nodes) {
+            if (!(node.getMailbox() instanceof PinnedMailbox)) {
+                throw new IllegalArgumentException("Node " + node.getNodeId() + " does not use a pinned mailbox");
+            }
+        }
+        int[][] adjacency = Adjacency.of(this.nodes);
+        this.assignment = config.strategy().place(adjacency, config.workers());
+        validateAssignment();
+        this.edgeCut = countEdgeCut(adjacency);
+        for (int index = 0; index < config.workers(); index++) {
+            workers.add(new Worker(index));
+        }
+        for (int node = 0; node < assignment.length; node++) {
+            workers.get(assignment[node]).nodes.add(this.nodes.get(node));
+        }
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        nodes.forEach(Node::startStepping);
+        for (Worker worker : workers) {
+            Thread thread = new Thread(worker, "placement-worker-" + worker.index);
+            thread.setDaemon(true);
+            worker.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the workers, first waiting up to {@code deadline} for every mailbox to empty when
+     * {@code drainInFlight} is set, then stops the nodes.
+     */
+    public synchronized void shutdown(Duration deadline, boolean drainInFlight) {
+        if (started) {
+            long deadlineNanos = System.nanoTime() + deadline.toNanos();
+            if (drainInFlight) {
+                NetworkShutdown.awaitQuiescence(nodes, this::allWorkersIdle, deadlineNanos, IDLE_PARK_NANOS);
+            }
+            stopping = true;
+            workers.forEach(Worker::wake);
+            awaitWorkers();
+        }
+        nodes.forEach(Node::stopStepping);
+    }
+
+    public PlacementConfig getConfig() {
+        return config;
+    }
+
+    public int workerOf(int node) {
+        return assignment[node];
+    }
+
+    public PlacementMetrics getMetrics() {
+        long local = 0;
+        long crossThread = 0;
+        for (Node node : nodes) {
+            PinnedMailbox mailbox = (PinnedMailbox) node.getMailbox();
+            local += mailbox.getLocalOfferCount();
+            crossThread += mailbox.getCrossThreadOfferCount();
+        }
+        int largest = workers.stream().mapToInt(worker -> worker.nodes.size()).max().orElse(0);
+        return new PlacementMetrics(config.workers(), edgeCut, largest, local, crossThread);
+    }
+
+    private boolean allWorkersIdle() {
+        for (Worker worker : workers) {
+            if (!worker.idle) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void awaitWorkers() {
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private int countEdgeCut(int[][] adjacency) {
+        int cut = 0;
+        for (int node = 0; node < adjacency.length; node++) {
+            for (int neighbor : adjacency[node]) {
+                if (node < neighbor && assignment[node] != assignment[neighbor]) {
+                    cut++;
+                }
+            }
+        }
+        return cut;
+    }
+
+    private void validateAssignment() {
+        if (assignment.length != nodes.size()) {
+            throw new IllegalStateException("Placement assigned " + assignment.length + " of " + nodes.size()
+                    + " nodes");
+        }
+        for (int worker : assignment) {
+            if (worker < 0 || worker >= config.workers()) {
+                throw new IllegalStateException("Placement assigned a node to unknown worker " + worker);
+            }
+        }
+    }
+
+    final class Worker implements Runnable {
+        private final int index;
+        private final List<Node> nodes = new ArrayList<>();
+        private volatile Thread thread;
+        private volatile boolean idle;
+
+        private Worker(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            for (Node node : nodes) {
+                ((PinnedMailbox) node.getMailbox()).bind(this);
+            }
+            while (!stopping) {
+                int handled = 0;
+                for (Node node : nodes) {
+                    ((PinnedMailbox) node.getMailbox()).runPendingClear();
+                    handled += node.step(DEFAULT_QUANTUM);
+                }
+                if (handled > 0) {
+                    continue;
+                }
+                idle = true;
+                if (!hasRemote()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        }
+
+        boolean isCurrentThread() {
+            return Thread.currentThread() == thread;
+        }
+
+        boolean isAlive() {
+            Thread current = thread;
+            return current != null && current.isAlive();
+        }
+
+        void wake() {
+            Thread current = thread;
+            if (idle && current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+
+        private boolean hasRemote() {
+            for (Node node : nodes) {
+                if (((PinnedMailbox) node.getMailbox()).hasRemote()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.sakidoa.core.request;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The caller's future doubles as the correlation table entry, so a request costs one allocation. Any
+ * completion that does not come from a reply (timeout, cancellation, delivery failure) frees the slot.
+ */
+final class PendingRequest extends CompletableFuture<Object> {
+    final long correlationId;
+    final long startNanos;
+    private final PendingRequests table;
+
+    PendingRequest(long correlationId, long startNanos, PendingRequests table) {
+        this.correlationId = correlationId;
+        this.startNanos = startNanos;
+        this.table = table;
+    }
+
+    @Override
+    public boolean complete(Object value) {
+        boolean completed = super.complete(value);
+        if (completed) {
+            table.release(this);
+        }
+        return completed;
+    }
+
+    @Override
+    public boolean completeExceptionally(Throwable failure) {
+        boolean completed = super.completeExceptionally(failure);
+        if (completed) {
+            table.release(this);
+        }
+        return completed;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            table.release(this);
+        }
+        return cancelled;
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new CompletableFuture<>();
+    }
+}
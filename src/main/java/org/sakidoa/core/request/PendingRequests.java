@@ -0,0 +1,62 @@
+package org.sakidoa.core.request;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open addressed table of outstanding requests keyed by correlation id. Registration, lookup and removal
+ * are bounded linear probes with compare-and-set, so replies and timeouts never take a lock and whichever
+ * side claims the slot first wins.
+ */
+final class PendingRequests {
+    private static final int MAX_PROBES = 8;
+
+    private final AtomicReferenceArray<PendingRequest> slots;
+    private final int mask;
+
+    PendingRequests(int capacity) {
+        int size = Integer.highestOneBit(Math.max(MAX_PROBES, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean register(PendingRequest request) {
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (int) (request.correlationId + probe) & mask;
+            if (slots.compareAndSet(index, null, request)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    PendingRequest remove(long correlationId) {
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (int) (correlationId + probe) & mask;
+            PendingRequest request = slots.get(index);
+            if (request != null && request.correlationId == correlationId) {
+                return slots.compareAndSet(index, request, null) ? request : null;
+            }
+        }
+        return null;
+    }
+
+    void release(PendingRequest request) {
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (int) (request.correlationId + probe) & mask;
+            if (slots.get(index) == request) {
+                slots.compareAndSet(index, request, null);
+                return;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+}
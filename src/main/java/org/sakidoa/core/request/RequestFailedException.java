@@ -0,0 +1,16 @@
+package org.sakidoa.core.request;
+
+public class RequestFailedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String nodeId;
+
+    public RequestFailedException(String nodeId, String message) {
+        super("Request failed on " + nodeId + ": " + message);
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
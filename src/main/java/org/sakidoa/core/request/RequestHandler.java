@@ -0,0 +1,10 @@
+package org.sakidoa.core.request;
+
+import org.sakidoa.core.Node;
+
+@FunctionalInterface
+public interface RequestHandler {
+    RequestHandler ECHO = (node, payload) -> payload;
+
+    Object handle(Node node, Object payload);
+}
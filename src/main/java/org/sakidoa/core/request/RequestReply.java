@@ -0,0 +1,146 @@
+package org.sakidoa.core.request;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.MessageRouter;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.metrics.LatencyHistogram;
+import org.sakidoa.core.metrics.LatencySnapshot;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request/response on top of the node mailboxes. A request travels to the target as a REQUEST message,
+ * the target's handler runs on its own thread and the REPLY is routed back to the requesting node, whose
+ * thread completes the future (dependent stages without an executor run there too). Round-trip times are
+ * recorded for every reply that arrives before its timeout.
+ * <p>
+ * The ring, hypercube, torus, tree, graph, star, mesh and fully connected networks offer it. The bus,
+ * switched and fat-tree networks deliver through their own medium model rather than through a router, so
+ * requests there would bypass the medium they exist to simulate and they are left out.
+ */
+public class RequestReply {
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    private static final int DEFAULT_MAX_OUTSTANDING = 1 << 16;
+
+    private final MessageRouter router;
+    private final List<Node> nodes;
+    private final RequestHandler handler;
+    private final PendingRequests pendingRequests;
+    private final AtomicLong nextCorrelationId = new AtomicLong(1);
+    private final LatencyHistogram roundTrips = new LatencyHistogram();
+    private final LongAdder completedRequests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder lateReplies = new LongAdder();
+
+    public RequestReply(MessageRouter router, List<Node> nodes, RequestHandler handler) {
+        this(router, nodes, handler, DEFAULT_MAX_OUTSTANDING);
+    }
+
+    public RequestReply(MessageRouter router, List<Node> nodes, RequestHandler handler, int maxOutstanding) {
+        if (maxOutstanding < 1) {
+            throw new IllegalArgumentException("At least one outstanding request must be allowed");
+        }
+        this.router = router;
+        this.nodes = List.copyOf(nodes);
+        this.handler = handler;
+        this.pendingRequests = new PendingRequests(maxOutstanding);
+        installHandlers();
+    }
+
+    public CompletableFuture<Object> request(int fromNode, int toNode, Object payload) {
+        return request(fromNode, toNode, payload, DEFAULT_TIMEOUT);
+    }
+
+    public CompletableFuture<Object> request(int fromNode, int toNode, Object payload, Duration timeout) {
+        long correlationId = nextCorrelationId.getAndIncrement();
+        PendingRequest request = new PendingRequest(correlationId, System.nanoTime(), pendingRequests);
+        if (!pendingRequests.register(request)) {
+            failedRequests.increment();
+            request.completeExceptionally(new RejectedExecutionException("Too many outstanding requests"));
+            return request;
+        }
+
+        Message message = new Message(MessageType.REQUEST, nodes.get(fromNode).getNodeId(), payload);
+        message.setCorrelationId(correlationId);
+        message.setTimeToLive(timeout);
+        request.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        if (!router.dispatch(fromNode, toNode, message)) {
+            failedRequests.increment();
+            request.completeExceptionally(new IllegalStateException("Request could not be delivered to node " + toNode));
+        }
+        return request;
+    }
+
+    public LatencySnapshot getRoundTripLatency() {
+        return roundTrips.snapshot();
+    }
+
+    public void resetRoundTripLatency() {
+        roundTrips.reset();
+    }
+
+    public int getOutstandingCount() {
+        return pendingRequests.size();
+    }
+
+    public long getCompletedCount() {
+        return completedRequests.sum();
+    }
+
+    public long getFailedCount() {
+        return failedRequests.sum();
+    }
+
+    public long getLateReplyCount() {
+        return lateReplies.sum();
+    }
+
+    private void installHandlers() {
+        for (int i = 0; i < nodes.size(); i++) {
+            int index = i;
+            Node node = nodes.get(i);
+            node.setMessageHandler(MessageType.REQUEST, (current, message) -> onRequest(index, current, message));
+            node.setMessageHandler(MessageType.REPLY, (current, message) -> onReply(message));
+        }
+    }
+
+    private void onRequest(int index, Node node, Message request) {
+        Object payload;
+        try {
+            payload = handler.handle(node, request.getPayload());
+        } catch (RuntimeException e) {
+            payload = new RequestFailure(String.valueOf(e.getMessage()));
+        }
+
+        Message reply = new Message(MessageType.REPLY, node.getNodeId(), payload);
+        reply.setCorrelationId(request.getCorrelationId());
+        router.dispatch(index, router.indexOf(request.getSenderId()), reply);
+    }
+
+    private void onReply(Message reply) {
+        PendingRequest request = pendingRequests.remove(reply.getCorrelationId());
+        if (request == null) {
+            lateReplies.increment();
+            return;
+        }
+
+        roundTrips.record(System.nanoTime() - request.startNanos);
+        if (reply.getPayload() instanceof RequestFailure failure) {
+            failedRequests.increment();
+            request.completeExceptionally(new RequestFailedException(reply.getSenderId(), failure.message()));
+        } else {
+            completedRequests.increment();
+            request.complete(reply.getPayload());
+        }
+    }
+
+    private record RequestFailure(String message) {
+    }
+}
@@ -0,0 +1,10 @@
+package org.sakidoa.core.runtime;
+
+import java.time.Duration;
+
+/**
+ * Work done on a shared runtime by one hosted topology, kept apart from every other topology's.
+ */
+public record HostedMetrics(String name, int weight, int nodes, long handledMessages, long tasksRun,
+                            Duration busyTime) {
+}
@@ -0,0 +1,120 @@
+package org.sakidoa.core.runtime;
+
+import org.sakidoa.core.NetworkShutdown;
+import org.sakidoa.core.Node;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A topology's place on a {@link SharedRuntime}. The topology hands its nodes over in
+ * {@link #start(List)}, routes its asynchronous work through {@link #execute(Runnable)} instead of an
+ * executor of its own, and gives the nodes back in {@link #release(Duration, boolean)} when it shuts down.
+ */
+public final class HostedTopology {
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SharedRuntime runtime;
+    private final String name;
+    private final int weight;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final LongAdder handledMessages = new LongAdder();
+    private final LongAdder tasksRun = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private volatile List<Node> nodes = List.of();
+    private boolean started;
+    private boolean released;
+
+    HostedTopology(SharedRuntime runtime, String name, int weight) {
+        this.runtime = runtime;
+        this.name = name;
+        this.weight = weight;
+    }
+
+    public synchronized void start(List<Node> nodes) {
+        if (started) {
+            throw new IllegalStateException("Topology " + name + " already started");
+        }
+        started = true;
+        this.nodes = List.copyOf(nodes);
+        this.nodes.forEach(Node::startStepping);
+        runtime.attach(this);
+    }
+
+    /**
+     * Queues work of the topology, such as routing an injected message. Tasks run on the runtime's workers
+     * and count against the topology's quota like handled messages do.
+     */
+    public void execute(Runnable task) {
+        pendingTasks.incrementAndGet();
+        tasks.add(task);
+    }
+
+    /**
+     * Runs {@code task} through {@link #execute(Runnable)} once {@code delay} has passed, using the runtime's
+     * shared timer thread.
+     */
+    public void schedule(Runnable task, Duration delay) {
+        runtime.getTimers().schedule(() -> execute(task), delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops serving the topology, first waiting up to {@code deadline} for its tasks and mailboxes to empty
+     * when {@code drainInFlight} is set, then stops the nodes.
+     */
+    public synchronized void release(Duration deadline, boolean drainInFlight) {
+        if (!started || released) {
+            return;
+        }
+        released = true;
+        if (drainInFlight) {
+            long deadlineNanos = System.nanoTime() + deadline.toNanos();
+            NetworkShutdown.awaitQuiescence(nodes, () -> pendingTasks.get() == 0, deadlineNanos, DRAIN_POLL_NANOS);
+        }
+        runtime.detach(this);
+        tasks.clear();
+        pendingTasks.set(0);
+        nodes.forEach(Node::stopStepping);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public int getPendingTaskCount() {
+        return pendingTasks.get();
+    }
+
+    public HostedMetrics getMetrics() {
+        return new HostedMetrics(name, weight, nodes.size(), handledMessages.sum(), tasksRun.sum(),
+                Duration.ofNanos(busyNanos.sum()));
+    }
+
+    Runnable pollTask() {
+        Runnable task = tasks.poll();
+        if (task != null) {
+            pendingTasks.decrementAndGet();
+        }
+        return task;
+    }
+
+    void recordService(long handled, long tasks, long nanos) {
+        handledMessages.add(handled);
+        tasksRun.add(tasks);
+        busyNanos.add(nanos);
+    }
+}
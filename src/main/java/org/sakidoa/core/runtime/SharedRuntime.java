@@ -0,0 +1,294 @@
+package org.sakidoa.core.runtime;
+
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.metrics.PrometheusEndpoint;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs any number of topologies side by side on one fixed set of worker threads, one shared timer thread
+ * and, optionally, one metrics endpoint. Every hosted topology's nodes are spread over all workers, and each
+ * worker serves the topologies in weighted round robin: per round a topology may handle up to its weight
+ * times {@link #QUANTUM} messages and tasks, and a topology without work gives its turn up at once.
+ * Backlogged topologies therefore share the CPU in proportion to their weights, and none can starve
+ * another. Threads are only created once the first topology starts.
+ */
+public class SharedRuntime implements AutoCloseable {
+    public static final int QUANTUM = 64;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int workerCount;
+    private final List<Worker> workers = new ArrayList<>();
+    private final List<HostedTopology> hosted = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService timers;
+    private PrometheusEndpoint metricsEndpoint;
+    private int attachedCount;
+    private boolean closed;
+
+    public SharedRuntime() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SharedRuntime(int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        this.workerCount = workers;
+    }
+
+    public HostedTopology run(String name, NetworkTopology topology) {
+        return run(name, topology, 1);
+    }
+
+    /**
+     * Starts an already configured {@code topology} on this runtime under {@code name}. When the topology
+     * refuses to start, the name is freed again before the exception propagates.
+     */
+    public HostedTopology run(String name, NetworkTopology topology, int weight) {
+        HostedTopology hostedTopology = host(name, weight);
+        try {
+            topology.runNetwork(hostedTopology);
+        } catch (RuntimeException e) {
+            hostedTopology.release(Duration.ZERO, false);
+            hosted.remove(hostedTopology);
+            throw e;
+        }
+        return hostedTopology;
+    }
+
+    public synchronized HostedTopology host(String name, int weight) {
+        validateOpen();
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive");
+        }
+        if (hosted.stream().anyMatch(existing -> existing.getName().equals(name))) {
+            throw new IllegalArgumentException("Topology already hosted: " + name);
+        }
+        HostedTopology hostedTopology = new HostedTopology(this, name, weight);
+        hosted.add(hostedTopology);
+        return hostedTopology;
+    }
+
+    public synchronized ScheduledExecutorService getTimers() {
+        validateOpen();
+        if (timers == null) {
+            timers = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "shared-runtime-timer"));
+        }
+        return timers;
+    }
+
+    /**
+     * Serves the metrics of every hosted topology from one endpoint, each under its own {@code topology}
+     * label.
+     */
+    public synchronized PrometheusEndpoint enableMetrics(int port) {
+        validateOpen();
+        if (metricsEndpoint == null) {
+            metricsEndpoint = PrometheusEndpoint.start(port);
+            for (HostedTopology hostedTopology : hosted) {
+                if (!hostedTopology.getNodes().isEmpty()) {
+                    metricsEndpoint.register(hostedTopology.getName(), hostedTopology.getNodes());
+                }
+            }
+        }
+        return metricsEndpoint;
+    }
+
+    public List<HostedMetrics> getMetrics() {
+        return hosted.stream().map(HostedTopology::getMetrics).toList();
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    @Override
+    public void close() {
+        List<Worker> running;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = List.copyOf(workers);
+            if (timers != null) {
+                timers.shutdownNow();
+            }
+            if (metricsEndpoint != null) {
+                metricsEndpoint.close();
+            }
+        }
+        running.forEach(Worker::stop);
+        for (Worker worker : running) {
+            joinQuietly(worker.thread);
+        }
+    }
+
+    synchronized void attach(HostedTopology hostedTopology) {
+        validateOpen();
+        startWorkers();
+        List<Node> nodes = hostedTopology.getNodes();
+        List<List<Node>> partitions = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        int offset = attachedCount++;
+        for (int i = 0; i < nodes.size(); i++) {
+            partitions.get((i + offset) % workerCount).add(nodes.get(i));
+        }
+        for (int i = 0; i < workerCount; i++) {
+            workers.get(i).add(new Share(hostedTopology, partitions.get(i).toArray(Node[]::new)));
+        }
+        if (metricsEndpoint != null) {
+            metricsEndpoint.register(hostedTopology.getName(), nodes);
+        }
+    }
+
+    /**
+     * Removes the topology from every worker and returns once no worker is still serving it.
+     */
+    void detach(HostedTopology hostedTopology) {
+        List<Worker> current;
+        synchronized (this) {
+            hosted.remove(hostedTopology);
+            current = List.copyOf(workers);
+            current.forEach(worker -> worker.remove(hostedTopology));
+            if (metricsEndpoint != null) {
+                metricsEndpoint.unregister(hostedTopology.getName());
+            }
+        }
+        long[] rounds = current.stream().mapToLong(worker -> worker.rounds).toArray();
+        for (int i = 0; i < current.size(); i++) {
+            current.get(i).awaitRoundAfter(rounds[i]);
+        }
+    }
+
+    private void startWorkers() {
+        if (!workers.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < workerCount; i++) {
+            Worker worker = new Worker();
+            worker.thread = daemon(worker, "shared-runtime-worker-" + i);
+            workers.add(worker);
+            worker.thread.start();
+        }
+    }
+
+    private void validateOpen() {
+        if (closed) {
+            throw new IllegalStateException("Runtime is closed");
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Worker implements Runnable {
+        private volatile Share[] shares = new Share[0];
+        private volatile boolean stopping;
+        private volatile long rounds;
+        private Thread thread;
+
+        @Override
+        public void run() {
+            while (!stopping) {
+                boolean worked = false;
+                for (Share share : shares) {
+                    worked |= share.serve();
+                }
+                rounds++;
+                if (!worked) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        synchronized void add(Share share) {
+            Share[] updated = Arrays.copyOf(shares, shares.length + 1);
+            updated[updated.length - 1] = share;
+            shares = updated;
+        }
+
+        synchronized void remove(HostedTopology hostedTopology) {
+            shares = Arrays.stream(shares)
+                    .filter(share -> share.hostedTopology != hostedTopology)
+                    .toArray(Share[]::new);
+        }
+
+        void stop() {
+            stopping = true;
+            LockSupport.unpark(thread);
+        }
+
+        void awaitRoundAfter(long round) {
+            if (Thread.currentThread() == thread) {
+                return;
+            }
+            while (rounds <= round && thread.isAlive()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private static final class Share {
+        private final HostedTopology hostedTopology;
+        private final Node[] nodes;
+        private final int quantum;
+        private int cursor;
+
+        private Share(HostedTopology hostedTopology, Node[] nodes) {
+            this.hostedTopology = hostedTopology;
+            this.nodes = nodes;
+            this.quantum = hostedTopology.getWeight() * QUANTUM;
+        }
+
+        boolean serve() {
+            long start = System.nanoTime();
+            int tasks = 0;
+            Runnable task;
+            while (tasks < quantum && (task = hostedTopology.pollTask()) != null) {
+                runTask(task);
+                tasks++;
+            }
+            int handled = 0;
+            for (int visited = 0; visited < nodes.length && tasks + handled < quantum; visited++) {
+                handled += nodes[cursor].step(Math.min(QUANTUM, quantum - tasks - handled));
+                cursor = cursor + 1 == nodes.length ? 0 : cursor + 1;
+            }
+            if (tasks + handled == 0) {
+                return false;
+            }
+            hostedTopology.recordService(handled, tasks, System.nanoTime() - start);
+            return true;
+        }
+
+        private void runTask(Runnable task) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Task of topology " + hostedTopology.getName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.sakidoa.core.trace;
+
+import org.sakidoa.core.Message;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Hop-by-hop record carried by a sampled {@link Message}. The mailbox hand-off orders enqueue and dequeue
+ * across nodes, but a forwarding node may still be finishing its hop while the next node handles the
+ * message, so each hop captures its own start state at dequeue and finished hops are appended under a lock.
+ */
+public class MessageTrace {
+    private final Tracer tracer;
+    private final long traceId;
+    private final List<TraceHop> hops = new ArrayList<>(4);
+    private long enqueueNanos;
+    private int nextHop;
+
+    MessageTrace(Tracer tracer, long traceId) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+    }
+
+    public void onEnqueue() {
+        enqueueNanos = System.nanoTime();
+    }
+
+    public OpenHop onDequeue(String nodeId) {
+        return new OpenHop(nextHop++, nodeId, enqueueNanos, System.nanoTime());
+    }
+
+    public void onHandled(OpenHop open, Message message, boolean delivered) {
+        long origin = tracer.getOriginNanos();
+        TraceHop hop = new TraceHop(traceId, open.index(), open.nodeId(), message.getType(),
+                open.enqueueNanos() - origin, open.dequeueNanos() - origin,
+                System.nanoTime() - open.dequeueNanos(), delivered);
+        synchronized (hops) {
+            hops.add(hop);
+        }
+        tracer.record(hop);
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public List<TraceHop> getHops() {
+        List<TraceHop> copy;
+        synchronized (hops) {
+            copy = new ArrayList<>(hops);
+        }
+        copy.sort(Comparator.comparingInt(TraceHop::hop));
+        return copy;
+    }
+
+    public record OpenHop(int index, String nodeId, long enqueueNanos, long dequeueNanos) {
+    }
+}
@@ -0,0 +1,25 @@
+package org.sakidoa.core.trace;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public record TraceConfig(double samplingRate, Path output, int bufferCapacity, Duration flushInterval) {
+    public static final int DEFAULT_BUFFER_CAPACITY = 256;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(200);
+
+    public TraceConfig {
+        if (samplingRate < 0.0 || samplingRate > 1.0) {
+            throw new IllegalArgumentException("Sampling rate must be between 0 and 1");
+        }
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be at least 1");
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive");
+        }
+    }
+
+    public static TraceConfig of(double samplingRate, Path output) {
+        return new TraceConfig(samplingRate, output, DEFAULT_BUFFER_CAPACITY, DEFAULT_FLUSH_INTERVAL);
+    }
+}
@@ -0,0 +1,14 @@
+package org.sakidoa.core.trace;
+
+import org.sakidoa.core.enums.MessageType;
+
+/**
+ * One hop of a sampled message. Times are nanoseconds relative to the owning tracer's start; the handler
+ * duration covers forwarding when the hop was not the final destination.
+ */
+public record TraceHop(long traceId, int hop, String nodeId, MessageType type, long enqueueNanos,
+                       long dequeueNanos, long handlerNanos, boolean delivered) {
+    public long queueingNanos() {
+        return dequeueNanos - enqueueNanos;
+    }
+}
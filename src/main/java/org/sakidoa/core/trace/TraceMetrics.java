@@ -0,0 +1,4 @@
+package org.sakidoa.core.trace;
+
+public record TraceMetrics(long sampledMessages, long recordedHops, long writtenHops, long droppedHops) {
+}
@@ -0,0 +1,209 @@
+package org.sakidoa.core.trace;
+
+import org.sakidoa.core.Message;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples messages at ingress and exports the hops they record as JSON lines. Each thread appends finished
+ * hops to its own buffer; full buffers are handed to a background writer, which also collects partially
+ * filled buffers every flush interval and forgets the buffers of threads that have ended. When the writer
+ * falls behind, whole buffers are dropped and counted rather than slowing the nodes down.
+ */
+public class Tracer implements AutoCloseable {
+    private static final int MAX_PENDING_BUFFERS = 1024;
+
+    private final TraceConfig config;
+    private final long originNanos = System.nanoTime();
+    private final AtomicLong nextTraceId = new AtomicLong();
+    private final LongAdder sampledMessages = new LongAdder();
+    private final LongAdder recordedHops = new LongAdder();
+    private final LongAdder droppedHops = new LongAdder();
+    private final AtomicLong writtenHops = new AtomicLong();
+    private final Queue<TraceBuffer> threadBuffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<TraceBuffer> localBuffer = ThreadLocal.withInitial(this::registerBuffer);
+    private final BlockingQueue<List<TraceHop>> pending = new LinkedBlockingQueue<>(MAX_PENDING_BUFFERS);
+    private final BufferedWriter output;
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    public Tracer(TraceConfig config) {
+        this.config = config;
+        this.output = openOutput(config);
+        this.writerThread = new Thread(this::writeLoop, "trace-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void sample(Message message) {
+        double rate = config.samplingRate();
+        if (rate > 0.0 && (rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate)) {
+            message.setTrace(new MessageTrace(this, nextTraceId.incrementAndGet()));
+            sampledMessages.increment();
+        }
+    }
+
+    public TraceConfig getConfig() {
+        return config;
+    }
+
+    public TraceMetrics getMetrics() {
+        return new TraceMetrics(sampledMessages.sum(), recordedHops.sum(), writtenHops.get(), droppedHops.sum());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writePending();
+            writeThreadBuffers();
+            output.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close trace output " + config.output(), e);
+        }
+    }
+
+    long getOriginNanos() {
+        return originNanos;
+    }
+
+    void record(TraceHop hop) {
+        recordedHops.increment();
+        List<TraceHop> full = localBuffer.get().append(hop);
+        if (full != null && !pending.offer(full)) {
+            droppedHops.add(full.size());
+        }
+    }
+
+    private TraceBuffer registerBuffer() {
+        TraceBuffer buffer = new TraceBuffer(config.bufferCapacity(), Thread.currentThread());
+        threadBuffers.add(buffer);
+        return buffer;
+    }
+
+    private void writeLoop() {
+        long flushIntervalNanos = config.flushInterval().toNanos();
+        long nextFlush = System.nanoTime() + flushIntervalNanos;
+        try {
+            while (!closed) {
+                List<TraceHop> batch = pending.poll(Math.max(0, nextFlush - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (batch != null) {
+                    write(batch);
+                }
+                if (System.nanoTime() >= nextFlush) {
+                    writeThreadBuffers();
+                    output.flush();
+                    nextFlush = System.nanoTime() + flushIntervalNanos;
+                }
+            }
+        } catch (InterruptedException e) {
+            // close() takes over the remaining buffers
+        } catch (IOException e) {
+            System.err.println("Trace export stopped: " + e.getMessage());
+        }
+    }
+
+    private void writePending() throws IOException {
+        List<TraceHop> batch;
+        while ((batch = pending.poll()) != null) {
+            write(batch);
+        }
+    }
+
+    private void writeThreadBuffers() throws IOException {
+        Iterator<TraceBuffer> buffers = threadBuffers.iterator();
+        while (buffers.hasNext()) {
+            TraceBuffer buffer = buffers.next();
+            // Checked before draining: a thread that has ended cannot append after the drain.
+            boolean ownerEnded = !buffer.owner.isAlive();
+            List<TraceHop> batch = buffer.drain();
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            if (ownerEnded) {
+                buffers.remove();
+            }
+        }
+    }
+
+    private void write(List<TraceHop> batch) throws IOException {
+        for (TraceHop hop : batch) {
+            output.write(toJson(hop));
+            output.newLine();
+        }
+        writtenHops.addAndGet(batch.size());
+    }
+
+    private static String toJson(TraceHop hop) {
+        return "{\"traceId\":" + hop.traceId()
+                + ",\"hop\":" + hop.hop()
+                + ",\"node\":\"" + escape(hop.nodeId()) + '"'
+                + ",\"type\":\"" + hop.type() + '"'
+                + ",\"enqueueNanos\":" + hop.enqueueNanos()
+                + ",\"dequeueNanos\":" + hop.dequeueNanos()
+                + ",\"handlerNanos\":" + hop.handlerNanos()
+                + ",\"delivered\":" + hop.delivered() + '}';
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static BufferedWriter openOutput(TraceConfig config) {
+        try {
+            return Files.newBufferedWriter(config.output(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open trace output " + config.output(), e);
+        }
+    }
+
+    private static final class TraceBuffer {
+        private final int capacity;
+        private final Thread owner;
+        private List<TraceHop> hops;
+
+        private TraceBuffer(int capacity, Thread owner) {
+            this.capacity = capacity;
+            this.owner = owner;
+            this.hops = new ArrayList<>(capacity);
+        }
+
+        private synchronized List<TraceHop> append(TraceHop hop) {
+            hops.add(hop);
+            return hops.size() >= capacity ? drain() : null;
+        }
+
+        private synchronized List<TraceHop> drain() {
+            if (hops.isEmpty()) {
+                return List.of();
+            }
+            List<TraceHop> drained = hops;
+            hops = new ArrayList<>(capacity);
+            return drained;
+        }
+    }
+}
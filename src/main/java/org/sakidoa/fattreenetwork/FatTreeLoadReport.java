@@ -0,0 +1,8 @@
+package org.sakidoa.fattreenetwork;
+
+import java.util.List;
+
+public record FatTreeLoadReport(double oversubscription, long deliveredMessages, long droppedMessages,
+                                List<SwitchLoad> switches, long maxUplinkMessages, double meanUplinkMessages,
+                                double uplinkImbalance, List<SwitchLoad> hottestSwitches) {
+}
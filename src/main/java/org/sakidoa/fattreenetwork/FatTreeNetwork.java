@@ -0,0 +1,418 @@
+package org.sakidoa.fattreenetwork;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.MessageRouter;
+import org.sakidoa.core.NetworkShutdown;
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.ShutdownReport;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.link.LinkConfig;
+import org.sakidoa.core.link.LinkLayer;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.runtime.HostedTopology;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Fat tree built as a k-ary n-tree of switches with {@code radix} ports each: k = radix / 2 ports face down and
+ * up to k face up, giving k^levels endpoints and k^(levels - 1) switches per level. Using fewer uplinks than
+ * downlinks tapers the tree and oversubscribes it by k / uplinks.
+ *
+ * <p>A message climbs only as far as the lowest level whose subtree contains both endpoints. On the way up each
+ * switch picks one of its equal-cost uplinks by hashing the flow (source, destination, flow id), so a flow always
+ * follows the same path while different flows spread across the fabric. The way down is fixed by the
+ * destination's digits.
+ *
+ * <p>Every switch output port has its own transmitter and bounded queue (see {@link #setPortConfig(LinkConfig)}).
+ * A message is queued at each port on its path in turn and handed to the receiver once it leaves the last one,
+ * so flows sharing an uplink or a core switch contend for it and oversubscribed tiers show up as queueing delay
+ * and drops in the {@link FatTreeLoadReport}.
+ */
+public class FatTreeNetwork implements NetworkTopology {
+    private static final int HOTTEST_SWITCH_COUNT = 5;
+    private static final long FABRIC_DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final LinkConfig DEFAULT_PORT_CONFIG = LinkConfig.of(Duration.ZERO, 12_500_000, 64);
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final LongAdder deliveredMessages = new LongAdder();
+    private final LongAdder droppedMessages = new LongAdder();
+    private final AtomicInteger messagesInFabric = new AtomicInteger();
+    private final int levels;
+    private final int downlinksPerSwitch;
+    private final int uplinksPerSwitch;
+    private final int[] powers;
+    private List<Node> nodes;
+    private FatTreeSwitch[][] switches;
+    private ExecutorService executor;
+    private ScheduledExecutorService deliveryScheduler;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private LinkConfig portConfig = DEFAULT_PORT_CONFIG;
+    private volatile FaultInjector faultInjector;
+    private HostedTopology runtime;
+    private long startNanos;
+
+    public FatTreeNetwork(int radix, int levels) {
+        this(radix, levels, radix / 2);
+    }
+
+    public FatTreeNetwork(int radix, int levels, int uplinksPerSwitch) {
+        validateShape(radix, levels, uplinksPerSwitch);
+        this.levels = levels;
+        this.downlinksPerSwitch = radix / 2;
+        this.uplinksPerSwitch = uplinksPerSwitch;
+        this.powers = new int[levels + 1];
+        powers[0] = 1;
+        for (int level = 1; level <= levels; level++) {
+            powers[level] = Math.multiplyExact(powers[level - 1], downlinksPerSwitch);
+        }
+    }
+
+    @Override
+    public void configureNetwork(int numberOfNodes) {
+        validateNodeCount(numberOfNodes);
+        createNodes(numberOfNodes);
+        createSwitches();
+        initializeExecutor(numberOfNodes);
+    }
+
+    @Override
+    public void sendMessage(int fromNode, int toNode, String message) {
+        sendMessage(fromNode, toNode, 0, message);
+    }
+
+    public void sendMessage(int fromNode, int toNode, int flowId, String message) {
+        validateNetworkRunning();
+        validateNodeIndices(fromNode, toNode);
+
+        Message msg = new Message(MessageType.DATA, nodes.get(fromNode).getNodeId(), message);
+        msg.setReceiverId(nodes.get(toNode).getNodeId());
+        long now = System.nanoTime();
+        long arrivalNanos = forwardThroughFabric(fromNode, toNode, flowId, LinkLayer.sizeOf(msg), now);
+        if (arrivalNanos < 0) {
+            droppedMessages.increment();
+            return;
+        }
+        messagesInFabric.incrementAndGet();
+        Runnable delivery = () -> deliver(fromNode, toNode, msg);
+        if (runtime != null) {
+            runtime.schedule(delivery, Duration.ofNanos(arrivalNanos - now));
+        } else {
+            deliveryScheduler.schedule(delivery, arrivalNanos - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Messages still crossing the fabric count towards the backlog until they reach their endpoint.
+     */
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        validateNetworkConfigured();
+        IntSupplier queueDepth = IngressSubscriber.queueDepthOf(nodes);
+        return new IngressSubscriber((fromNode, toNode, message) -> {
+            if (!running.get()) {
+                return false;
+            }
+            sendMessage(fromNode, toNode, message);
+            return true;
+        }, () -> queueDepth.getAsInt() + messagesInFabric.get(), maxQueuedMessages);
+    }
+
+    @Override
+    public void runNetwork() {
+        validateNetworkConfigured();
+        running.set(true);
+        startNanos = System.nanoTime();
+        initializeDeliveryScheduler();
+        startNodes();
+    }
+
+    /**
+     * The runtime steps the endpoints and its timer delivers each message when it leaves the last port at
+     * the time the port queues computed. Shutdown drains the fabric before handing the endpoints back.
+     */
+    @Override
+    public void runNetwork(HostedTopology runtime) {
+        validateNetworkConfigured();
+        this.runtime = runtime;
+        running.set(true);
+        startNanos = System.nanoTime();
+        runtime.start(nodes);
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
+        running.set(false);
+        stopFabric(deadline, drainInFlight);
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
+        }
+        if (faultInjector != null) {
+            faultInjector.close();
+        }
+        return NetworkShutdown.shutdown(nodes == null ? List.of() : nodes, executor, deadline, drainInFlight);
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        validateNetworkConfigured();
+        return nodes;
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    /**
+     * Sets the bandwidth, propagation delay and queue capacity of every switch port; applies to switches
+     * created by the next {@link #configureNetwork(int)}.
+     */
+    public void setPortConfig(LinkConfig portConfig) {
+        this.portConfig = portConfig;
+    }
+
+    /**
+     * Faults apply where a message leaves the fabric for its endpoint: killed endpoints and cut links lose it,
+     * and the loss shows up both in the injector's reports and as a drop in the load report.
+     */
+    public FaultInjector enableFaultInjection() {
+        validateNetworkConfigured();
+        this.faultInjector = new FaultInjector(nodes);
+        return faultInjector;
+    }
+
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    public int getEndpointCount() {
+        return powers[levels];
+    }
+
+    public int getSwitchCount() {
+        return levels * powers[levels - 1];
+    }
+
+    public double getOversubscription() {
+        return (double) downlinksPerSwitch / uplinksPerSwitch;
+    }
+
+    public FatTreeSwitch getSwitch(int level, int position) {
+        validateNetworkConfigured();
+        return switches[level][position];
+    }
+
+    public FatTreeLoadReport getLoadReport() {
+        validateNetworkConfigured();
+        long now = System.nanoTime();
+        long observedNanos = startNanos == 0 ? 0 : now - startNanos;
+        List<SwitchLoad> loads = Arrays.stream(switches)
+                .flatMap(Arrays::stream)
+                .map(fabricSwitch -> fabricSwitch.snapshot(now, observedNanos))
+                .toList();
+
+        long maxUplink = 0;
+        long totalUplink = 0;
+        int uplinkCount = 0;
+        for (SwitchLoad load : loads) {
+            for (long messages : load.uplinkMessages()) {
+                maxUplink = Math.max(maxUplink, messages);
+                totalUplink += messages;
+                uplinkCount++;
+            }
+        }
+        double meanUplink = uplinkCount > 0 ? (double) totalUplink / uplinkCount : 0.0;
+        double imbalance = meanUplink > 0 ? maxUplink / meanUplink : 0.0;
+
+        List<SwitchLoad> hottest = loads.stream()
+                .sorted(Comparator.comparingLong(SwitchLoad::maxQueueingNanos)
+                        .thenComparingLong(SwitchLoad::forwardedMessages)
+                        .reversed())
+                .limit(HOTTEST_SWITCH_COUNT)
+                .toList();
+
+        return new FatTreeLoadReport(getOversubscription(), deliveredMessages.sum(), droppedMessages.sum(), loads,
+                maxUplink, meanUplink, imbalance, hottest);
+    }
+
+    private static void validateShape(int radix, int levels, int uplinksPerSwitch) {
+        if (radix < 4 || radix % 2 != 0) {
+            throw new IllegalArgumentException("Fat tree radix must be an even number of at least 4 ports");
+        }
+        if (levels < 1) {
+            throw new IllegalArgumentException("Fat tree requires at least one switch level");
+        }
+        if (uplinksPerSwitch < 1 || uplinksPerSwitch > radix / 2) {
+            throw new IllegalArgumentException("Uplinks per switch must be between 1 and " + radix / 2);
+        }
+    }
+
+    private void validateNodeCount(int numberOfNodes) {
+        if (numberOfNodes != getEndpointCount()) {
+            throw new IllegalArgumentException("Fat tree of radix " + 2 * downlinksPerSwitch + " and " + levels
+                    + " levels has " + getEndpointCount() + " endpoints but " + numberOfNodes + " were requested");
+        }
+    }
+
+    private void validateNodeIndices(int fromNode, int toNode) {
+        if (fromNode < 0 || fromNode >= nodes.size()) {
+            throw new IndexOutOfBoundsException("From node index out of bounds: " + fromNode);
+        }
+        if (toNode < 0 || toNode >= nodes.size()) {
+            throw new IndexOutOfBoundsException("To node index out of bounds: " + toNode);
+        }
+    }
+
+    private void createNodes(int numberOfNodes) {
+        this.nodes = IntStream.range(0, numberOfNodes)
+                .mapToObj(i -> createNode("fattree-node-" + i))
+                .toList();
+    }
+
+    private Node createNode(String nodeId) {
+        return new Node(nodeId, mailboxFactory.create(nodeId));
+    }
+
+    private void createSwitches() {
+        int switchesPerLevel = powers[levels - 1];
+        this.switches = new FatTreeSwitch[levels][switchesPerLevel];
+        for (int level = 0; level < levels; level++) {
+            int uplinks = level == levels - 1 ? 0 : uplinksPerSwitch;
+            for (int position = 0; position < switchesPerLevel; position++) {
+                switches[level][position] = new FatTreeSwitch(level, position, uplinks, downlinksPerSwitch,
+                        portConfig);
+            }
+        }
+    }
+
+    /**
+     * Queues the frame at each output port on its path and returns when it leaves the fabric, or -1 when a
+     * full port dropped it.
+     */
+    private long forwardThroughFabric(int source, int destination, int flowId, int sizeInBytes, long nowNanos) {
+        int turnaroundLevel = commonAncestorLevel(source, destination);
+        long flowHash = flowHash(source, destination, flowId);
+        int position = source / downlinksPerSwitch;
+        long arrivalNanos = nowNanos;
+
+        for (int level = 0; level < turnaroundLevel && arrivalNanos >= 0; level++) {
+            int port = uplinkPort(flowHash, level);
+            arrivalNanos = switches[level][position].forwardUp(port, sizeInBytes, arrivalNanos);
+            position = replaceDigit(position, level, port);
+        }
+        for (int level = turnaroundLevel; level > 0 && arrivalNanos >= 0; level--) {
+            int port = digit(destination, level);
+            arrivalNanos = switches[level][position].forwardDown(port, sizeInBytes, arrivalNanos);
+            position = replaceDigit(position, level - 1, port);
+        }
+        return arrivalNanos < 0 ? -1
+                : switches[0][position].forwardDown(digit(destination, 0), sizeInBytes, arrivalNanos);
+    }
+
+    private void deliver(int source, int destination, Message message) {
+        messagesInFabric.decrementAndGet();
+        FaultInjector faults = faultInjector;
+        Node receiver = nodes.get(destination);
+        boolean accepted = MessageRouter.recordHandOff(nodes.get(source), receiver, message,
+                () -> faults == null ? receiver.receiveMessage(message)
+                        : faults.deliver(source, destination, message,
+                                (from, to, delivered) -> nodes.get(to).receiveMessage(delivered)));
+        if (accepted) {
+            deliveredMessages.increment();
+        } else {
+            droppedMessages.increment();
+        }
+    }
+
+    private void stopFabric(Duration deadline, boolean drainInFlight) {
+        if (deliveryScheduler == null) {
+            if (drainInFlight) {
+                NetworkShutdown.awaitQuiescence(nodes, () -> messagesInFabric.get() == 0,
+                        System.nanoTime() + deadline.toNanos(), FABRIC_DRAIN_POLL_NANOS);
+            }
+            return;
+        }
+        if (!drainInFlight) {
+            deliveryScheduler.shutdownNow();
+            return;
+        }
+        deliveryScheduler.shutdown();
+        try {
+            deliveryScheduler.awaitTermination(deadline.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int commonAncestorLevel(int source, int destination) {
+        int level = 0;
+        while (level < levels - 1 && source / powers[level + 1] != destination / powers[level + 1]) {
+            level++;
+        }
+        return level;
+    }
+
+    private int digit(int value, int position) {
+        return (value / powers[position]) % downlinksPerSwitch;
+    }
+
+    private int replaceDigit(int value, int position, int newDigit) {
+        return value + (newDigit - digit(value, position)) * powers[position];
+    }
+
+    private int uplinkPort(long flowHash, int level) {
+        return (int) Long.remainderUnsigned(mix(flowHash + level * 0x9E3779B97F4A7C15L), uplinksPerSwitch);
+    }
+
+    private static long flowHash(int source, int destination, int flowId) {
+        return mix(((long) source << 32 | (destination & 0xFFFFFFFFL)) ^ (flowId * 0xC2B2AE3D27D4EB4FL));
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private void initializeExecutor(int numberOfNodes) {
+        this.executor = Executors.newFixedThreadPool(numberOfNodes + 1);
+    }
+
+    private void initializeDeliveryScheduler() {
+        this.deliveryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fattree-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void validateNetworkRunning() {
+        if (!running.get()) {
+            throw new IllegalStateException("Network is not running");
+        }
+    }
+
+    private void validateNetworkConfigured() {
+        if (nodes == null) {
+            throw new IllegalStateException("Network not configured");
+        }
+    }
+
+    private void startNodes() {
+        nodes.forEach(executor::submit);
+    }
+}
@@ -0,0 +1,96 @@
+package org.sakidoa.fattreenetwork;
+
+import org.sakidoa.core.link.Link;
+import org.sakidoa.core.link.LinkConfig;
+import org.sakidoa.core.link.LinkMetrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Switch of a {@link FatTreeNetwork}. Every output port is a {@link Link} with its own transmitter and
+ * bounded queue, so flows hashed onto the same uplink, or converging on one downlink, wait for each other.
+ */
+public class FatTreeSwitch {
+    private final int level;
+    private final int position;
+    private final LongAdder forwardedMessages = new LongAdder();
+    private final AtomicLongArray uplinkMessages;
+    private final Link[] uplinkPorts;
+    private final Link[] downlinkPorts;
+
+    FatTreeSwitch(int level, int position, int uplinks, int downlinks, LinkConfig portConfig) {
+        this.level = level;
+        this.position = position;
+        this.uplinkMessages = new AtomicLongArray(uplinks);
+        this.uplinkPorts = new Link[uplinks];
+        this.downlinkPorts = new Link[downlinks];
+        for (int port = 0; port < uplinks; port++) {
+            uplinkPorts[port] = new Link(getSwitchId(), "up-" + port, portConfig);
+        }
+        for (int port = 0; port < downlinks; port++) {
+            downlinkPorts[port] = new Link(getSwitchId(), "down-" + port, portConfig);
+        }
+    }
+
+    /**
+     * Queues a frame arriving at {@code arrivalNanos} on an uplink and returns when it reaches the next switch,
+     * or -1 when the port's queue is full.
+     */
+    long forwardUp(int port, int sizeInBytes, long arrivalNanos) {
+        forwardedMessages.increment();
+        uplinkMessages.incrementAndGet(port);
+        return uplinkPorts[port].schedule(sizeInBytes, arrivalNanos);
+    }
+
+    long forwardDown(int port, int sizeInBytes, long arrivalNanos) {
+        forwardedMessages.increment();
+        return downlinkPorts[port].schedule(sizeInBytes, arrivalNanos);
+    }
+
+    public String getSwitchId() {
+        return "switch-" + level + "-" + position;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public long getForwardedMessages() {
+        return forwardedMessages.sum();
+    }
+
+    public long getUplinkMessages(int port) {
+        return uplinkMessages.get(port);
+    }
+
+    public int getUplinkCount() {
+        return uplinkMessages.length();
+    }
+
+    SwitchLoad snapshot(long nowNanos, long observedNanos) {
+        long[] uplinks = new long[uplinkMessages.length()];
+        for (int port = 0; port < uplinks.length; port++) {
+            uplinks[port] = uplinkMessages.get(port);
+        }
+        long dropped = 0;
+        int queued = 0;
+        long maxQueueing = 0;
+        double maxUtilization = 0;
+        for (Link[] ports : new Link[][]{uplinkPorts, downlinkPorts}) {
+            for (Link port : ports) {
+                LinkMetrics metrics = port.snapshot(nowNanos, observedNanos);
+                dropped += metrics.droppedMessages();
+                queued += metrics.queueDepth();
+                maxQueueing = Math.max(maxQueueing, metrics.maxQueueingDelayNanos());
+                maxUtilization = Math.max(maxUtilization, metrics.utilization());
+            }
+        }
+        return new SwitchLoad(getSwitchId(), level, position, getForwardedMessages(), uplinks, dropped, queued,
+                maxQueueing, maxUtilization);
+    }
+}
@@ -0,0 +1,6 @@
+package org.sakidoa.fattreenetwork;
+
+public record SwitchLoad(String switchId, int level, int position, long forwardedMessages, long[] uplinkMessages,
+                         long droppedMessages, int queuedMessages, long maxQueueingNanos,
+                         double maxPortUtilization) {
+}
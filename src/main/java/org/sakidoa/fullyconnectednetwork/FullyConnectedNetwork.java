@@ -1,21 +1,41 @@
 package org.sakidoa.fullyconnectednetwork;
 
 import org.sakidoa.core.*;
+import org.sakidoa.core.batch.CoalescingConfig;
+import org.sakidoa.core.batch.CoalescingMetrics;
+import org.sakidoa.core.batch.MessageCoalescer;
+import org.sakidoa.core.collective.BinomialCollectiveAlgorithm;
+import org.sakidoa.core.collective.Collectives;
 import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+import org.sakidoa.core.runtime.HostedTopology;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.IntSupplier;
 
 public class FullyConnectedNetwork implements NetworkTopology {
 
     private final Map<String, Node> nodes = new ConcurrentHashMap<>();
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private ExecutorService executorService;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private Collectives collectives;
+    private RequestReply requestReply;
+    private MessageRouter messageRouter;
+    private FaultInjector faultInjector;
+    private MessageCoalescer coalescer;
+    private HostedTopology runtime;
 
     @Override
     public void configureNetwork(int numberOfNodes) {
         for (int i = 0; i < numberOfNodes; i++) {
             String nodeId = "Node-" + i;
-            Node node = new Node(nodeId);
+            Node node = new Node(nodeId, mailboxFactory.create(nodeId));
             nodes.put(nodeId, node);
         }
 
@@ -37,24 +57,146 @@ public class FullyConnectedNetwork implements NetworkTopology {
         Node receiver = nodes.get(toId);
 
         if (sender != null && receiver != null && sender.isNeighbor(receiver)) {
+            if (faultInjector != null) {
+                messageRouter.routeMessage(fromNode, toNode, message);
+                return;
+            }
             Message msg = new Message(MessageType.DATA, fromId, message);
             msg.setReceiverId(toId);
-            receiver.sendMessage(msg);
+            MessageRouter.recordHandOff(sender, receiver, msg, () -> {
+                if (coalescer == null) {
+                    return receiver.sendMessage(msg);
+                }
+                coalescer.submit(sender, receiver, msg);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Sends reach a mailbox before returning, except coalesced ones, which count towards the backlog while
+     * their batch waits for its flush.
+     */
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        IntSupplier queueDepth = IngressSubscriber.queueDepthOf(getNodes());
+        return new IngressSubscriber((fromNode, toNode, message) -> {
+            sendMessage(fromNode, toNode, message);
+            return true;
+        }, () -> queueDepth.getAsInt() + (coalescer == null ? 0 : coalescer.getPendingMessageCount()),
+                maxQueuedMessages);
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    public void setCoalescing(CoalescingConfig coalescingConfig) {
+        if (coalescingConfig != null && faultInjector != null) {
+            throw new IllegalStateException("Message coalescing cannot be combined with fault injection");
+        }
+        if (coalescer != null) {
+            coalescer.close();
+        }
+        this.coalescer = coalescingConfig == null ? null : new MessageCoalescer(coalescingConfig);
+        if (coalescer != null && runtime != null) {
+            coalescer.setTimer(runtime::schedule);
+        }
+    }
+
+    public CoalescingMetrics getCoalescingMetrics() {
+        if (coalescer == null) {
+            throw new IllegalStateException("Message coalescing is not enabled");
+        }
+        return coalescer.getMetrics();
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        return orderedNodes();
+    }
+
+    public RequestReply enableRequestReply(RequestHandler handler) {
+        this.requestReply = new RequestReply(router(), orderedNodes(), handler);
+        return requestReply;
+    }
+
+    public RequestReply getRequestReply() {
+        return requestReply;
+    }
+
+    /**
+     * Once enabled, data messages go through a fault-aware router instead of straight to the receiver, so a
+     * dropped link is detoured through another node and messages for a killed node are charged to the fault.
+     * Coalesced sends would bypass it, so the two cannot be combined.
+     */
+    public FaultInjector enableFaultInjection() {
+        if (coalescer != null) {
+            throw new IllegalStateException("Fault injection cannot be combined with message coalescing");
+        }
+        MessageRouter router = router();
+        this.faultInjector = new FaultInjector(orderedNodes());
+        router.setFaultInjector(faultInjector);
+        return faultInjector;
+    }
+
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    private MessageRouter router() {
+        if (messageRouter == null) {
+            messageRouter = new MessageRouter(orderedNodes());
+        }
+        return messageRouter;
+    }
+
+    public Collectives getCollectives() {
+        if (collectives == null) {
+            collectives = new Collectives(orderedNodes(), new BinomialCollectiveAlgorithm());
         }
+        return collectives;
+    }
+
+    private List<Node> orderedNodes() {
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("Network not configured");
+        }
+        List<Node> orderedNodes = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            orderedNodes.add(nodes.get("Node-" + i));
+        }
+        return orderedNodes;
     }
 
     @Override
     public void runNetwork() {
+        executorService = Executors.newCachedThreadPool();
         for (Node node : nodes.values()) {
             executorService.execute(node);
         }
     }
 
     @Override
-    public void shutdownNetwork() {
-        for (Node node : nodes.values()) {
-            node.shutdown();
+    public void runNetwork(HostedTopology runtime) {
+        this.runtime = runtime;
+        if (coalescer != null) {
+            coalescer.setTimer(runtime::schedule);
+        }
+        runtime.start(orderedNodes());
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
+        if (coalescer != null) {
+            coalescer.close();
+        }
+        if (faultInjector != null) {
+            faultInjector.close();
+        }
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
         }
-        executorService.shutdown();
+        return NetworkShutdown.shutdown(nodes.values(), executorService, deadline, drainInFlight);
     }
 }
@@ -0,0 +1,129 @@
+package org.sakidoa.graphnetwork;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Undirected graph in compressed sparse row form: the neighbours of node {@code i} are
+ * {@code targets[offsets[i]] .. targets[offsets[i + 1] - 1]}. Nodes are dense indices; when the source used
+ * sparse ids, {@link #originalId(int)} maps an index back to the id it was loaded with.
+ */
+public class CompactGraph {
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] originalIds;
+
+    CompactGraph(int[] offsets, int[] targets) {
+        this(offsets, targets, null);
+    }
+
+    private CompactGraph(int[] offsets, int[] targets, int[] originalIds) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.originalIds = originalIds;
+    }
+
+    public static CompactGraph fromEdges(int nodeCount, int[] edgeEndpoints, int edgeEndpointCount) {
+        return fromEdgeBlocks(nodeCount, new int[][]{edgeEndpoints}, new int[]{edgeEndpointCount});
+    }
+
+    static CompactGraph fromEdgeBlocks(int nodeCount, int[][] blocks, int[] blockSizes) {
+        return fromEdgeBlocks(nodeCount, blocks, blockSizes, null);
+    }
+
+    /**
+     * Builds the graph from endpoint pairs that are already dense indices. {@code originalIds}, sorted
+     * ascending, holds the loaded id of each index, or is {@code null} when indices and ids coincide.
+     */
+    static CompactGraph fromEdgeBlocks(int nodeCount, int[][] blocks, int[] blockSizes, int[] originalIds) {
+        int[] offsets = new int[nodeCount + 1];
+        for (int block = 0; block < blocks.length; block++) {
+            int[] endpoints = blocks[block];
+            for (int i = 0; i < blockSizes[block]; i += 2) {
+                if (endpoints[i] != endpoints[i + 1]) {
+                    offsets[endpoints[i] + 1]++;
+                    offsets[endpoints[i + 1] + 1]++;
+                }
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        int[] targets = new int[offsets[nodeCount]];
+        int[] cursor = Arrays.copyOf(offsets, nodeCount);
+        for (int block = 0; block < blocks.length; block++) {
+            int[] endpoints = blocks[block];
+            for (int i = 0; i < blockSizes[block]; i += 2) {
+                int source = endpoints[i];
+                int target = endpoints[i + 1];
+                if (source != target) {
+                    targets[cursor[source]++] = target;
+                    targets[cursor[target]++] = source;
+                }
+            }
+        }
+        return new CompactGraph(offsets, targets, originalIds);
+    }
+
+    public int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    public long edgeCount() {
+        return targets.length / 2;
+    }
+
+    public int originalId(int node) {
+        return originalIds == null ? node : originalIds[node];
+    }
+
+    /**
+     * Returns the dense index of the node loaded as {@code originalId}, or -1 when the graph has no such node.
+     */
+    public int indexOf(int originalId) {
+        if (originalIds == null) {
+            return originalId >= 0 && originalId < nodeCount() ? originalId : -1;
+        }
+        int index = Arrays.binarySearch(originalIds, originalId);
+        return index >= 0 ? index : -1;
+    }
+
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int neighbor(int node, int position) {
+        return targets[offsets[node] + position];
+    }
+
+    public void forEachNeighbor(int node, IntConsumer action) {
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+            action.accept(targets[i]);
+        }
+    }
+
+    /**
+     * Copies the rows out as one sorted, distinct neighbour array per node, the form {@link
+     * org.sakidoa.core.Adjacency} builds from neighbour sets.
+     */
+    public int[][] toAdjacency() {
+        int[][] adjacency = new int[nodeCount()][];
+        for (int node = 0; node < adjacency.length; node++) {
+            int[] row = Arrays.copyOfRange(targets, offsets[node], offsets[node + 1]);
+            Arrays.sort(row);
+            int distinct = 0;
+            for (int i = 0; i < row.length; i++) {
+                if (i == 0 || row[i] != row[i - 1]) {
+                    row[distinct++] = row[i];
+                }
+            }
+            adjacency[node] = distinct == row.length ? row : Arrays.copyOf(row, distinct);
+        }
+        return adjacency;
+    }
+
+    public long memoryFootprintBytes() {
+        return 4L * offsets.length + 4L * targets.length + (originalIds == null ? 0 : 4L * originalIds.length);
+    }
+}
@@ -0,0 +1,214 @@
+package org.sakidoa.graphnetwork;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Loads whitespace-separated {@code source target} edge lists. The file is memory-mapped and split into
+ * newline-aligned chunks that are parsed in parallel straight from the mapped bytes into primitive arrays.
+ * Lines whose first non-blank character is {@code #} or {@code %} are comments and any columns after the second
+ * are ignored. Node ids may be sparse; they are renumbered to dense indices in ascending id order.
+ */
+public final class EdgeListLoader {
+    private static final long MAX_CHUNK_BYTES = 64L * 1024 * 1024;
+    private static final long MIN_CHUNK_BYTES = 1024 * 1024;
+    private static final int BOUNDARY_SCAN_BYTES = 64 * 1024;
+
+    private EdgeListLoader() {
+    }
+
+    public static CompactGraph load(Path edgeListFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(edgeListFile, StandardOpenOption.READ)) {
+            List<long[]> chunks = splitIntoChunks(channel);
+            List<EdgeChunk> parsed = parseChunks(channel, chunks);
+            return buildGraph(parsed);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static List<long[]> splitIntoChunks(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        long chunkSize = Math.min(MAX_CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES, fileSize / (parallelism * 4L)));
+
+        List<long[]> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < fileSize) {
+            long end = start + chunkSize >= fileSize ? fileSize : nextLineStart(channel, start + chunkSize);
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        long fileSize = channel.size();
+        while (position < fileSize) {
+            int window = (int) Math.min(BOUNDARY_SCAN_BYTES, fileSize - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            for (int i = 0; i < window; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += window;
+        }
+        return fileSize;
+    }
+
+    private static List<EdgeChunk> parseChunks(FileChannel channel, List<long[]> chunks) {
+        return IntStream.range(0, chunks.size())
+                .parallel()
+                .mapToObj(i -> {
+                    long[] bounds = chunks.get(i);
+                    try {
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, bounds[0],
+                                bounds[1] - bounds[0]);
+                        return parseChunk(buffer, bounds[0]);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private static EdgeChunk parseChunk(MappedByteBuffer buffer, long chunkOffset) {
+        int limit = buffer.limit();
+        EdgeChunk chunk = new EdgeChunk(Math.max(16, limit / 6));
+        int position = 0;
+        long[] lineValues = new long[2];
+
+        while (position < limit) {
+            int valueCount = 0;
+            int lineStart = position;
+            int firstVisible = skipBlanks(buffer, position, limit);
+            byte current = firstVisible < limit ? buffer.get(firstVisible) : (byte) '\n';
+            if (current == '#' || current == '%') {
+                position = skipLine(buffer, position, limit);
+                continue;
+            }
+
+            while (position < limit && (current = buffer.get(position)) != '\n') {
+                if (current >= '0' && current <= '9' && valueCount < 2) {
+                    long value = 0;
+                    while (position < limit && (current = buffer.get(position)) >= '0' && current <= '9') {
+                        value = value * 10 + (current - '0');
+                        position++;
+                    }
+                    lineValues[valueCount++] = value;
+                } else if (current == ' ' || current == '\t' || current == '\r' || current == ',') {
+                    position++;
+                } else if (valueCount == 2) {
+                    position = skipLine(buffer, position, limit) - 1;
+                } else {
+                    throw new IllegalArgumentException("Malformed edge list near byte " + (chunkOffset + lineStart));
+                }
+            }
+            position++;
+
+            if (valueCount == 2) {
+                chunk.add(toNodeIndex(lineValues[0], chunkOffset + lineStart),
+                        toNodeIndex(lineValues[1], chunkOffset + lineStart));
+            } else if (valueCount == 1) {
+                throw new IllegalArgumentException("Edge with a single endpoint near byte " + (chunkOffset + lineStart));
+            }
+        }
+        return chunk;
+    }
+
+    private static int skipBlanks(MappedByteBuffer buffer, int position, int limit) {
+        while (position < limit && (buffer.get(position) == ' ' || buffer.get(position) == '\t')) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipLine(MappedByteBuffer buffer, int position, int limit) {
+        while (position < limit && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position + 1;
+    }
+
+    private static int toNodeIndex(long value, long lineOffset) {
+        if (value >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Node id out of range near byte " + lineOffset + ": " + value);
+        }
+        return (int) value;
+    }
+
+    private static CompactGraph buildGraph(List<EdgeChunk> chunks) {
+        int maxNodeId = chunks.stream().mapToInt(chunk -> chunk.maxNodeId).max().orElse(-1);
+        int[] originalIds = maxNodeId < 0 ? null : renumber(chunks, maxNodeId);
+        int nodeCount = originalIds == null ? maxNodeId + 1 : originalIds.length;
+        int[][] blocks = chunks.stream().map(chunk -> chunk.endpoints).toArray(int[][]::new);
+        int[] blockSizes = chunks.stream().mapToInt(chunk -> chunk.size).toArray();
+        return CompactGraph.fromEdgeBlocks(nodeCount, blocks, blockSizes, originalIds);
+    }
+
+    /**
+     * Rewrites every endpoint to its rank among the ids present, using a bitmap over the id space plus one
+     * running count per 64-bit word. Returns the present ids in ascending order, or {@code null} when they are
+     * already dense and nothing was rewritten.
+     */
+    private static int[] renumber(List<EdgeChunk> chunks, int maxNodeId) {
+        long[] present = new long[(maxNodeId >>> 6) + 1];
+        for (EdgeChunk chunk : chunks) {
+            for (int i = 0; i < chunk.size; i++) {
+                int id = chunk.endpoints[i];
+                present[id >>> 6] |= 1L << id;
+            }
+        }
+        int[] rankBefore = new int[present.length];
+        int distinct = 0;
+        for (int word = 0; word < present.length; word++) {
+            rankBefore[word] = distinct;
+            distinct += Long.bitCount(present[word]);
+        }
+        if (distinct == maxNodeId + 1) {
+            return null;
+        }
+
+        int[] originalIds = new int[distinct];
+        for (int word = 0, next = 0; word < present.length; word++) {
+            for (long bits = present[word]; bits != 0; bits &= bits - 1) {
+                originalIds[next++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        chunks.parallelStream().forEach(chunk -> {
+            for (int i = 0; i < chunk.size; i++) {
+                int id = chunk.endpoints[i];
+                chunk.endpoints[i] = rankBefore[id >>> 6] + Long.bitCount(present[id >>> 6] & ((1L << id) - 1));
+            }
+        });
+        return originalIds;
+    }
+
+    private static final class EdgeChunk {
+        private int[] endpoints;
+        private int size;
+        private int maxNodeId = -1;
+
+        private EdgeChunk(int initialCapacity) {
+            this.endpoints = new int[initialCapacity & ~1];
+        }
+
+        private void add(int source, int target) {
+            if (size + 2 > endpoints.length) {
+                endpoints = Arrays.copyOf(endpoints, endpoints.length * 2);
+            }
+            endpoints[size++] = source;
+            endpoints[size++] = target;
+            maxNodeId = Math.max(maxNodeId, Math.max(source, target));
+        }
+    }
+}
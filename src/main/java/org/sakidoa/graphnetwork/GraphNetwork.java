@@ -0,0 +1,208 @@
+package org.sakidoa.graphnetwork;
+
+import org.sakidoa.core.MessageRouter;
+import org.sakidoa.core.NetworkShutdown;
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.RouterFeatures;
+import org.sakidoa.core.ShutdownReport;
+import org.sakidoa.core.deterministic.DeterministicScheduler;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flood.FloodConfig;
+import org.sakidoa.core.flood.Flooding;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+import org.sakidoa.core.runtime.HostedTopology;
+import org.sakidoa.core.trace.Tracer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+public class GraphNetwork implements NetworkTopology {
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final RouterFeatures features = new RouterFeatures();
+    private final CompactGraph graph;
+    private List<Node> nodes;
+    private ExecutorService executor;
+    private MessageRouter messageRouter;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private Tracer tracer;
+    private Flooding flooding;
+    private HostedTopology runtime;
+
+    public GraphNetwork(CompactGraph graph) {
+        this.graph = graph;
+    }
+
+    public static GraphNetwork fromEdgeList(Path edgeListFile) throws IOException {
+        return new GraphNetwork(EdgeListLoader.load(edgeListFile));
+    }
+
+    @Override
+    public void configureNetwork(int numberOfNodes) {
+        validateNodeCount(numberOfNodes);
+        createNodes(numberOfNodes);
+        initializeExecutor();
+        initializeMessageRouter();
+    }
+
+    @Override
+    public void sendMessage(int fromNode, int toNode, String message) {
+        validateNetworkRunning();
+        DeterministicScheduler scheduler = features.getScheduler();
+        if (scheduler != null) {
+            scheduler.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
+        if (runtime != null) {
+            runtime.execute(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
+        executor.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
+    }
+
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        return features.ingressSubscriber(running::get, maxQueuedMessages);
+    }
+
+    @Override
+    public void runNetwork() {
+        validateNetworkConfigured();
+        running.set(true);
+        DeterministicScheduler scheduler = features.getScheduler();
+        if (scheduler != null) {
+            scheduler.start();
+        } else {
+            startNodes();
+        }
+    }
+
+    @Override
+    public void runNetwork(HostedTopology runtime) {
+        validateNetworkConfigured();
+        if (features.getScheduler() != null) {
+            throw new IllegalStateException("Network already has its own scheduler");
+        }
+        this.runtime = runtime;
+        running.set(true);
+        runtime.start(nodes);
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
+        running.set(false);
+        features.shutdownScheduler(drainInFlight);
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
+        }
+        features.closeFaultInjector();
+        return NetworkShutdown.shutdown(nodes == null ? List.of() : nodes, executor, deadline, drainInFlight);
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        validateNetworkConfigured();
+        return nodes;
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+        if (messageRouter != null) {
+            messageRouter.setTracer(tracer);
+        }
+    }
+
+    public DeterministicScheduler enableDeterministicMode(long seed) {
+        return features.enableDeterministicMode(seed);
+    }
+
+    public FaultInjector enableFaultInjection() {
+        return features.enableFaultInjection(graph::toAdjacency);
+    }
+
+    public FaultInjector getFaultInjector() {
+        return features.getFaultInjector();
+    }
+
+    public RequestReply enableRequestReply(RequestHandler handler) {
+        return features.enableRequestReply(handler);
+    }
+
+    public RequestReply getRequestReply() {
+        return features.getRequestReply();
+    }
+
+    public Flooding enableFlooding(FloodConfig config) {
+        validateNetworkConfigured();
+        this.flooding = new Flooding(nodes, graph.toAdjacency(), config);
+        return flooding;
+    }
+
+    public Flooding getFlooding() {
+        return flooding;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    private void validateNodeCount(int numberOfNodes) {
+        if (numberOfNodes != graph.nodeCount()) {
+            throw new IllegalArgumentException("Graph network loaded " + graph.nodeCount()
+                    + " nodes but " + numberOfNodes + " were requested");
+        }
+    }
+
+    private void createNodes(int numberOfNodes) {
+        List<GraphNode> graphNodes = IntStream.range(0, numberOfNodes)
+                .mapToObj(this::createNode)
+                .toList();
+        this.nodes = List.copyOf(graphNodes);
+        graphNodes.forEach(node -> node.attach(nodes));
+    }
+
+    private GraphNode createNode(int index) {
+        String nodeId = "graph-node-" + graph.originalId(index);
+        return new GraphNode(nodeId, mailboxFactory.create(nodeId), graph, index);
+    }
+
+    // A platform thread per vertex does not scale to loaded graphs, so nodes and routing run on virtual threads.
+    private void initializeExecutor() {
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    private void initializeMessageRouter() {
+        this.messageRouter = new MessageRouter(nodes);
+        features.attach(nodes, messageRouter);
+        messageRouter.setTracer(tracer);
+    }
+
+    private void validateNetworkRunning() {
+        if (!running.get()) {
+            throw new IllegalStateException("Network is not running");
+        }
+    }
+
+    private void validateNetworkConfigured() {
+        if (nodes == null) {
+            throw new IllegalStateException("Network not configured");
+        }
+    }
+
+    private void startNodes() {
+        nodes.forEach(executor::submit);
+    }
+}
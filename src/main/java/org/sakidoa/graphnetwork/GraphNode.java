@@ -0,0 +1,79 @@
+package org.sakidoa.graphnetwork;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.mailbox.Mailbox;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vertex of a {@link GraphNetwork}. Its neighbours are read from the CSR row of the shared
+ * {@link CompactGraph} rather than copied into a set per node, so adjacency stays at two ints per edge end.
+ * The adjacency is fixed once loaded, so {@link #addNeighbor(Node)} and {@link #removeNeighbor(Node)} change
+ * nothing and return {@code false}.
+ */
+class GraphNode extends Node {
+    private final CompactGraph graph;
+    private final int index;
+    private List<Node> nodes;
+
+    GraphNode(String nodeId, Mailbox mailbox, CompactGraph graph, int index) {
+        super(nodeId, mailbox);
+        this.graph = graph;
+        this.index = index;
+    }
+
+    void attach(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    @Override
+    public boolean addNeighbor(Node neighbor) {
+        return false;
+    }
+
+    @Override
+    public boolean removeNeighbor(Node neighbor) {
+        return false;
+    }
+
+    @Override
+    public Set<Node> getNeighbors() {
+        Set<Node> neighbors = new HashSet<>();
+        graph.forEachNeighbor(index, neighbor -> neighbors.add(nodes.get(neighbor)));
+        return neighbors;
+    }
+
+    @Override
+    public boolean isNeighbor(Node node) {
+        for (int position = 0; position < graph.degree(index); position++) {
+            if (nodes.get(graph.neighbor(index, position)) == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getNeighborCount() {
+        return graph.degree(index);
+    }
+
+    @Override
+    public boolean sendMessageToNeighbor(String neighborId, Message message) {
+        for (int position = 0; position < graph.degree(index); position++) {
+            Node neighbor = nodes.get(graph.neighbor(index, position));
+            if (neighbor.getNodeId().equals(neighborId)) {
+                return neighbor.sendMessage(message);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void broadcastMessage(Message message) {
+        graph.forEachNeighbor(index, neighbor -> nodes.get(neighbor).sendMessage(message));
+    }
+}
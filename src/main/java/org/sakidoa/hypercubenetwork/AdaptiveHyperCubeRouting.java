@@ -0,0 +1,92 @@
+package org.sakidoa.hypercubenetwork;
+
+import org.sakidoa.core.RoutingStrategy;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Minimal adaptive routing: every dimension in which the current node still differs from the destination
+ * leads one hop closer, so each hop picks the neighbour along those dimensions with the shallowest queue.
+ * Load hints are plain reads of the neighbours' queue depth. The lowest differing dimension (the e-cube
+ * hop) wins unless another neighbour is shallower by more than the hysteresis, and once even the
+ * shallowest candidate is past the congestion threshold routing falls back to e-cube outright, so
+ * saturated regions are not chased from hop to hop.
+ */
+public class AdaptiveHyperCubeRouting implements RoutingStrategy {
+    public static final int DEFAULT_CONGESTION_THRESHOLD = 256;
+    public static final int DEFAULT_HYSTERESIS = 1;
+
+    private final IntUnaryOperator loadHints;
+    private final int congestionThreshold;
+    private final int hysteresis;
+    private final LongAdder eCubeHops = new LongAdder();
+    private final LongAdder adaptiveHops = new LongAdder();
+    private final LongAdder fallbackHops = new LongAdder();
+
+    public AdaptiveHyperCubeRouting(IntUnaryOperator loadHints) {
+        this(loadHints, DEFAULT_CONGESTION_THRESHOLD, DEFAULT_HYSTERESIS);
+    }
+
+    public AdaptiveHyperCubeRouting(IntUnaryOperator loadHints, int congestionThreshold, int hysteresis) {
+        if (congestionThreshold < 1 || hysteresis < 0) {
+            throw new IllegalArgumentException("Congestion threshold must be positive and hysteresis non-negative");
+        }
+        this.loadHints = loadHints;
+        this.congestionThreshold = congestionThreshold;
+        this.hysteresis = hysteresis;
+    }
+
+    @Override
+    public int nextHop(int currentNode, int destinationNode) {
+        int remaining = currentNode ^ destinationNode;
+        int eCubeHop = currentNode ^ Integer.lowestOneBit(remaining);
+        if (Integer.bitCount(remaining) == 1) {
+            eCubeHops.increment();
+            return eCubeHop;
+        }
+
+        int eCubeLoad = loadHints.applyAsInt(eCubeHop);
+        int bestHop = eCubeHop;
+        int bestLoad = eCubeLoad;
+        for (int dimensions = remaining & (remaining - 1); dimensions != 0; dimensions &= dimensions - 1) {
+            int candidate = currentNode ^ Integer.lowestOneBit(dimensions);
+            int load = loadHints.applyAsInt(candidate);
+            if (load < bestLoad) {
+                bestHop = candidate;
+                bestLoad = load;
+            }
+        }
+
+        if (bestLoad >= congestionThreshold) {
+            fallbackHops.increment();
+            return eCubeHop;
+        }
+        if (eCubeLoad - bestLoad <= hysteresis) {
+            eCubeHops.increment();
+            return eCubeHop;
+        }
+        adaptiveHops.increment();
+        return bestHop;
+    }
+
+    public int getCongestionThreshold() {
+        return congestionThreshold;
+    }
+
+    public int getHysteresis() {
+        return hysteresis;
+    }
+
+    public long getECubeHopCount() {
+        return eCubeHops.sum();
+    }
+
+    public long getAdaptiveHopCount() {
+        return adaptiveHops.sum();
+    }
+
+    public long getFallbackHopCount() {
+        return fallbackHops.sum();
+    }
+}
@@ -0,0 +1,75 @@
+package org.sakidoa.hypercubenetwork;
+
+import org.sakidoa.core.collective.BinomialCollectiveAlgorithm;
+import org.sakidoa.core.collective.CollectivePlan;
+import org.sakidoa.core.collective.CollectiveStep;
+import org.sakidoa.core.collective.Segment;
+import org.sakidoa.core.collective.Transfer;
+
+import java.util.List;
+
+/**
+ * Hypercube collectives. Ranks are XOR-relative to the root, so every binomial tree edge is a cube link;
+ * all-reduce is recursive halving (reduce-scatter) followed by recursive doubling (all-gather), which
+ * moves 2(n - 1)/n of the vector per node in 2 log n rounds.
+ */
+public class HyperCubeCollectiveAlgorithm extends BinomialCollectiveAlgorithm {
+
+    @Override
+    public CollectivePlan allReduce(int nodeCount, int length) {
+        int dimensions = Integer.numberOfTrailingZeros(nodeCount);
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, length);
+        for (int node = 0; node < nodeCount; node++) {
+            int[] lows = new int[dimensions + 1];
+            int[] highs = new int[dimensions + 1];
+            lows[dimensions] = 0;
+            highs[dimensions] = length;
+
+            for (int dimension = dimensions - 1; dimension >= 0; dimension--) {
+                int partner = node ^ (1 << dimension);
+                int low = lows[dimension + 1];
+                int high = highs[dimension + 1];
+                int middle = (low + high) >>> 1;
+                boolean keepLower = (node & (1 << dimension)) == 0;
+                lows[dimension] = keepLower ? low : middle;
+                highs[dimension] = keepLower ? middle : high;
+                Segment sent = keepLower ? range(middle, high) : range(low, middle);
+                plan.add(node, CollectiveStep.exchange(Transfer.of(partner, sent), partner, true));
+            }
+
+            for (int dimension = 0; dimension < dimensions; dimension++) {
+                int partner = node ^ (1 << dimension);
+                Segment owned = range(lows[dimension], highs[dimension]);
+                plan.add(node, new CollectiveStep(List.of(Transfer.of(partner, owned)), new int[]{partner}, false));
+            }
+        }
+        return plan.build();
+    }
+
+    @Override
+    public CollectivePlan allToAll(int nodeCount, int blockLength) {
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, nodeCount * blockLength);
+        for (int node = 0; node < nodeCount; node++) {
+            for (int round = 1; round < nodeCount; round++) {
+                int peer = node ^ round;
+                Transfer transfer = Transfer.of(peer, new Segment(peer * blockLength, node * blockLength, blockLength));
+                plan.add(node, CollectiveStep.exchange(transfer, peer, false));
+            }
+        }
+        return plan.build();
+    }
+
+    @Override
+    protected int rankOf(int node, int root, int nodeCount) {
+        return node ^ root;
+    }
+
+    @Override
+    protected int nodeOf(int rank, int root, int nodeCount) {
+        return rank ^ root;
+    }
+
+    private static Segment range(int low, int high) {
+        return Segment.aligned(low, high - low);
+    }
+}
@@ -1,21 +1,46 @@
 package org.sakidoa.hypercubenetwork;
 
 import org.sakidoa.core.MessageRouter;
+import org.sakidoa.core.NetworkShutdown;
 import org.sakidoa.core.NetworkTopology;
 import org.sakidoa.core.Node;
+import org.sakidoa.core.RouterFeatures;
+import org.sakidoa.core.RoutingStrategy;
+import org.sakidoa.core.ShutdownReport;
+import org.sakidoa.core.collective.Collectives;
+import org.sakidoa.core.deterministic.DeterministicScheduler;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.placement.PinnedMailbox;
+import org.sakidoa.core.placement.PlacementConfig;
+import org.sakidoa.core.placement.WorkerPool;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+import org.sakidoa.core.runtime.HostedTopology;
+import org.sakidoa.core.trace.Tracer;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.IntStream;
 
 public class HyperCubeNetwork implements NetworkTopology {
     private final AtomicBoolean running = new AtomicBoolean(false);
+    private final RouterFeatures features = new RouterFeatures();
     private List<Node> nodes;
     private ExecutorService executor;
     private MessageRouter messageRouter;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private Tracer tracer;
+    private PlacementConfig placement;
+    private WorkerPool workerPool;
+    private HostedTopology runtime;
+    private Collectives collectives;
+    private HyperCubeRouting routing = HyperCubeRouting.DIRECT;
+    private AdaptiveHyperCubeRouting adaptiveRouting;
     private int dimensions;
 
     @Override
@@ -24,6 +49,7 @@ public class HyperCubeNetwork implements NetworkTopology {
         calculateDimensions(numberOfNodes);
         createNodes(numberOfNodes);
         configureHyperCubeConnections();
+        initializeWorkerPool();
         initializeExecutor(numberOfNodes);
         initializeMessageRouter();
     }
@@ -31,21 +57,144 @@ public class HyperCubeNetwork implements NetworkTopology {
     @Override
     public void sendMessage(int fromNode, int toNode, String message) {
         validateNetworkRunning();
+        DeterministicScheduler scheduler = features.getScheduler();
+        if (scheduler != null) {
+            scheduler.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
+        if (runtime != null) {
+            runtime.execute(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
         executor.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
     }
 
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        return features.ingressSubscriber(running::get, maxQueuedMessages);
+    }
+
     @Override
     public void runNetwork() {
         validateNetworkConfigured();
         running.set(true);
-        startNodes();
+        DeterministicScheduler scheduler = features.getScheduler();
+        if (scheduler != null) {
+            scheduler.start();
+        } else if (workerPool != null) {
+            workerPool.start();
+        } else {
+            startNodes();
+        }
     }
 
     @Override
-    public void shutdownNetwork() {
+    public void runNetwork(HostedTopology runtime) {
+        validateNetworkConfigured();
+        if (features.getScheduler() != null || workerPool != null) {
+            throw new IllegalStateException("Network already has its own scheduler");
+        }
+        this.runtime = runtime;
+        running.set(true);
+        runtime.start(nodes);
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
         running.set(false);
-        shutdownNodes();
-        gracefulShutdown();
+        features.shutdownScheduler(drainInFlight);
+        if (workerPool != null) {
+            workerPool.shutdown(deadline, drainInFlight);
+        }
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
+        }
+        features.closeFaultInjector();
+        return NetworkShutdown.shutdown(nodes == null ? List.of() : nodes, executor, deadline, drainInFlight);
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    /**
+     * Runs the nodes on {@code placement.workers()} pinned worker threads instead of one thread each. Takes
+     * effect at the next {@link #configureNetwork(int)} and replaces the mailbox factory.
+     */
+    public void setPlacement(PlacementConfig placement) {
+        this.placement = placement;
+    }
+
+    public WorkerPool getWorkerPool() {
+        return workerPool;
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        validateNetworkConfigured();
+        return nodes;
+    }
+
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+        if (messageRouter != null) {
+            messageRouter.setTracer(tracer);
+        }
+    }
+
+    public DeterministicScheduler enableDeterministicMode(long seed) {
+        return features.enableDeterministicMode(seed);
+    }
+
+    public FaultInjector enableFaultInjection() {
+        return features.enableFaultInjection();
+    }
+
+    public FaultInjector getFaultInjector() {
+        return features.getFaultInjector();
+    }
+
+    public RequestReply enableRequestReply(RequestHandler handler) {
+        return features.enableRequestReply(handler);
+    }
+
+    public RequestReply getRequestReply() {
+        return features.getRequestReply();
+    }
+
+    public Collectives getCollectives() {
+        validateNetworkConfigured();
+        if (collectives == null) {
+            collectives = new Collectives(nodes, new HyperCubeCollectiveAlgorithm());
+        }
+        return collectives;
+    }
+
+    public void setRouting(HyperCubeRouting routing) {
+        this.routing = routing;
+        if (messageRouter != null) {
+            applyRouting();
+        }
+    }
+
+    public RoutingStrategy getRoutingStrategy() {
+        return switch (routing) {
+            case DIRECT -> RoutingStrategy.DIRECT;
+            case E_CUBE -> this::nextECubeHop;
+            case ADAPTIVE -> getAdaptiveRouting();
+        };
+    }
+
+    public AdaptiveHyperCubeRouting getAdaptiveRouting() {
+        validateNetworkConfigured();
+        if (adaptiveRouting == null) {
+            adaptiveRouting = new AdaptiveHyperCubeRouting(index -> nodes.get(index).getQueueSize());
+        }
+        return adaptiveRouting;
+    }
+
+    public int getDimensions() {
+        return dimensions;
     }
 
     private void validateNodeCount(int numberOfNodes) {
@@ -67,10 +216,14 @@ public class HyperCubeNetwork implements NetworkTopology {
 
     private void createNodes(int numberOfNodes) {
         this.nodes = IntStream.range(0, numberOfNodes)
-                .mapToObj(i -> new Node("hypercube-node-" + i))
+                .mapToObj(i -> createNode("hypercube-node-" + i))
                 .toList();
     }
 
+    private Node createNode(String nodeId) {
+        return new Node(nodeId, placement != null ? new PinnedMailbox() : mailboxFactory.create(nodeId));
+    }
+
     private void configureHyperCubeConnections() {
         int nodeCount = nodes.size();
         
@@ -92,12 +245,28 @@ public class HyperCubeNetwork implements NetworkTopology {
         return nodeIndex ^ (1 << dimension);
     }
 
+    private int nextECubeHop(int currentNode, int destinationNode) {
+        int lowestDifferingDimension = Integer.numberOfTrailingZeros(currentNode ^ destinationNode);
+        return calculateNeighborIndex(currentNode, lowestDifferingDimension);
+    }
+
+    private void initializeWorkerPool() {
+        this.workerPool = placement != null ? new WorkerPool(nodes, placement) : null;
+    }
+
     private void initializeExecutor(int numberOfNodes) {
         this.executor = Executors.newFixedThreadPool(numberOfNodes + 1);
     }
 
     private void initializeMessageRouter() {
         this.messageRouter = new MessageRouter(nodes);
+        features.attach(nodes, messageRouter);
+        messageRouter.setTracer(tracer);
+        applyRouting();
+    }
+
+    private void applyRouting() {
+        messageRouter.setRoutingStrategy(routing == HyperCubeRouting.DIRECT ? null : getRoutingStrategy());
     }
 
     private void validateNetworkRunning() {
@@ -115,27 +284,4 @@ public class HyperCubeNetwork implements NetworkTopology {
     private void startNodes() {
         nodes.forEach(executor::submit);
     }
-
-    private void shutdownNodes() {
-        if (nodes != null) {
-            nodes.forEach(Node::shutdown);
-        }
-    }
-
-    private void gracefulShutdown() {
-        if (executor != null) {
-            executor.shutdown();
-            try {
-                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executor.shutdownNow();
-                    if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                        System.err.println("Executor did not terminate gracefully");
-                    }
-                }
-            } catch (InterruptedException e) {
-                executor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-}
\ No newline at end of file
+}
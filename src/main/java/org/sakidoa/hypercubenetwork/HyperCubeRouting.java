@@ -0,0 +1,5 @@
+package org.sakidoa.hypercubenetwork;
+
+public enum HyperCubeRouting {
+    DIRECT, E_CUBE, ADAPTIVE
+}
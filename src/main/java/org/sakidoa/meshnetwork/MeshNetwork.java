@@ -1,21 +1,38 @@
 package org.sakidoa.meshnetwork;
 
 import org.sakidoa.core.*;
+import org.sakidoa.core.deterministic.DeterministicScheduler;
 import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.flood.FloodConfig;
+import org.sakidoa.core.flood.Flooding;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+import org.sakidoa.core.runtime.HostedTopology;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 
 public class MeshNetwork implements NetworkTopology {
 
-    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private ExecutorService executorService;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private Flooding flooding;
+    private RequestReply requestReply;
+    private MessageRouter messageRouter;
+    private FaultInjector faultInjector;
+    private DeterministicScheduler scheduler;
+    private HostedTopology runtime;
 
     @Override
     public void configureNetwork(int numberOfNodes) {
         for (int i = 0; i < numberOfNodes; i++) {
             String nodeId = "Node-" + i;
-            Node node = new Node(nodeId);
+            Node node = new Node(nodeId, mailboxFactory.create(nodeId));
             nodes.put(nodeId, node);
         }
 
@@ -30,6 +47,22 @@ public class MeshNetwork implements NetworkTopology {
 
     @Override
     public void sendMessage(int fromNode, int toNode, String message) {
+        if (scheduler != null) {
+            scheduler.submit(() -> deliver(fromNode, toNode, message));
+            return;
+        }
+        deliver(fromNode, toNode, message);
+    }
+
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        return IngressSubscriber.synchronous((fromNode, toNode, message) -> {
+            deliver(fromNode, toNode, message);
+            return true;
+        }, getNodes(), () -> true, () -> scheduler, maxQueuedMessages);
+    }
+
+    private void deliver(int fromNode, int toNode, String message) {
         String fromId = "Node-" + fromNode;
         String toId = "Node-" + toNode;
 
@@ -37,24 +70,115 @@ public class MeshNetwork implements NetworkTopology {
         Node receiver = nodes.get(toId);
 
         if (sender != null && receiver != null && sender.isNeighbor(receiver)) {
+            if (faultInjector != null) {
+                messageRouter.routeMessage(fromNode, toNode, message);
+                return;
+            }
             Message msg = new Message(MessageType.DATA, fromId, message);
             msg.setReceiverId(toId);
-            receiver.sendMessage(msg);
+            MessageRouter.recordHandOff(sender, receiver, msg, () -> receiver.sendMessage(msg));
+        }
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    public Flooding enableFlooding(FloodConfig config) {
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("Network not configured");
+        }
+        this.flooding = new Flooding(List.copyOf(nodes.values()), config);
+        return flooding;
+    }
+
+    public Flooding getFlooding() {
+        return flooding;
+    }
+
+    public RequestReply enableRequestReply(RequestHandler handler) {
+        this.requestReply = new RequestReply(router(), List.copyOf(nodes.values()), handler);
+        return requestReply;
+    }
+
+    public RequestReply getRequestReply() {
+        return requestReply;
+    }
+
+    /**
+     * Once enabled, data messages go through a fault-aware router: a dropped link is detoured through
+     * another node, while messages for a killed node are lost and charged to the fault.
+     */
+    public FaultInjector enableFaultInjection() {
+        MessageRouter router = router();
+        this.faultInjector = new FaultInjector(List.copyOf(nodes.values()));
+        router.setFaultInjector(faultInjector);
+        return faultInjector;
+    }
+
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    private MessageRouter router() {
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("Network not configured");
         }
+        if (messageRouter == null) {
+            messageRouter = new MessageRouter(List.copyOf(nodes.values()));
+        }
+        return messageRouter;
+    }
+
+    /**
+     * Steps every node on the caller's thread in a fixed order instead of giving each node a thread of its
+     * own; heartbeats follow the scheduler's logical clock. Must be called before {@link #runNetwork()}.
+     */
+    public DeterministicScheduler enableDeterministicMode(long seed) {
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("Network not configured");
+        }
+        this.scheduler = new DeterministicScheduler(List.copyOf(nodes.values()), seed);
+        return scheduler;
     }
 
     @Override
     public void runNetwork() {
+        if (scheduler != null) {
+            scheduler.start();
+            return;
+        }
+        executorService = Executors.newCachedThreadPool();
         for (Node node : nodes.values()) {
             executorService.execute(node);
         }
     }
 
     @Override
-    public void shutdownNetwork() {
-        for (Node node : nodes.values()) {
-            node.shutdown();
+    public void runNetwork(HostedTopology runtime) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Network already has its own scheduler");
+        }
+        this.runtime = runtime;
+        runtime.start(List.copyOf(nodes.values()));
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
+        if (scheduler != null) {
+            scheduler.shutdown(drainInFlight);
         }
-        executorService.shutdown();
+        if (faultInjector != null) {
+            faultInjector.close();
+        }
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
+        }
+        return NetworkShutdown.shutdown(nodes.values(), executorService, deadline, drainInFlight);
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        return List.copyOf(nodes.values());
     }
 }
@@ -0,0 +1,41 @@
+package org.sakidoa.ringnetwork;
+
+import org.sakidoa.core.collective.BinomialCollectiveAlgorithm;
+import org.sakidoa.core.collective.CollectivePlan;
+import org.sakidoa.core.collective.CollectiveStep;
+import org.sakidoa.core.collective.Segment;
+import org.sakidoa.core.collective.Transfer;
+
+/**
+ * Bandwidth optimal ring all-reduce: the vector is cut into n chunks, n - 1 reduce-scatter rounds leave
+ * each node owning one fully reduced chunk and n - 1 all-gather rounds circulate them. Every round only
+ * uses the clockwise link and each node sends 2(n - 1)/n of the vector in total.
+ */
+public class RingCollectiveAlgorithm extends BinomialCollectiveAlgorithm {
+
+    @Override
+    public CollectivePlan allReduce(int nodeCount, int length) {
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, length);
+        for (int node = 0; node < nodeCount; node++) {
+            int next = (node + 1) % nodeCount;
+            int previous = (node - 1 + nodeCount) % nodeCount;
+
+            for (int round = 0; round < nodeCount - 1; round++) {
+                Segment chunk = chunk(node - round, nodeCount, length);
+                plan.add(node, CollectiveStep.exchange(Transfer.of(next, chunk), previous, true));
+            }
+            for (int round = 0; round < nodeCount - 1; round++) {
+                Segment chunk = chunk(node + 1 - round, nodeCount, length);
+                plan.add(node, CollectiveStep.exchange(Transfer.of(next, chunk), previous, false));
+            }
+        }
+        return plan.build();
+    }
+
+    private static Segment chunk(int index, int nodeCount, int length) {
+        int normalized = Math.floorMod(index, nodeCount);
+        int start = (int) ((long) normalized * length / nodeCount);
+        int end = (int) ((long) (normalized + 1) * length / nodeCount);
+        return Segment.aligned(start, end - start);
+    }
+}
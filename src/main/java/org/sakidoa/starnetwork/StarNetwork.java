@@ -1,16 +1,33 @@
 package org.sakidoa.starnetwork;
 
 import org.sakidoa.core.*;
+import org.sakidoa.core.deterministic.DeterministicScheduler;
 import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.link.LinkLayer;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+import org.sakidoa.core.runtime.HostedTopology;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 
 public class StarNetwork implements NetworkTopology {
+    private static final int HUB_INDEX = 0;
 
-    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private ExecutorService executorService;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
     private Node centralNode;
+    private LinkLayer linkLayer;
+    private MessageRouter messageRouter;
+    private RequestReply requestReply;
+    private FaultInjector faultInjector;
+    private DeterministicScheduler scheduler;
+    private HostedTopology runtime;
 
     @Override
     public void configureNetwork(int numberOfNodes) {
@@ -20,7 +37,7 @@ public class StarNetwork implements NetworkTopology {
 
         for (int i = 0; i < numberOfNodes; i++) {
             String nodeId = "Node-" + i;
-            Node node = new Node(nodeId);
+            Node node = new Node(nodeId, mailboxFactory.create(nodeId));
             nodes.put(nodeId, node);
         }
 
@@ -32,10 +49,28 @@ public class StarNetwork implements NetworkTopology {
                 centralNode.addNeighbor(node);
             }
         }
+
+        configureHubForwarding();
     }
 
     @Override
     public void sendMessage(int fromNode, int toNode, String message) {
+        if (scheduler != null) {
+            scheduler.submit(() -> deliver(fromNode, toNode, message));
+            return;
+        }
+        deliver(fromNode, toNode, message);
+    }
+
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        return IngressSubscriber.synchronous((fromNode, toNode, message) -> {
+            deliver(fromNode, toNode, message);
+            return true;
+        }, getNodes(), () -> true, () -> scheduler, maxQueuedMessages);
+    }
+
+    private void deliver(int fromNode, int toNode, String message) {
         String fromId = "Node-" + fromNode;
         String toId = "Node-" + toNode;
 
@@ -44,33 +79,161 @@ public class StarNetwork implements NetworkTopology {
 
         if (sender == null || receiver == null) return;
 
+        if (faultInjector != null) {
+            messageRouter.routeMessage(fromNode, toNode, message);
+            return;
+        }
+
+        if (linkLayer != null) {
+            sendOverLinks(sender, receiver, message);
+            return;
+        }
+
         if (!sender.equals(centralNode) && !receiver.equals(centralNode)) {
             Message toHub = new Message(MessageType.DATA, fromId, "→ HUB: " + message);
             toHub.setReceiverId(centralNode.getNodeId());
-            centralNode.sendMessage(toHub);
+            MessageRouter.recordHandOff(sender, centralNode, toHub, () -> centralNode.sendMessage(toHub));
 
             Message toReceiver = new Message(MessageType.DATA, "HUB", "→ " + toId + ": " + message);
             toReceiver.setReceiverId(toId);
-            receiver.sendMessage(toReceiver);
+            MessageRouter.recordHandOff(centralNode, receiver, toReceiver, () -> receiver.sendMessage(toReceiver));
         } else {
             Message msg = new Message(MessageType.DATA, fromId, message);
             msg.setReceiverId(toId);
-            receiver.sendMessage(msg);
+            MessageRouter.recordHandOff(sender, receiver, msg, () -> receiver.sendMessage(msg));
+        }
+    }
+
+    public void setLinkLayer(LinkLayer linkLayer) {
+        this.linkLayer = linkLayer;
+        if (messageRouter != null) {
+            messageRouter.setLinkLayer(linkLayer);
+        } else {
+            configureHubForwarding();
+        }
+    }
+
+    public LinkLayer getLinkLayer() {
+        return linkLayer;
+    }
+
+    private void configureHubForwarding() {
+        if (centralNode == null) return;
+
+        if (linkLayer == null) {
+            centralNode.setForwarder(null);
+        } else {
+            centralNode.setForwarder((hub, msg) -> linkLayer.transmit(hub, nodes.get(msg.getReceiverId()), msg));
+        }
+    }
+
+    private void sendOverLinks(Node sender, Node receiver, String message) {
+        Message msg = new Message(MessageType.DATA, sender.getNodeId(), message);
+        msg.setReceiverId(receiver.getNodeId());
+
+        Node firstHop = sender.equals(centralNode) || receiver.equals(centralNode) ? receiver : centralNode;
+        MessageRouter.recordHandOff(sender, firstHop, msg, () -> linkLayer.transmit(sender, firstHop, msg));
+    }
+
+    /**
+     * Requests and replies between two leaves go through the hub like every other message. The router that
+     * carries them takes over the hub's forwarding, over the link layer when one is set.
+     */
+    public RequestReply enableRequestReply(RequestHandler handler) {
+        this.requestReply = new RequestReply(hubRouter(), List.copyOf(nodes.values()), handler);
+        return requestReply;
+    }
+
+    public RequestReply getRequestReply() {
+        return requestReply;
+    }
+
+    /**
+     * Once enabled, data messages travel hop by hop through the hub router so that a killed or suspended hub
+     * or leaf, and dropped links, cost messages that are charged to the fault.
+     */
+    public FaultInjector enableFaultInjection() {
+        MessageRouter router = hubRouter();
+        this.faultInjector = new FaultInjector(List.copyOf(nodes.values()));
+        router.setFaultInjector(faultInjector);
+        return faultInjector;
+    }
+
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    private MessageRouter hubRouter() {
+        if (centralNode == null) {
+            throw new IllegalStateException("Network not configured");
+        }
+        if (messageRouter == null) {
+            messageRouter = new MessageRouter(List.copyOf(nodes.values()));
+            messageRouter.setRoutingStrategy(this::nextHopThroughHub);
+            if (linkLayer != null) {
+                messageRouter.setLinkLayer(linkLayer);
+            }
+        }
+        return messageRouter;
+    }
+
+    private int nextHopThroughHub(int current, int destination) {
+        return current == HUB_INDEX || destination == HUB_INDEX ? destination : HUB_INDEX;
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    /**
+     * Steps every node on the caller's thread in a fixed order instead of giving each node a thread of its
+     * own; heartbeats follow the scheduler's logical clock. Must be called before {@link #runNetwork()}.
+     */
+    public DeterministicScheduler enableDeterministicMode(long seed) {
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("Network not configured");
         }
+        this.scheduler = new DeterministicScheduler(List.copyOf(nodes.values()), seed);
+        return scheduler;
     }
 
     @Override
     public void runNetwork() {
+        if (scheduler != null) {
+            scheduler.start();
+            return;
+        }
+        executorService = Executors.newCachedThreadPool();
         for (Node node : nodes.values()) {
             executorService.execute(node);
         }
     }
 
     @Override
-    public void shutdownNetwork() {
-        for (Node node : nodes.values()) {
-            node.shutdown();
+    public void runNetwork(HostedTopology runtime) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Network already has its own scheduler");
+        }
+        this.runtime = runtime;
+        runtime.start(List.copyOf(nodes.values()));
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
+        if (scheduler != null) {
+            scheduler.shutdown(drainInFlight);
+        }
+        if (faultInjector != null) {
+            faultInjector.close();
+        }
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
         }
-        executorService.shutdown();
+        return NetworkShutdown.shutdown(nodes.values(), executorService, deadline, drainInFlight);
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        return List.copyOf(nodes.values());
     }
 }
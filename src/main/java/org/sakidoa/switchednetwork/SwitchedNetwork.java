@@ -2,38 +2,33 @@ package org.sakidoa.switchednetwork;
 
 import org.sakidoa.core.*;
 import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.runtime.HostedTopology;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.IntSupplier;
 
 public class SwitchedNetwork implements NetworkTopology {
 
     private final Map<String, Node> nodes = new ConcurrentHashMap<>();
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
-    private final ExecutorService switchExecutor = Executors.newSingleThreadExecutor();
     private final BlockingQueue<Message> switchQueue = new LinkedBlockingQueue<>();
+    private ExecutorService executorService;
+    private ExecutorService switchExecutor;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private FaultInjector faultInjector;
+    private HostedTopology runtime;
 
     @Override
     public void configureNetwork(int numberOfNodes) {
         for (int i = 0; i < numberOfNodes; i++) {
             String nodeId = "Node-" + i;
-            Node node = new Node(nodeId);
+            Node node = new Node(nodeId, mailboxFactory.create(nodeId));
             nodes.put(nodeId, node);
         }
-
-        switchExecutor.execute(() -> {
-            try {
-                while (true) {
-                    Message msg = switchQueue.take();
-                    Node recipient = nodes.get(msg.getReceiverId());
-                    if (recipient != null) {
-                        recipient.sendMessage(msg);
-                    }
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
     }
 
     @Override
@@ -45,22 +40,110 @@ public class SwitchedNetwork implements NetworkTopology {
 
         Message msg = new Message(MessageType.DATA, fromId, message);
         msg.setReceiverId(toId);
-        switchQueue.offer(msg);
+        if (runtime != null) {
+            runtime.execute(() -> switchMessage(msg));
+        } else {
+            switchQueue.offer(msg);
+        }
+    }
+
+    /**
+     * Messages still waiting for the switch count towards the backlog, as do routing tasks not yet run by a
+     * shared runtime.
+     */
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        IntSupplier queueDepth = IngressSubscriber.queueDepthOf(getNodes());
+        return new IngressSubscriber((fromNode, toNode, message) -> {
+            sendMessage(fromNode, toNode, message);
+            return true;
+        }, () -> queueDepth.getAsInt() + switchQueue.size() + (runtime == null ? 0 : runtime.getPendingTaskCount()),
+                maxQueuedMessages);
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    /**
+     * Faults apply where the switch hands a message to its recipient: killed nodes and cut links lose it and
+     * the loss is charged to the fault.
+     */
+    public FaultInjector enableFaultInjection() {
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("Network not configured");
+        }
+        List<Node> orderedNodes = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            orderedNodes.add(nodes.get("Node-" + i));
+        }
+        this.faultInjector = new FaultInjector(orderedNodes);
+        return faultInjector;
+    }
+
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
     }
 
     @Override
     public void runNetwork() {
+        executorService = Executors.newCachedThreadPool();
+        switchExecutor = Executors.newSingleThreadExecutor();
+        switchExecutor.execute(this::runSwitch);
         for (Node node : nodes.values()) {
             executorService.execute(node);
         }
     }
 
     @Override
-    public void shutdownNetwork() {
-        for (Node node : nodes.values()) {
-            node.shutdown();
+    public void runNetwork(HostedTopology runtime) {
+        this.runtime = runtime;
+        runtime.start(List.copyOf(nodes.values()));
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
+        }
+        if (faultInjector != null) {
+            faultInjector.close();
+        }
+        ShutdownReport report = NetworkShutdown.shutdown(nodes.values(), executorService, deadline, drainInFlight);
+        if (switchExecutor != null) {
+            switchExecutor.shutdownNow();
+        }
+        return report;
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        return List.copyOf(nodes.values());
+    }
+
+    private void runSwitch() {
+        try {
+            while (true) {
+                switchMessage(switchQueue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void switchMessage(Message msg) {
+        Node recipient = nodes.get(msg.getReceiverId());
+        if (recipient == null) {
+            return;
+        }
+        Node sender = nodes.get(msg.getSenderId());
+        FaultInjector faults = faultInjector;
+        if (faults == null) {
+            MessageRouter.recordHandOff(sender, recipient, msg, () -> recipient.sendMessage(msg));
+        } else {
+            MessageRouter.recordHandOff(sender, recipient, msg,
+                    () -> faults.deliver(faults.indexOf(msg.getSenderId()), faults.indexOf(msg.getReceiverId()), msg,
+                            (from, to, message) -> recipient.sendMessage(message)));
         }
-        executorService.shutdownNow();
-        switchExecutor.shutdownNow();
     }
 }
@@ -0,0 +1,324 @@
+package org.sakidoa.torusnetwork;
+
+import org.sakidoa.core.MessageRouter;
+import org.sakidoa.core.NetworkShutdown;
+import org.sakidoa.core.NetworkTopology;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.RouterFeatures;
+import org.sakidoa.core.RoutingStrategy;
+import org.sakidoa.core.ShutdownReport;
+import org.sakidoa.core.deterministic.DeterministicScheduler;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.link.LinkLayer;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+import org.sakidoa.core.runtime.HostedTopology;
+import org.sakidoa.core.trace.Tracer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * k-ary n-cube: nodes sit on an n-dimensional grid with {@code radices[d]} positions along dimension d and,
+ * with wraparound, each dimension closes into a ring (a torus). Coordinates and neighbours are derived from
+ * the node index through per-dimension strides, and messages use dimension-order routing: the lowest
+ * dimension that still differs is corrected first, along the shorter direction around its ring.
+ * <p>
+ * Forwarding never blocks: a hop hands the message to the next node's mailbox with a non-blocking offer.
+ * With the default unbounded mailboxes no buffer cycle can therefore stall the wraparound rings. With a
+ * bounded {@link MailboxFactory} a full mailbox rejects the message instead, and it is counted in the next
+ * hop's {@link Node#getDroppedMessageCount()}: the network stays deadlock-free but becomes lossy under
+ * congestion.
+ */
+public class TorusNetwork implements NetworkTopology {
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final RouterFeatures features = new RouterFeatures();
+    private final int[] radices;
+    private final int[] strides;
+    private final boolean wraparound;
+    private List<Node> nodes;
+    private ExecutorService executor;
+    private MessageRouter messageRouter;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private Tracer tracer;
+    private LinkLayer linkLayer;
+    private HostedTopology runtime;
+
+    public TorusNetwork(int... radices) {
+        this(true, radices);
+    }
+
+    public TorusNetwork(boolean wraparound, int... radices) {
+        validateRadices(radices);
+        this.wraparound = wraparound;
+        this.radices = radices.clone();
+        this.strides = new int[radices.length];
+        int stride = 1;
+        for (int dimension = 0; dimension < radices.length; dimension++) {
+            strides[dimension] = stride;
+            stride = Math.multiplyExact(stride, radices[dimension]);
+        }
+    }
+
+    @Override
+    public void configureNetwork(int numberOfNodes) {
+        validateNodeCount(numberOfNodes);
+        createNodes(numberOfNodes);
+        configureTorusConnections();
+        initializeExecutor(numberOfNodes);
+        initializeMessageRouter();
+    }
+
+    @Override
+    public void sendMessage(int fromNode, int toNode, String message) {
+        validateNetworkRunning();
+        DeterministicScheduler scheduler = features.getScheduler();
+        if (scheduler != null) {
+            scheduler.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
+        if (runtime != null) {
+            runtime.execute(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
+        executor.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
+    }
+
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        return features.ingressSubscriber(running::get, maxQueuedMessages);
+    }
+
+    @Override
+    public void runNetwork() {
+        validateNetworkConfigured();
+        running.set(true);
+        DeterministicScheduler scheduler = features.getScheduler();
+        if (scheduler != null) {
+            scheduler.start();
+        } else {
+            startNodes();
+        }
+    }
+
+    @Override
+    public void runNetwork(HostedTopology runtime) {
+        validateNetworkConfigured();
+        if (features.getScheduler() != null) {
+            throw new IllegalStateException("Network already has its own scheduler");
+        }
+        this.runtime = runtime;
+        running.set(true);
+        runtime.start(nodes);
+    }
+
+    @Override
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
+        running.set(false);
+        features.shutdownScheduler(drainInFlight);
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
+        }
+        features.closeFaultInjector();
+        return NetworkShutdown.shutdown(nodes == null ? List.of() : nodes, executor, deadline, drainInFlight);
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        validateNetworkConfigured();
+        return nodes;
+    }
+
+    /**
+     * Bounded mailboxes turn congestion into drops rather than back-pressure; see the class comment.
+     */
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+        if (messageRouter != null) {
+            messageRouter.setTracer(tracer);
+        }
+    }
+
+    public DeterministicScheduler enableDeterministicMode(long seed) {
+        return features.enableDeterministicMode(seed);
+    }
+
+    public FaultInjector enableFaultInjection() {
+        return features.enableFaultInjection();
+    }
+
+    public FaultInjector getFaultInjector() {
+        return features.getFaultInjector();
+    }
+
+    public RequestReply enableRequestReply(RequestHandler handler) {
+        return features.enableRequestReply(handler);
+    }
+
+    public RequestReply getRequestReply() {
+        return features.getRequestReply();
+    }
+
+    public void setLinkLayer(LinkLayer linkLayer) {
+        this.linkLayer = linkLayer;
+        if (messageRouter != null) {
+            messageRouter.setLinkLayer(linkLayer);
+        }
+    }
+
+    public RoutingStrategy getRoutingStrategy() {
+        return this::nextDimensionOrderHop;
+    }
+
+    public int getNodeCount() {
+        return strides[radices.length - 1] * radices[radices.length - 1];
+    }
+
+    public int getDimensions() {
+        return radices.length;
+    }
+
+    public int[] getRadices() {
+        return radices.clone();
+    }
+
+    public boolean isWraparound() {
+        return wraparound;
+    }
+
+    public int getDiameter() {
+        return Arrays.stream(radices).map(radix -> wraparound ? radix / 2 : radix - 1).sum();
+    }
+
+    public int coordinate(int nodeIndex, int dimension) {
+        return (nodeIndex / strides[dimension]) % radices[dimension];
+    }
+
+    /**
+     * Returns the neighbour one step along {@code dimension} in {@code direction} (+1 or -1), or -1 when the
+     * step would leave a grid without wraparound.
+     */
+    public int neighborIndex(int nodeIndex, int dimension, int direction) {
+        int current = coordinate(nodeIndex, dimension);
+        int next = current + direction;
+        if (wraparound) {
+            next = Math.floorMod(next, radices[dimension]);
+        } else if (next < 0 || next >= radices[dimension]) {
+            return -1;
+        }
+        return nodeIndex + (next - current) * strides[dimension];
+    }
+
+    public int hopCount(int fromNode, int toNode) {
+        int hops = 0;
+        for (int dimension = 0; dimension < radices.length; dimension++) {
+            int distance = Math.abs(coordinate(toNode, dimension) - coordinate(fromNode, dimension));
+            hops += wraparound ? Math.min(distance, radices[dimension] - distance) : distance;
+        }
+        return hops;
+    }
+
+    private static void validateRadices(int[] radices) {
+        if (radices.length == 0) {
+            throw new IllegalArgumentException("Torus network requires at least one dimension");
+        }
+        for (int radix : radices) {
+            if (radix < 2) {
+                throw new IllegalArgumentException("Every torus dimension needs at least 2 nodes");
+            }
+        }
+    }
+
+    private void validateNodeCount(int numberOfNodes) {
+        if (numberOfNodes != getNodeCount()) {
+            throw new IllegalArgumentException("Torus " + Arrays.toString(radices) + " has " + getNodeCount()
+                    + " nodes but " + numberOfNodes + " were requested");
+        }
+    }
+
+    private void createNodes(int numberOfNodes) {
+        this.nodes = IntStream.range(0, numberOfNodes)
+                .mapToObj(i -> createNode("torus-node-" + i))
+                .toList();
+    }
+
+    private Node createNode(String nodeId) {
+        return new Node(nodeId, mailboxFactory.create(nodeId));
+    }
+
+    private void configureTorusConnections() {
+        for (int i = 0; i < nodes.size(); i++) {
+            Node currentNode = nodes.get(i);
+            for (int dimension = 0; dimension < radices.length; dimension++) {
+                connectIfPresent(currentNode, neighborIndex(i, dimension, 1));
+                connectIfPresent(currentNode, neighborIndex(i, dimension, -1));
+            }
+        }
+    }
+
+    private void connectIfPresent(Node currentNode, int neighborIndex) {
+        if (neighborIndex >= 0) {
+            currentNode.addNeighbor(nodes.get(neighborIndex));
+        }
+    }
+
+    private int nextDimensionOrderHop(int currentNode, int destinationNode) {
+        for (int dimension = 0; dimension < radices.length; dimension++) {
+            int current = coordinate(currentNode, dimension);
+            int target = coordinate(destinationNode, dimension);
+            if (current != target) {
+                return neighborIndex(currentNode, dimension, preferredDirection(current, target, radices[dimension]));
+            }
+        }
+        return destinationNode;
+    }
+
+    private int preferredDirection(int current, int target, int radix) {
+        if (!wraparound) {
+            return target > current ? 1 : -1;
+        }
+        int forwardDistance = Math.floorMod(target - current, radix);
+        return forwardDistance <= radix - forwardDistance ? 1 : -1;
+    }
+
+    private void initializeExecutor(int numberOfNodes) {
+        this.executor = Executors.newFixedThreadPool(numberOfNodes + 1);
+    }
+
+    private void initializeMessageRouter() {
+        this.messageRouter = new MessageRouter(nodes);
+        features.attach(nodes, messageRouter);
+        messageRouter.setTracer(tracer);
+        messageRouter.setRoutingStrategy(getRoutingStrategy());
+        if (linkLayer != null) {
+            messageRouter.setLinkLayer(linkLayer);
+        }
+    }
+
+    private void validateNetworkRunning() {
+        if (!running.get()) {
+            throw new IllegalStateException("Network is not running");
+        }
+    }
+
+    private void validateNetworkConfigured() {
+        if (nodes == null) {
+            throw new IllegalStateException("Network not configured");
+        }
+    }
+
+    private void startNodes() {
+        nodes.forEach(executor::submit);
+    }
+}
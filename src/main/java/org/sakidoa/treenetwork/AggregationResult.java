@@ -0,0 +1,7 @@
+package org.sakidoa.treenetwork;
+
+import java.time.Duration;
+
+public record AggregationResult(long epoch, long value, long contributions, long rootIngressMessages,
+                                Duration elapsed) {
+}
@@ -0,0 +1,30 @@
+package org.sakidoa.treenetwork;
+
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+public record Aggregator(String name, LongUnaryOperator contribution, LongBinaryOperator reducer) {
+    public static final Aggregator SUM = of("sum", Long::sum);
+    public static final Aggregator COUNT = new Aggregator("count", value -> 1L, Long::sum);
+    public static final Aggregator MIN = of("min", Math::min);
+    public static final Aggregator MAX = of("max", Math::max);
+
+    public Aggregator {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(contribution, "contribution");
+        Objects.requireNonNull(reducer, "reducer");
+    }
+
+    public static Aggregator of(String name, LongBinaryOperator reducer) {
+        return new Aggregator(name, LongUnaryOperator.identity(), reducer);
+    }
+
+    long lift(long value) {
+        return contribution.applyAsLong(value);
+    }
+
+    long combine(long left, long right) {
+        return reducer.applyAsLong(left, right);
+    }
+}
@@ -0,0 +1,4 @@
+package org.sakidoa.treenetwork;
+
+record PartialAggregate(long epoch, long value, long contributions) {
+}
@@ -0,0 +1,214 @@
+package org.sakidoa.treenetwork;
+
+import org.sakidoa.core.Message;
+import org.sakidoa.core.Node;
+import org.sakidoa.core.enums.MessageType;
+import org.sakidoa.core.link.LinkLayer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Epoch based convergecast over a {@link TreeNetwork}. Every node contributes one value per epoch.
+ * In in-network mode a node waits for all of its children, reduces their partials with its own and
+ * forwards a single message upwards, so each root only receives one message per child. Otherwise
+ * every contribution is relayed unchanged and reduced at the primary root.
+ * Partial state is only updated from the owning node's thread. An epoch that has not completed by its deadline,
+ * for example because a partial was lost, fails with a {@link java.util.concurrent.TimeoutException} and its
+ * partial state is discarded on every node.
+ */
+public class TreeAggregation {
+    private static final int PRIMARY_ROOT = 0;
+    private static final Duration DEFAULT_EPOCH_DEADLINE = Duration.ofSeconds(30);
+
+    private final TreeNetwork network;
+    private final List<Node> nodes;
+    private final Aggregator aggregator;
+    private final boolean inNetwork;
+    private final LinkLayer linkLayer;
+    private final List<Map<Long, PendingPartial>> partials;
+    private final Map<Long, PendingEpoch> pendingEpochs = new ConcurrentHashMap<>();
+    private final AtomicLong nextEpoch = new AtomicLong();
+    private final LongAdder rootIngress = new LongAdder();
+
+    TreeAggregation(TreeNetwork network, List<Node> nodes, Aggregator aggregator, boolean inNetwork,
+                    LinkLayer linkLayer) {
+        this.network = network;
+        this.nodes = nodes;
+        this.aggregator = aggregator;
+        this.inNetwork = inNetwork;
+        this.linkLayer = linkLayer;
+        this.partials = new ArrayList<>(nodes.size());
+        installHandlers();
+    }
+
+    public CompletableFuture<AggregationResult> aggregate(LongUnaryOperator valueOfNode) {
+        return aggregate(valueOfNode, DEFAULT_EPOCH_DEADLINE);
+    }
+
+    public CompletableFuture<AggregationResult> aggregate(LongUnaryOperator valueOfNode, Duration deadline) {
+        long epoch = nextEpoch.getAndIncrement();
+        PendingEpoch pending = new PendingEpoch(System.nanoTime());
+        pendingEpochs.put(epoch, pending);
+        pending.future.orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((result, error) -> discardEpoch(epoch));
+
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            long value = aggregator.lift(valueOfNode.applyAsLong(i));
+            Message message = createMessage(node, node, new PartialAggregate(epoch, value, 1));
+            if (!node.receiveMessage(message)) {
+                pending.future.completeExceptionally(
+                        new IllegalStateException("Node " + node.getNodeId() + " rejected contribution"));
+                break;
+            }
+        }
+        return pending.future;
+    }
+
+    public Aggregator getAggregator() {
+        return aggregator;
+    }
+
+    public boolean isInNetwork() {
+        return inNetwork;
+    }
+
+    public long getRootIngressCount() {
+        return rootIngress.sum();
+    }
+
+    public int getPendingEpochCount() {
+        return pendingEpochs.size();
+    }
+
+    private void installHandlers() {
+        for (int i = 0; i < nodes.size(); i++) {
+            int index = i;
+            partials.add(new ConcurrentHashMap<>());
+            nodes.get(i).setMessageHandler(MessageType.AGGREGATE, (node, message) -> onPartial(index, message));
+        }
+    }
+
+    private void onPartial(int index, Message message) {
+        PartialAggregate partial = (PartialAggregate) message.getPayload();
+        boolean fromPeer = !message.getSenderId().equals(nodes.get(index).getNodeId());
+        if (fromPeer && network.isRoot(index)) {
+            rootIngress.increment();
+        }
+
+        if (index == PRIMARY_ROOT) {
+            accumulateAtPrimaryRoot(partial, fromPeer);
+        } else if (inNetwork) {
+            accumulate(index, partial);
+        } else {
+            sendUpwards(index, partial);
+        }
+    }
+
+    private void accumulate(int index, PartialAggregate partial) {
+        PendingPartial state = partialState(index, partial.epoch());
+        if (state == null) {
+            return;
+        }
+        state.add(partial);
+        if (state.reports == network.getChildCount(index) + 1) {
+            partials.get(index).remove(partial.epoch());
+            sendUpwards(index, new PartialAggregate(partial.epoch(), state.value, state.contributions));
+        }
+    }
+
+    private void accumulateAtPrimaryRoot(PartialAggregate partial, boolean fromPeer) {
+        PendingPartial state = partialState(PRIMARY_ROOT, partial.epoch());
+        if (state == null) {
+            return;
+        }
+        state.add(partial);
+        if (fromPeer) {
+            state.ingress++;
+        }
+        if (state.contributions < nodes.size()) {
+            return;
+        }
+
+        partials.get(PRIMARY_ROOT).remove(partial.epoch());
+        PendingEpoch pending = pendingEpochs.get(partial.epoch());
+        if (pending != null) {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - pending.startNanos);
+            pending.future.complete(new AggregationResult(
+                    partial.epoch(), state.value, state.contributions, state.ingress, elapsed));
+        }
+    }
+
+    /**
+     * Returns the node's state for a live epoch, or {@code null} once the epoch has completed or failed. The
+     * second check removes an entry created while the epoch was being discarded.
+     */
+    private PendingPartial partialState(int index, long epoch) {
+        if (!pendingEpochs.containsKey(epoch)) {
+            return null;
+        }
+        Map<Long, PendingPartial> nodePartials = partials.get(index);
+        PendingPartial state = nodePartials.computeIfAbsent(epoch, key -> new PendingPartial());
+        if (!pendingEpochs.containsKey(epoch)) {
+            nodePartials.remove(epoch);
+            return null;
+        }
+        return state;
+    }
+
+    private void discardEpoch(long epoch) {
+        pendingEpochs.remove(epoch);
+        for (Map<Long, PendingPartial> nodePartials : partials) {
+            nodePartials.remove(epoch);
+        }
+    }
+
+    private void sendUpwards(int index, PartialAggregate partial) {
+        int target = network.isRoot(index) ? PRIMARY_ROOT : network.getParentIndex(index);
+        Node from = nodes.get(index);
+        Node to = nodes.get(target);
+        Message message = createMessage(from, to, partial);
+        if (linkLayer != null) {
+            linkLayer.transmit(from, to, message);
+        } else {
+            to.receiveMessage(message);
+        }
+    }
+
+    private Message createMessage(Node from, Node to, PartialAggregate partial) {
+        Message message = new Message(MessageType.AGGREGATE, from.getNodeId(), partial);
+        message.setReceiverId(to.getNodeId());
+        return message;
+    }
+
+    private final class PendingPartial {
+        private long value;
+        private long contributions;
+        private int reports;
+        private long ingress;
+
+        private void add(PartialAggregate partial) {
+            value = contributions == 0 ? partial.value() : aggregator.combine(value, partial.value());
+            contributions += partial.contributions();
+            reports++;
+        }
+    }
+
+    private static final class PendingEpoch {
+        private final long startNanos;
+        private final CompletableFuture<AggregationResult> future = new CompletableFuture<>();
+
+        private PendingEpoch(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.sakidoa.treenetwork;
+
+import org.sakidoa.core.collective.BinomialCollectiveAlgorithm;
+import org.sakidoa.core.collective.CollectivePlan;
+import org.sakidoa.core.collective.CollectiveStep;
+import org.sakidoa.core.collective.Segment;
+import org.sakidoa.core.collective.Transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reductions along the tree's own links: every node reduces its children's vectors into its own before
+ * sending one vector to its parent, and all-reduce broadcasts the result back down the same edges.
+ * Secondary roots report to the primary root. Reductions to other roots use the binomial fallback.
+ */
+public class TreeCollectiveAlgorithm extends BinomialCollectiveAlgorithm {
+    private static final int PRIMARY_ROOT = 0;
+
+    private final TreeNetwork network;
+
+    public TreeCollectiveAlgorithm(TreeNetwork network) {
+        this.network = network;
+    }
+
+    @Override
+    public CollectivePlan reduce(int nodeCount, int root, int length) {
+        if (root != PRIMARY_ROOT) {
+            return super.reduce(nodeCount, root, length);
+        }
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, length);
+        for (int node = 0; node < nodeCount; node++) {
+            addChildReduction(plan, node);
+            if (node != PRIMARY_ROOT) {
+                plan.add(node, CollectiveStep.send(List.of(Transfer.of(parentOf(node), Segment.aligned(0, length)))));
+            }
+        }
+        return plan.build();
+    }
+
+    @Override
+    public CollectivePlan allReduce(int nodeCount, int length) {
+        CollectivePlan.Builder plan = CollectivePlan.builder(nodeCount, length);
+        for (int node = 0; node < nodeCount; node++) {
+            addChildReduction(plan, node);
+            if (node != PRIMARY_ROOT) {
+                int parent = parentOf(node);
+                Transfer partial = Transfer.of(parent, Segment.aligned(0, length));
+                plan.add(node, new CollectiveStep(List.of(partial), new int[]{parent}, false));
+            }
+
+            List<Transfer> broadcast = new ArrayList<>();
+            for (int child : childrenOf(node)) {
+                broadcast.add(Transfer.of(child, Segment.aligned(0, length)));
+            }
+            if (!broadcast.isEmpty()) {
+                plan.add(node, CollectiveStep.send(broadcast));
+            }
+        }
+        return plan.build();
+    }
+
+    private void addChildReduction(CollectivePlan.Builder plan, int node) {
+        int[] children = childrenOf(node);
+        if (children.length > 0) {
+            plan.add(node, CollectiveStep.receive(true, children));
+        }
+    }
+
+    private int parentOf(int node) {
+        return network.isRoot(node) ? PRIMARY_ROOT : network.getParentIndex(node);
+    }
+
+    private int[] childrenOf(int node) {
+        int childCount = network.getChildCount(node);
+        int firstChild = network.getRootCount() + node * network.getFanout();
+        int extraRoots = node == PRIMARY_ROOT ? network.getRootCount() - 1 : 0;
+        int[] children = new int[childCount + extraRoots];
+        for (int i = 0; i < childCount; i++) {
+            children[i] = firstChild + i;
+        }
+        for (int i = 0; i < extraRoots; i++) {
+            children[childCount + i] = i + 1;
+        }
+        return children;
+    }
+}
@@ -1,27 +1,76 @@
 package org.sakidoa.treenetwork;
 
 import org.sakidoa.core.MessageRouter;
+import org.sakidoa.core.NetworkShutdown;
 import org.sakidoa.core.NetworkTopology;
 import org.sakidoa.core.Node;
+import org.sakidoa.core.RouterFeatures;
+import org.sakidoa.core.ShutdownReport;
+import org.sakidoa.core.collective.Collectives;
+import org.sakidoa.core.deterministic.DeterministicScheduler;
+import org.sakidoa.core.fault.FaultInjector;
+import org.sakidoa.core.flow.IngressSubscriber;
+import org.sakidoa.core.mailbox.MailboxFactory;
+import org.sakidoa.core.placement.PinnedMailbox;
+import org.sakidoa.core.placement.PlacementConfig;
+import org.sakidoa.core.placement.WorkerPool;
+import org.sakidoa.core.request.RequestHandler;
+import org.sakidoa.core.request.RequestReply;
+import org.sakidoa.core.runtime.HostedTopology;
+import org.sakidoa.core.link.LinkLayer;
+import org.sakidoa.core.trace.Tracer;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.IntStream;
 
 public class TreeNetwork implements NetworkTopology {
+    private static final int DEFAULT_FANOUT = 2;
+
     private final AtomicBoolean running = new AtomicBoolean(false);
+    private final RouterFeatures features = new RouterFeatures();
+    private final int fanout;
+    private final int rootCount;
     private List<Node> nodes;
     private ExecutorService executor;
     private MessageRouter messageRouter;
+    private MailboxFactory mailboxFactory = MailboxFactory.FIFO;
+    private Tracer tracer;
+    private PlacementConfig placement;
+    private WorkerPool workerPool;
+    private HostedTopology runtime;
+    private Collectives collectives;
+    private LinkLayer linkLayer;
+    private TreeAggregation aggregation;
+
+    public TreeNetwork() {
+        this(DEFAULT_FANOUT);
+    }
+
+    public TreeNetwork(int fanout) {
+        this(fanout, 1);
+    }
+
+    public TreeNetwork(int fanout, int rootCount) {
+        if (fanout < 1) {
+            throw new IllegalArgumentException("Tree fanout must be at least 1");
+        }
+        if (rootCount < 1) {
+            throw new IllegalArgumentException("Tree network requires at least 1 root");
+        }
+        this.fanout = fanout;
+        this.rootCount = rootCount;
+    }
 
     @Override
     public void configureNetwork(int numberOfNodes) {
         validateNodeCount(numberOfNodes);
         createNodes(numberOfNodes);
         configureTreeConnections();
+        initializeWorkerPool();
         initializeExecutor(numberOfNodes);
         initializeMessageRouter();
     }
@@ -29,37 +78,197 @@ public class TreeNetwork implements NetworkTopology {
     @Override
     public void sendMessage(int fromNode, int toNode, String message) {
         validateNetworkRunning();
+        DeterministicScheduler scheduler = features.getScheduler();
+        if (scheduler != null) {
+            scheduler.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
+        if (runtime != null) {
+            runtime.execute(() -> messageRouter.routeMessage(fromNode, toNode, message));
+            return;
+        }
         executor.submit(() -> messageRouter.routeMessage(fromNode, toNode, message));
     }
 
+    @Override
+    public IngressSubscriber ingressSubscriber(int maxQueuedMessages) {
+        return features.ingressSubscriber(running::get, maxQueuedMessages);
+    }
+
     @Override
     public void runNetwork() {
         validateNetworkConfigured();
         running.set(true);
-        startNodes();
+        DeterministicScheduler scheduler = features.getScheduler();
+        if (scheduler != null) {
+            scheduler.start();
+        } else if (workerPool != null) {
+            workerPool.start();
+        } else {
+            startNodes();
+        }
+    }
+
+    @Override
+    public void runNetwork(HostedTopology runtime) {
+        validateNetworkConfigured();
+        if (features.getScheduler() != null || workerPool != null) {
+            throw new IllegalStateException("Network already has its own scheduler");
+        }
+        this.runtime = runtime;
+        running.set(true);
+        runtime.start(nodes);
     }
 
     @Override
-    public void shutdownNetwork() {
+    public ShutdownReport shutdownNetwork(Duration deadline, boolean drainInFlight) {
         running.set(false);
-        shutdownNodes();
-        gracefulShutdown();
+        features.shutdownScheduler(drainInFlight);
+        if (workerPool != null) {
+            workerPool.shutdown(deadline, drainInFlight);
+        }
+        if (runtime != null) {
+            runtime.release(deadline, drainInFlight);
+        }
+        features.closeFaultInjector();
+        return NetworkShutdown.shutdown(nodes == null ? List.of() : nodes, executor, deadline, drainInFlight);
+    }
+
+    public void setLinkLayer(LinkLayer linkLayer) {
+        this.linkLayer = linkLayer;
+        if (messageRouter != null) {
+            applyLinkLayer();
+        }
+    }
+
+    public LinkLayer getLinkLayer() {
+        return linkLayer;
+    }
+
+    public void setMailboxFactory(MailboxFactory mailboxFactory) {
+        this.mailboxFactory = mailboxFactory;
+    }
+
+    /**
+     * Runs the nodes on {@code placement.workers()} pinned worker threads instead of one thread each. Takes
+     * effect at the next {@link #configureNetwork(int)} and replaces the mailbox factory.
+     */
+    public void setPlacement(PlacementConfig placement) {
+        this.placement = placement;
+    }
+
+    public WorkerPool getWorkerPool() {
+        return workerPool;
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        validateNetworkConfigured();
+        return nodes;
+    }
+
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+        if (messageRouter != null) {
+            messageRouter.setTracer(tracer);
+        }
+    }
+
+    public DeterministicScheduler enableDeterministicMode(long seed) {
+        return features.enableDeterministicMode(seed);
+    }
+
+    public FaultInjector enableFaultInjection() {
+        return features.enableFaultInjection();
+    }
+
+    public FaultInjector getFaultInjector() {
+        return features.getFaultInjector();
+    }
+
+    public RequestReply enableRequestReply(RequestHandler handler) {
+        return features.enableRequestReply(handler);
+    }
+
+    public RequestReply getRequestReply() {
+        return features.getRequestReply();
+    }
+
+    public Collectives getCollectives() {
+        validateNetworkConfigured();
+        if (collectives == null) {
+            collectives = new Collectives(nodes, new TreeCollectiveAlgorithm(this));
+        }
+        return collectives;
+    }
+
+    public TreeAggregation enableAggregation(Aggregator aggregator, boolean inNetwork) {
+        validateNetworkConfigured();
+        this.aggregation = new TreeAggregation(this, nodes, aggregator, inNetwork, linkLayer);
+        return aggregation;
+    }
+
+    public TreeAggregation getAggregation() {
+        return aggregation;
+    }
+
+    public int getFanout() {
+        return fanout;
+    }
+
+    public int getRootCount() {
+        return rootCount;
+    }
+
+    public int getDepth() {
+        validateNetworkConfigured();
+        int depth = 0;
+        for (int i = nodes.size() - 1; !isRoot(i); i = getParentIndex(i)) {
+            depth++;
+        }
+        return depth;
+    }
+
+    boolean isRoot(int index) {
+        return index < rootCount;
+    }
+
+    int getParentIndex(int childIndex) {
+        return (childIndex - rootCount) / fanout;
+    }
+
+    int getChildCount(int index) {
+        long firstChild = rootCount + (long) index * fanout;
+        return (int) Math.max(0, Math.min(fanout, nodes.size() - firstChild));
     }
 
     private void validateNodeCount(int numberOfNodes) {
         if (numberOfNodes < 2) {
             throw new IllegalArgumentException("Tree network requires at least 2 nodes");
         }
+        if (numberOfNodes <= rootCount) {
+            throw new IllegalArgumentException("Tree network requires more nodes than roots");
+        }
     }
 
     private void createNodes(int numberOfNodes) {
         this.nodes = IntStream.range(0, numberOfNodes)
-                .mapToObj(i -> new Node("tree-node-" + i))
+                .mapToObj(i -> createNode("tree-node-" + i))
                 .toList();
     }
 
+    private Node createNode(String nodeId) {
+        return new Node(nodeId, placement != null ? new PinnedMailbox() : mailboxFactory.create(nodeId));
+    }
+
     private void configureTreeConnections() {
-        for (int i = 1; i < nodes.size(); i++) {
+        for (int i = 0; i < rootCount; i++) {
+            for (int j = i + 1; j < rootCount; j++) {
+                connectBidirectional(nodes.get(i), nodes.get(j));
+            }
+        }
+
+        for (int i = rootCount; i < nodes.size(); i++) {
             Node childNode = nodes.get(i);
             Node parentNode = nodes.get(getParentIndex(i));
 
@@ -67,8 +276,16 @@ public class TreeNetwork implements NetworkTopology {
         }
     }
 
-    private int getParentIndex(int childIndex) {
-        return (childIndex - 1) / 2;
+    private int nextTreeHop(int currentNode, int destinationNode) {
+        int ancestor = destinationNode;
+        while (ancestor > currentNode && !isRoot(ancestor)) {
+            int parent = getParentIndex(ancestor);
+            if (parent == currentNode) {
+                return ancestor;
+            }
+            ancestor = parent;
+        }
+        return isRoot(currentNode) ? ancestor : getParentIndex(currentNode);
     }
 
     private void connectBidirectional(Node node1, Node node2) {
@@ -76,12 +293,26 @@ public class TreeNetwork implements NetworkTopology {
         node2.addNeighbor(node1);
     }
 
+    private void initializeWorkerPool() {
+        this.workerPool = placement != null ? new WorkerPool(nodes, placement) : null;
+    }
+
     private void initializeExecutor(int numberOfNodes) {
         this.executor = Executors.newFixedThreadPool(numberOfNodes + 1);
     }
 
     private void initializeMessageRouter() {
         this.messageRouter = new MessageRouter(nodes);
+        features.attach(nodes, messageRouter);
+        messageRouter.setTracer(tracer);
+        if (linkLayer != null) {
+            applyLinkLayer();
+        }
+    }
+
+    private void applyLinkLayer() {
+        messageRouter.setRoutingStrategy(this::nextTreeHop);
+        messageRouter.setLinkLayer(linkLayer);
     }
 
     private void validateNetworkRunning() {
@@ -99,27 +330,4 @@ public class TreeNetwork implements NetworkTopology {
     private void startNodes() {
         nodes.forEach(executor::submit);
     }
-
-    private void shutdownNodes() {
-        if (nodes != null) {
-            nodes.forEach(Node::shutdown);
-        }
-    }
-
-    private void gracefulShutdown() {
-        if (executor != null) {
-            executor.shutdown();
-            try {
-                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executor.shutdownNow();
-                    if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                        System.err.println("Executor did not terminate gracefully");
-                    }
-                }
-            } catch (InterruptedException e) {
-                executor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-}
\ No newline at end of file
+}